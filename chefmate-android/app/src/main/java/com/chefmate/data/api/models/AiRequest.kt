@@ -10,7 +10,10 @@ data class AiRequest(
     val recipeId: Long? = null,
     
     @SerializedName("cookingContext")
-    val cookingContext: CookingContext? = null
+    val cookingContext: CookingContext? = null,
+
+    @SerializedName("sessionId")
+    val sessionId: String? = null
 )
 
 data class CookingContext(
@@ -32,7 +35,8 @@ data class CookingContext(
     @SerializedName("stoveSetting")
     val stoveSetting: String? = null, // "Low", "Medium", "High", etc.
     
-    // Full recipe information
+    // Recipe information - only needed when recipeId is not set,
+    // otherwise the server builds it from the stored recipe
     @SerializedName("recipeTitle")
     val recipeTitle: String? = null,
     
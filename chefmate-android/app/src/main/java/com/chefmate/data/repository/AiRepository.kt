@@ -23,7 +23,7 @@ class AiRepository(
         }
     }
 
-    suspend fun chatWithAI(message: String, recipeId: Long? = null, cookingContext: com.chefmate.data.api.models.CookingContext? = null): Result<AiResponse> {
+    suspend fun chatWithAI(message: String, recipeId: Long? = null, cookingContext: com.chefmate.data.api.models.CookingContext? = null, sessionId: String? = null): Result<AiResponse> {
         return withContext(Dispatchers.IO) {
             try {
                 val token = getAuthToken()
@@ -31,7 +31,7 @@ class AiRepository(
                     return@withContext Result.failure(Exception("You are not authenticated"))
                 }
 
-                val request = AiRequest(message = message, recipeId = recipeId, cookingContext = cookingContext)
+                val request = AiRequest(message = message, recipeId = recipeId, cookingContext = cookingContext, sessionId = sessionId)
                 val response = apiService.chatWithAI(token, request)
 
                 if (response.isSuccessful && response.body() != null) {
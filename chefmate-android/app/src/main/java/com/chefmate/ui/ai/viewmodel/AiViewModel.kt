@@ -9,6 +9,7 @@ import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.launch
+import java.util.UUID
 
 data class ChatMessage(
     val message: String,
@@ -20,6 +21,9 @@ class AiViewModel(private val context: android.content.Context) : ViewModel() {
     private val tokenManager = TokenManager(context)
     private val aiRepository = AiRepository(tokenManager)
 
+    // The server keeps this chat's earlier turns under this id
+    private val sessionId = UUID.randomUUID().toString()
+
     private val _chatMessages = MutableStateFlow<List<ChatMessage>>(emptyList())
     val chatMessages: StateFlow<List<ChatMessage>> = _chatMessages.asStateFlow()
 
@@ -41,7 +45,7 @@ class AiViewModel(private val context: android.content.Context) : ViewModel() {
         _error.value = null
 
         viewModelScope.launch {
-            aiRepository.chatWithAI(message, recipeId)
+            aiRepository.chatWithAI(message, recipeId, sessionId = sessionId)
                 .onSuccess { response ->
                     // Add AI response
                     val aiMessage = ChatMessage(message = response.response, isUser = false)
@@ -11,6 +11,7 @@ import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.delay
+import java.util.UUID
 import java.util.concurrent.atomic.AtomicLong
 
 data class CookingSessionState(
@@ -47,7 +48,11 @@ class CookingModeViewModel(private val context: android.content.Context) : ViewM
     
     private var localTimerJob: kotlinx.coroutines.Job? = null
     
+    // Lets the server keep the conversation, so follow-up questions have context
+    private var aiSessionId = UUID.randomUUID().toString()
+    
     fun startCookingSession(recipe: RecipeResponse) {
+        aiSessionId = UUID.randomUUID().toString()
         _sessionState.value = CookingSessionState(
             recipe = recipe,
             currentStep = 0,
@@ -241,30 +246,21 @@ class CookingModeViewModel(private val context: android.content.Context) : ViewM
             val state = _sessionState.value
             val recipe = state.recipe
             
-            // Create cooking context with full recipe information
+            // Only the session state; the server adds the recipe itself from recipeId
             val cookingContext = CookingContext(
                 currentStep = state.currentStep + 1, // 1-indexed for display
                 totalSteps = state.totalSteps,
                 usedIngredients = state.usedIngredients,
                 cookingStage = state.cookingStage,
                 currentAction = state.currentAction,
-                stoveSetting = state.stoveSetting,
-                // Full recipe data for AI
-                recipeTitle = recipe?.title,
-                recipeDescription = recipe?.description,
-                recipeIngredients = recipe?.ingredients,
-                recipeSteps = recipe?.steps,
-                recipeDifficulty = recipe?.difficulty,
-                prepTime = recipe?.prepTime,
-                cookTime = recipe?.cookTime,
-                totalTime = recipe?.totalTime,
-                servings = recipe?.servings
+                stoveSetting = state.stoveSetting
             )
             
             aiRepository.chatWithAI(
                 message = message,
                 recipeId = recipe?.id,
-                cookingContext = cookingContext
+                cookingContext = cookingContext,
+                sessionId = aiSessionId
             )
                 .onSuccess { response ->
                     _aiResponse.value = response.response
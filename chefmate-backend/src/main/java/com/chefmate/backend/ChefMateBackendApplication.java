@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
@@ -13,7 +14,10 @@ public class ChefMateBackendApplication {
 	private static final Logger logger = LoggerFactory.getLogger(ChefMateBackendApplication.class);
 	
 	public static void main(String[] args) {
-		SpringApplication.run(ChefMateBackendApplication.class, args);
+		SpringApplication application = new SpringApplication(ChefMateBackendApplication.class);
+		// Records how long each bean took to create, for StartupTimingReport and /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(4096));
+		application.run(args);
 		logger.info("ChefMate Backend started successfully!");
 		logger.info("Swagger UI: http://localhost:8090/swagger-ui/index.html");
 		logger.info("API Docs: http://localhost:8090/api-docs");
@@ -1,12 +1,37 @@
 package com.chefmate.backend.config;
 
+import com.chefmate.backend.entity.Recipe;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Schema changes Hibernate's ddl-auto cannot make. They run while the context starts,
+ * before the web server takes requests, so no request sees ids from a sequence that is not
+ * aligned yet or a recipe whose lists are not filled in yet. Every step is safe to repeat,
+ * so a run cut short by a shutdown simply continues on the next start.
+ *
+ * Checking that the migrated columns are in place only reads information_schema, so it runs
+ * on a background thread once the context is up; until it is done the instance reports
+ * OUT_OF_SERVICE on /actuator/health/readiness.
+ */
 @Configuration
 public class DatabaseMigrationConfig {
 
@@ -15,8 +40,102 @@ public class DatabaseMigrationConfig {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private StartupTimingReport startupTimingReport;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Duration duration;
+    private final List<String> failedSteps = new CopyOnWriteArrayList<>();
+    private volatile boolean checked;
+    private volatile List<String> missingColumns = List.of();
+
+    // Tables whose ids moved from IDENTITY to pooled sequences (allocationSize = 50)
+    private static final String[][] SEQUENCE_TABLES = {
+            {"shopping_list_items", "shopping_list_items_seq"},
+            {"comments", "comments_seq"},
+            {"recipe_likes", "recipe_likes_seq"},
+            {"comment_likes", "comment_likes_seq"}
+    };
+
+    // JSONB list column on recipes, the element collection table it replaces, and that table's value column
+    private static final String[][] RECIPE_LIST_COLUMNS = {
+            {"ingredients", "recipe_ingredients", "ingredient"},
+            {"steps", "recipe_steps", "step"},
+            {"image_urls", "recipe_image_urls", "image_url"}
+    };
+    private static final int RECIPE_MIGRATION_CHUNK = 500;
+
+    // Table and column each migration step leaves behind
+    private static final String[][] MIGRATED_COLUMNS = {
+            {"users", "enabled"},
+            {"recipes", "ingredients"},
+            {"recipes", "steps"},
+            {"recipes", "image_urls"},
+            {"recipes", "ingredient_names"},
+            {"shopping_list_items", "version"},
+            {"ai_usage_daily", "recipe_id"},
+            {"ai_usage_daily", "cost_micro_usd"}
+    };
+
     @PostConstruct
     public void migrateDatabase() {
+        long startedAt = System.nanoTime();
+        addEnabledColumn();
+        alignIdSequences();
+        migrateRecipeListsToJsonb();
+        fillIngredientNames();
+        versionShoppingListItems();
+        keyAiUsageByRecipe();
+        duration = Duration.ofNanos(System.nanoTime() - startedAt);
+        startupTimingReport.recordCheck("databaseMigration", duration, failedSteps.isEmpty());
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void startSchemaCheck() {
+        Thread.ofPlatform().name("database-schema-check").daemon(true).start(this::checkSchema);
+    }
+
+    void checkSchema() {
+        long startedAt = System.nanoTime();
+        List<String> missing = new ArrayList<>();
+        try {
+            for (String[] tableAndColumn : MIGRATED_COLUMNS) {
+                if (tableExists(tableAndColumn[0]) && !columnExists(tableAndColumn[0], tableAndColumn[1])) {
+                    missing.add(tableAndColumn[0] + "." + tableAndColumn[1]);
+                }
+            }
+            if (!missing.isEmpty()) {
+                logger.warn("Columns missing after database migration: {}", missing);
+            }
+        } catch (Exception e) {
+            missing.add("unknown");
+            logger.error("Error checking the database schema: {}", e.getMessage(), e);
+        }
+        missingColumns = List.copyOf(missing);
+        checked = true;
+        startupTimingReport.recordCheck("databaseSchema", Duration.ofNanos(System.nanoTime() - startedAt), missing.isEmpty());
+    }
+
+    // Part of the readiness group (see application.yaml); failed steps are logged and do not block traffic
+    @Bean
+    public HealthIndicator databaseMigrationHealthIndicator() {
+        return () -> {
+            if (!checked) {
+                return Health.outOfService().withDetail("state", "checking").build();
+            }
+            Health.Builder health = Health.up().withDetail("durationMs", duration.toMillis());
+            if (!failedSteps.isEmpty()) {
+                health.withDetail("failedSteps", List.copyOf(failedSteps));
+            }
+            if (!missingColumns.isEmpty()) {
+                health.withDetail("missingColumns", missingColumns);
+            }
+            return health.build();
+        };
+    }
+
+    private void addEnabledColumn() {
         try {
             // Check if enabled column exists
             String checkColumnSql = "SELECT COUNT(*) FROM information_schema.columns " +
@@ -38,9 +157,199 @@ public class DatabaseMigrationConfig {
                 logger.debug("Column 'enabled' already exists in users table");
             }
         } catch (Exception e) {
+            failedSteps.add("users.enabled");
             logger.error("Error during database migration: {}", e.getMessage(), e);
             // Don't throw exception - allow application to start even if migration fails
             // Admin can manually add the column later
         }
     }
+
+    /**
+     * Makes sure each id sequence starts above the ids already issued by the old IDENTITY
+     * columns. The sequence is only ever moved forward, so running this on every start
+     * (or from several instances) cannot hand out an id twice.
+     */
+    private void alignIdSequences() {
+        for (String[] tableAndSequence : SEQUENCE_TABLES) {
+            String table = tableAndSequence[0];
+            String sequence = tableAndSequence[1];
+            try {
+                jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence + " START WITH 1 INCREMENT BY 50");
+
+                if (!tableExists(table)) {
+                    continue; // Fresh database: Hibernate creates the table and its ids start from the sequence
+                }
+
+                // With the pooled optimizer a sequence value v covers ids (v - 49 .. v]
+                jdbcTemplate.queryForObject(
+                        "SELECT setval('" + sequence + "', GREATEST(" +
+                        "(SELECT COALESCE(MAX(id), 0) FROM " + table + "), " +
+                        "(SELECT last_value FROM " + sequence + "), 1))",
+                        Long.class);
+            } catch (Exception e) {
+                failedSteps.add(sequence);
+                logger.error("Error aligning id sequence {}: {}", sequence, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * One-time move of recipe ingredients, steps and image URLs from their element collection
+     * tables into JSONB columns on recipes. Rows are converted in id ranges, each in its own
+     * statement, so a large table is never held in one transaction or in memory. Recipes that
+     * already have a value are skipped, which makes an interrupted run safe to repeat.
+     *
+     * The old tables are left in place: instances still on the previous release keep using
+     * them during a rolling deploy. They are dropped by hand with drop_recipe_list_tables.sql
+     * in the release after this one.
+     */
+    private void migrateRecipeListsToJsonb() {
+        try {
+            if (!tableExists("recipes")) {
+                return; // Fresh database: Hibernate creates recipes with the JSONB columns
+            }
+
+            for (String[] listColumn : RECIPE_LIST_COLUMNS) {
+                String column = listColumn[0];
+                String legacyTable = listColumn[1];
+                String valueColumn = listColumn[2];
+
+                jdbcTemplate.execute("ALTER TABLE recipes ADD COLUMN IF NOT EXISTS " + column + " JSONB");
+                boolean hasLegacyTable = tableExists(legacyTable);
+                // Element collection rows were always replaced as a whole, so stored order is list order
+                String source = hasLegacyTable
+                        ? "COALESCE((SELECT jsonb_agg(l." + valueColumn + " ORDER BY l.ctid) " +
+                          "FROM " + legacyTable + " l WHERE l.recipe_id = r.id), '[]'::jsonb)"
+                        : "'[]'::jsonb";
+
+                Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM recipes", Long.class);
+                int converted = 0;
+                for (long from = 0; maxId != null && from < maxId; from += RECIPE_MIGRATION_CHUNK) {
+                    converted += jdbcTemplate.update(
+                            "UPDATE recipes r SET " + column + " = " + source +
+                            " WHERE r.id > ? AND r.id <= ? AND r." + column + " IS NULL",
+                            from, from + RECIPE_MIGRATION_CHUNK);
+                }
+                if (converted > 0) {
+                    logger.info("Filled recipes.{} for {} recipes", column, converted);
+                }
+            }
+        } catch (Exception e) {
+            failedSteps.add("recipes.jsonb");
+            logger.error("Error moving recipe lists to JSONB: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fills recipes.ingredient_names for recipes saved before the column existed. The names
+     * come from IngredientParser, so they are computed here rather than in SQL, one id range
+     * at a time; recipes that already have names are skipped.
+     */
+    private void fillIngredientNames() {
+        try {
+            if (!tableExists("recipes")) {
+                return; // Fresh database: Hibernate creates the column and every save fills it
+            }
+            jdbcTemplate.execute("ALTER TABLE recipes ADD COLUMN IF NOT EXISTS ingredient_names JSONB");
+
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM recipes", Long.class);
+            int filled = 0;
+            for (long from = 0; maxId != null && from < maxId; from += RECIPE_MIGRATION_CHUNK) {
+                Map<Long, List<String>> ingredients = new LinkedHashMap<>();
+                jdbcTemplate.query(
+                        "SELECT r.id, l.line FROM recipes r " +
+                        "LEFT JOIN LATERAL jsonb_array_elements_text(COALESCE(r.ingredients, '[]'::jsonb)) AS l(line) ON true " +
+                        "WHERE r.id > ? AND r.id <= ? AND r.ingredient_names IS NULL",
+                        (RowCallbackHandler) rs -> {
+                            List<String> lines = ingredients.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>());
+                            String line = rs.getString(2);
+                            if (line != null) {
+                                lines.add(line);
+                            }
+                        },
+                        from, from + RECIPE_MIGRATION_CHUNK);
+                if (ingredients.isEmpty()) {
+                    continue;
+                }
+
+                List<Object[]> names = new ArrayList<>(ingredients.size());
+                for (Map.Entry<Long, List<String>> recipe : ingredients.entrySet()) {
+                    names.add(new Object[]{
+                            objectMapper.writeValueAsString(Recipe.ingredientNames(recipe.getValue())), recipe.getKey()});
+                }
+                jdbcTemplate.batchUpdate(
+                        "UPDATE recipes SET ingredient_names = CAST(? AS jsonb) WHERE id = ? AND ingredient_names IS NULL",
+                        names);
+                filled += names.size();
+            }
+            if (filled > 0) {
+                logger.info("Filled recipes.ingredient_names for {} recipes", filled);
+            }
+
+            // jsonb_path_ops supports the containment (@>) searches in RecipeRepository.findByIngredient
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_recipes_ingredient_names_gin " +
+                    "ON recipes USING GIN (ingredient_names jsonb_path_ops)");
+        } catch (Exception e) {
+            failedSteps.add("recipes.ingredient_names");
+            logger.error("Error filling recipe ingredient names: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Items from before delta sync have no version, so ShoppingListItemRepository.findChangedSince
+     * never returns them. They are put at version 1 and their list at version 1 or later, so a
+     * client syncing from version 0 fetches them.
+     */
+    private void versionShoppingListItems() {
+        try {
+            if (!tableExists("shopping_list_items")) {
+                return; // Fresh database: every item is written with a version
+            }
+            jdbcTemplate.execute("ALTER TABLE shopping_lists ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0");
+            jdbcTemplate.execute("ALTER TABLE shopping_list_items ADD COLUMN IF NOT EXISTS version BIGINT");
+            jdbcTemplate.update("UPDATE shopping_lists SET version = 1 WHERE COALESCE(version, 0) < 1 " +
+                    "AND id IN (SELECT shopping_list_id FROM shopping_list_items WHERE version IS NULL)");
+            int versioned = jdbcTemplate.update("UPDATE shopping_list_items SET version = 1 WHERE version IS NULL");
+            if (versioned > 0) {
+                logger.info("Set version 1 on {} shopping list items", versioned);
+            }
+        } catch (Exception e) {
+            failedSteps.add("shopping_list_items.version");
+            logger.error("Error versioning shopping list items: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * ai_usage_daily rows used to be one per user and day. Existing rows keep their totals
+     * under recipe 0 (no recipe), and the unique key moves to (user, recipe, day) so the
+     * upserts in AiUsageDailyRepository find their row.
+     */
+    private void keyAiUsageByRecipe() {
+        try {
+            if (!tableExists("ai_usage_daily")) {
+                return; // Fresh database: Hibernate creates the table with the new key
+            }
+            jdbcTemplate.execute("ALTER TABLE ai_usage_daily ADD COLUMN IF NOT EXISTS recipe_id BIGINT NOT NULL DEFAULT 0");
+            jdbcTemplate.execute("ALTER TABLE ai_usage_daily ADD COLUMN IF NOT EXISTS cost_micro_usd BIGINT NOT NULL DEFAULT 0");
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_ai_usage_daily_user_recipe_date " +
+                    "ON ai_usage_daily (user_id, recipe_id, usage_date)");
+            jdbcTemplate.execute("ALTER TABLE ai_usage_daily DROP CONSTRAINT IF EXISTS uk_ai_usage_daily_user_date");
+        } catch (Exception e) {
+            failedSteps.add("ai_usage_daily.recipe_id");
+            logger.error("Error keying AI usage by recipe: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean tableExists(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = ?", Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    private boolean columnExists(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE table_name = ? AND column_name = ?",
+                Integer.class, table, column);
+        return count != null && count > 0;
+    }
 }
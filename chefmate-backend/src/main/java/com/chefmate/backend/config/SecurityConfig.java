@@ -1,6 +1,7 @@
 package com.chefmate.backend.config;
 
 import com.chefmate.backend.filter.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -35,6 +36,9 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // SSE and async results are re-dispatched after the request was authorized; the JWT filter
+                        // runs once per request, so these dispatches carry no authentication of their own
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/auth/register", "/api/auth/login", "/api/auth/forgot-password", "/api/auth/reset-password").permitAll()
                         .requestMatchers("/api/auth/change-password", "/api/auth/change-username", "/api/auth/me", "/api/auth/delete-account").authenticated()
                         .requestMatchers("/api/auth/**").permitAll() // Other auth endpoints
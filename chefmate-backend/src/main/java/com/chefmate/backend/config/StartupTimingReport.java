@@ -0,0 +1,114 @@
+package com.chefmate.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Logs where startup time went: the database migration, then once the application is
+ * ready the beans that took longest to create, and later the checks that run in the
+ * background after startup (database schema, Gemini reachability) as they finish.
+ *
+ * Bean times come from the BufferingApplicationStartup set in ChefMateBackendApplication;
+ * the same timeline is available to admins at /actuator/startup.
+ */
+@Component
+public class StartupTimingReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimingReport.class);
+
+    private static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+
+    private final int reportSize;
+
+    public StartupTimingReport(@Value("${app.startup.report-size:10}") int reportSize) {
+        this.reportSize = reportSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportSlowestBeans(ApplicationReadyEvent event) {
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        List<BeanTiming> slowest = slowestBeans(startup.getBufferedTimeline(), reportSize);
+        StringBuilder report = new StringBuilder("Ready in ")
+                .append(event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1)
+                .append(" ms; slowest beans (own time / including dependencies):");
+        for (BeanTiming bean : slowest) {
+            report.append("\n  ").append(bean.getOwnTime().toMillis()).append(" ms / ")
+                    .append(bean.getTotalTime().toMillis()).append(" ms  ").append(bean.getBeanName());
+        }
+        logger.info(report.toString());
+    }
+
+    /**
+     * Called by the startup checks when they are done.
+     */
+    public void recordCheck(String name, Duration duration, boolean succeeded) {
+        logger.info("Startup check {} {} in {} ms ({} ms after JVM start)", name,
+                succeeded ? "finished" : "finished with errors", duration.toMillis(),
+                ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    /**
+     * A bean's own time leaves out the beans created while it was being created, so a
+     * bean that is slow only because of a slow dependency does not crowd out the dependency.
+     */
+    static List<BeanTiming> slowestBeans(StartupTimeline timeline, int limit) {
+        Map<Long, Duration> childTime = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            StartupStep step = event.getStartupStep();
+            if (BEAN_INSTANTIATE.equals(step.getName()) && step.getParentId() != null) {
+                childTime.merge(step.getParentId(), event.getDuration(), Duration::plus);
+            }
+        }
+
+        List<BeanTiming> beans = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            StartupStep step = event.getStartupStep();
+            if (!BEAN_INSTANTIATE.equals(step.getName())) {
+                continue;
+            }
+            String beanName = null;
+            for (StartupStep.Tag tag : step.getTags()) {
+                if ("beanName".equals(tag.getKey())) {
+                    beanName = tag.getValue();
+                }
+            }
+            Duration ownTime = event.getDuration().minus(childTime.getOrDefault(step.getId(), Duration.ZERO));
+            beans.add(new BeanTiming(beanName, ownTime, event.getDuration()));
+        }
+        beans.sort(Comparator.comparing(BeanTiming::getOwnTime).reversed());
+        return beans.subList(0, Math.min(limit, beans.size()));
+    }
+
+    static final class BeanTiming {
+        private final String beanName;
+        private final Duration ownTime;
+        private final Duration totalTime;
+
+        BeanTiming(String beanName, Duration ownTime, Duration totalTime) {
+            this.beanName = beanName;
+            this.ownTime = ownTime;
+            this.totalTime = totalTime;
+        }
+
+        String getBeanName() { return beanName; }
+        Duration getOwnTime() { return ownTime; }
+        Duration getTotalTime() { return totalTime; }
+    }
+}
@@ -1,13 +1,20 @@
 package com.chefmate.backend.controller;
 
 import com.chefmate.backend.dto.AiResponse;
+import com.chefmate.backend.service.AiConversationService;
+import com.chefmate.backend.service.AiRateLimiter;
 import com.chefmate.backend.service.AiService;
 import com.chefmate.backend.service.JwtService;
 import com.chefmate.backend.utils.JwtUtils;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/ai")
@@ -15,17 +22,58 @@ public class AIController {
 
     private final JwtService jwtService;
     private final AiService aiService;
+    private final AiConversationService conversationService;
+    private final AiRateLimiter rateLimiter;
 
-    public AIController(JwtService jwtService, AiService aiService) {
+    public AIController(JwtService jwtService, AiService aiService, AiConversationService conversationService,
+                        AiRateLimiter rateLimiter) {
         this.jwtService = jwtService;
         this.aiService = aiService;
+        this.conversationService = conversationService;
+        this.rateLimiter = rateLimiter;
     }
 
+    // Returns a future so the Tomcat worker is released while Gemini answers
     @PostMapping("/chat")
-    public ResponseEntity<AiResponse> chatWithAI(
+    public CompletableFuture<ResponseEntity<AiResponse>> chatWithAI(
             @RequestBody Map<String, Object> request,
             @RequestHeader(value = "Authorization", required = false) String token) {
         
+        Long userId = JwtUtils.getUserIdFromToken(token, jwtService);
+        if (userId == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(401).build());
+        }
+
+        String message = (String) request.get("message");
+        if (message == null || message.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+
+        if (!rateLimiter.tryAcquire(userId)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(429).build());
+        }
+
+        Long recipeId = getRecipeId(request);
+        Map<String, Object> cookingContext = getCookingContext(request);
+
+        try {
+            return aiService.getAiResponseAsync(message, recipeId, cookingContext, getSessionKey(request, userId), userId)
+                    .handle((aiResponseText, error) -> {
+                        if (error != null) {
+                            return busyOrError(error);
+                        }
+                        return ResponseEntity.ok(new AiResponse(aiResponseText));
+                    });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(429).build());
+        }
+    }
+
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChatWithAI(
+            @RequestBody Map<String, Object> request,
+            @RequestHeader(value = "Authorization", required = false) String token) {
+
         Long userId = JwtUtils.getUserIdFromToken(token, jwtService);
         if (userId == null) {
             return ResponseEntity.status(401).build();
@@ -36,21 +84,60 @@ public class AIController {
             return ResponseEntity.badRequest().build();
         }
 
-        Long recipeId = null;
-        if (request.get("recipeId") != null) {
-            if (request.get("recipeId") instanceof Number) {
-                recipeId = ((Number) request.get("recipeId")).longValue();
-            }
+        if (!rateLimiter.tryAcquire(userId)) {
+            return ResponseEntity.status(429).build();
         }
 
-        Map<String, Object> cookingContext = null;
-        if (request.get("cookingContext") != null) {
-            cookingContext = (Map<String, Object>) request.get("cookingContext");
+        try {
+            return ResponseEntity.ok(aiService.streamAiResponse(message, getRecipeId(request),
+                    getCookingContext(request), getSessionKey(request, userId), userId));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(429).build();
+        }
+    }
+
+    @DeleteMapping("/sessions/{sessionId}")
+    public ResponseEntity<Void> endSession(
+            @PathVariable String sessionId,
+            @RequestHeader(value = "Authorization", required = false) String token) {
+
+        Long userId = JwtUtils.getUserIdFromToken(token, jwtService);
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
         }
 
-        String aiResponseText = aiService.getAiResponse(message, recipeId, cookingContext);
-        AiResponse response = new AiResponse(aiResponseText);
+        conversationService.endConversation(userId + ":" + sessionId);
+        return ResponseEntity.noContent().build();
+    }
 
-        return ResponseEntity.ok(response);
+    private ResponseEntity<AiResponse> busyOrError(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(429).build();
+        }
+        return ResponseEntity.status(500).build();
+    }
+
+    // Sessions are scoped to the user so one user cannot read into another's conversation
+    private String getSessionKey(Map<String, Object> request, Long userId) {
+        if (request.get("sessionId") instanceof String sessionId && !sessionId.isBlank()) {
+            return userId + ":" + sessionId;
+        }
+        return null;
+    }
+
+    private Long getRecipeId(Map<String, Object> request) {
+        if (request.get("recipeId") instanceof Number) {
+            return ((Number) request.get("recipeId")).longValue();
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> getCookingContext(Map<String, Object> request) {
+        if (request.get("cookingContext") != null) {
+            return (Map<String, Object>) request.get("cookingContext");
+        }
+        return null;
     }
 }
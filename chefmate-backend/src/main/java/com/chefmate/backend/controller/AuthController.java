@@ -257,6 +257,10 @@ public class AuthController {
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
+            // Store new image first: if it is the same photo, the old reference keeps the file on disk
+            String storedFileName = fileStorageService.storeFile(image);
+            String imageUrl = "/uploads/" + storedFileName;
+
             // Delete old profile image file if exists
             String existingUrl = user.getProfileImageUrl();
             if (existingUrl != null && !existingUrl.isBlank()) {
@@ -270,10 +274,6 @@ public class AuthController {
                 }
             }
 
-            // Store new image
-            String storedFileName = fileStorageService.storeFile(image);
-            String imageUrl = "/uploads/" + storedFileName;
-
             user.setProfileImageUrl(imageUrl);
             userRepository.save(user);
 
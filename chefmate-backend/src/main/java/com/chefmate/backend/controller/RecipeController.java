@@ -1,22 +1,29 @@
 package com.chefmate.backend.controller;
 
 import com.chefmate.backend.dto.CommentResponse;
+import com.chefmate.backend.dto.RecipeFaqResponse;
 import com.chefmate.backend.dto.RecipeRequest;
 import com.chefmate.backend.dto.RecipeResponse;
 import com.chefmate.backend.service.FileStorageService;
+import com.chefmate.backend.service.ImageVariantService;
 import com.chefmate.backend.service.JwtService;
+import com.chefmate.backend.service.RecipeEventService;
+import com.chefmate.backend.service.RecipeFaqService;
 import com.chefmate.backend.service.RecipeService;
 import com.chefmate.backend.utils.JwtUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/recipes")
@@ -28,13 +35,21 @@ public class RecipeController {
     private final JwtService jwtService;
     private final FileStorageService fileStorageService;
     private final ObjectMapper objectMapper;
+    private final RecipeEventService recipeEventService;
+    private final RecipeFaqService recipeFaqService;
+    private final ImageVariantService imageVariantService;
 
     public RecipeController(RecipeService recipeService, JwtService jwtService, 
-                           FileStorageService fileStorageService, ObjectMapper objectMapper) {
+                           FileStorageService fileStorageService, ObjectMapper objectMapper,
+                           RecipeEventService recipeEventService, RecipeFaqService recipeFaqService,
+                           ImageVariantService imageVariantService) {
         this.recipeService = recipeService;
         this.jwtService = jwtService;
         this.fileStorageService = fileStorageService;
         this.objectMapper = objectMapper;
+        this.recipeEventService = recipeEventService;
+        this.recipeFaqService = recipeFaqService;
+        this.imageVariantService = imageVariantService;
     }
 
 
@@ -75,6 +90,11 @@ public class RecipeController {
                         logger.info("Saving image file: {}", image.getOriginalFilename());
                         String fileName = fileStorageService.storeFile(image);
                         String imageUrl = "/uploads/" + fileName;
+                        if (imageUrls.contains(imageUrl)) {
+                            // Same photo twice: keep one, and only one reference to it
+                            fileStorageService.deleteFile(fileName);
+                            continue;
+                        }
                         imageUrls.add(imageUrl);
                         logger.info("Image saved with URL: {}", imageUrl);
                     }
@@ -83,6 +103,8 @@ public class RecipeController {
             
             RecipeResponse response = recipeService.createRecipeWithImages(request, userId, imageUrls);
             logger.info("Recipe created successfully with ID: {}", response.getId());
+            // Resized copies are made in the background and show up in later responses
+            imageVariantService.submit(response.getId(), imageUrls);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.error("Error creating recipe", e);
@@ -166,13 +188,21 @@ public class RecipeController {
             }
             
             // Add new uploaded images
+            List<String> uploadedUrls = new ArrayList<>();
             if (images != null && !images.isEmpty()) {
                 for (MultipartFile image : images) {
                     if (image != null && !image.isEmpty()) {
                         logger.info("Saving new image file: {}", image.getOriginalFilename());
                         String fileName = fileStorageService.storeFile(image);
                         String imageUrl = "/uploads/" + fileName;
+                        if (imageUrls.contains(imageUrl)) {
+                            // An unchanged image sent again maps to the one the recipe already has
+                            fileStorageService.deleteFile(fileName);
+                            logger.info("Image already on the recipe: {}", imageUrl);
+                            continue;
+                        }
                         imageUrls.add(imageUrl);
+                        uploadedUrls.add(imageUrl);
                         logger.info("New image saved with URL: {}", imageUrl);
                     }
                 }
@@ -180,6 +210,7 @@ public class RecipeController {
             
             RecipeResponse response = recipeService.updateRecipeWithImages(id, request, userId, imageUrls);
             logger.info("Recipe updated successfully with ID: {}", id);
+            imageVariantService.submit(id, uploadedUrls);
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
             logger.error("Error updating recipe: {}", e.getMessage(), e);
@@ -213,6 +244,7 @@ public class RecipeController {
             @RequestParam(required = false) String query,
             @RequestParam(required = false) String difficulty,
             @RequestParam(required = false) Integer maxTime,
+            @RequestParam(required = false) String ingredient,
             @RequestHeader(value = "Authorization", required = false) String token) {
         
         Long currentUserId = JwtUtils.getUserIdFromToken(token, jwtService);
@@ -220,7 +252,7 @@ public class RecipeController {
             return ResponseEntity.status(401).build();
         }
         
-        List<RecipeResponse> recipes = recipeService.searchRecipes(query, difficulty, maxTime, currentUserId);
+        List<RecipeResponse> recipes = recipeService.searchRecipes(query, difficulty, maxTime, ingredient, currentUserId);
         return ResponseEntity.ok(recipes);
     }
 
@@ -274,6 +306,34 @@ public class RecipeController {
         }
     }
 
+    // Precomputed answers for the current recipe version; empty until the off-peak job has run
+    @GetMapping("/{recipeId}/faq")
+    public ResponseEntity<List<RecipeFaqResponse>> getRecipeFaq(@PathVariable Long recipeId) {
+        return recipeFaqService.getFaq(recipeId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(404).build());
+    }
+
+    @GetMapping(value = "/{recipeId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToRecipeEvents(
+            @PathVariable Long recipeId,
+            @RequestHeader(value = "Authorization", required = false) String token) {
+        
+        Long userId = JwtUtils.getUserIdFromToken(token, jwtService);
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        if (!recipeService.recipeExists(recipeId)) {
+            return ResponseEntity.status(404).build();
+        }
+        try {
+            return ResponseEntity.ok(recipeEventService.subscribe(recipeId, userId));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(429).build();
+        }
+    }
+
     @PostMapping("/{recipeId}/comments")
     public ResponseEntity<CommentResponse> addComment(
             @PathVariable Long recipeId,
@@ -1,5 +1,8 @@
 package com.chefmate.backend.controller;
 
+import com.chefmate.backend.dto.ShoppingListBulkRequest;
+import com.chefmate.backend.dto.ShoppingListChangesResponse;
+import com.chefmate.backend.dto.ShoppingListFromRecipesRequest;
 import com.chefmate.backend.dto.ShoppingListItemRequest;
 import com.chefmate.backend.dto.ShoppingListItemResponse;
 import com.chefmate.backend.dto.ShoppingListRequest;
@@ -13,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/shopping-lists")
@@ -54,6 +58,25 @@ public class ShoppingListController {
         }
     }
 
+    @PostMapping("/from-recipes")
+    public ResponseEntity<ShoppingListResponse> createFromRecipes(
+            @RequestBody ShoppingListFromRecipesRequest request,
+            @RequestHeader(value = "Authorization", required = false) String token) {
+        Long userId = JwtUtils.getUserIdFromToken(token, jwtService);
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (request.getRecipeIds() == null || request.getRecipeIds().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            ShoppingListResponse response = shoppingListService.createFromRecipes(request.getRecipeIds(), userId);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).build();
+        }
+    }
+
     @GetMapping("/my-list")
     public ResponseEntity<ShoppingListResponse> getMyShoppingList(
             @RequestHeader(value = "Authorization", required = false) String token) {
@@ -96,6 +119,23 @@ public class ShoppingListController {
         }
     }
 
+    @GetMapping("/{id}/changes")
+    public ResponseEntity<ShoppingListChangesResponse> getShoppingListChanges(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") Long since,
+            @RequestHeader(value = "Authorization", required = false) String token) {
+        Long userId = JwtUtils.getUserIdFromToken(token, jwtService);
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        try {
+            ShoppingListChangesResponse response = shoppingListService.getChanges(id, since, userId);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(403).build();
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ShoppingListResponse> updateShoppingList(
             @PathVariable Long id,
@@ -190,6 +230,28 @@ public class ShoppingListController {
         }
     }
 
+    @PatchMapping("/{listId}/items")
+    public ResponseEntity<ShoppingListResponse> applyItemOperations(
+            @PathVariable Long listId,
+            @RequestBody ShoppingListBulkRequest request,
+            @RequestHeader(value = "Authorization", required = false) String token) {
+        Long userId = JwtUtils.getUserIdFromToken(token, jwtService);
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (request.getOperations() == null || request.getOperations().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            ShoppingListResponse response = shoppingListService.applyItemOperations(listId, request.getOperations(), userId);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(403).build();
+        }
+    }
+
     @DeleteMapping("/{listId}/items/{itemId}")
     public ResponseEntity<Void> deleteShoppingListItem(
             @PathVariable Long listId,
@@ -202,6 +264,8 @@ public class ShoppingListController {
         try {
             shoppingListService.deleteShoppingListItem(listId, itemId, userId);
             return ResponseEntity.noContent().build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(404).build();
         } catch (RuntimeException e) {
             return ResponseEntity.status(403).build();
         }
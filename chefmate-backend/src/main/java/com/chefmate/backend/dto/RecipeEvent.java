@@ -0,0 +1,62 @@
+package com.chefmate.backend.dto;
+
+/**
+ * Delta pushed to subscribers of a recipe's event stream.
+ * Published by RecipeService and relayed over SSE by RecipeEventService.
+ */
+public class RecipeEvent {
+
+    public static final String COMMENT_ADDED = "comment-added";
+    public static final String COMMENT_DELETED = "comment-deleted";
+    public static final String LIKE_COUNT_CHANGED = "like-count-changed";
+
+    private String type;
+    private Long recipeId;
+    private Long commentId;
+    private Integer likesCount;
+    private CommentResponse comment;
+
+    public RecipeEvent() {}
+
+    public static RecipeEvent commentAdded(Long recipeId, CommentResponse comment) {
+        RecipeEvent event = new RecipeEvent();
+        event.setType(COMMENT_ADDED);
+        event.setRecipeId(recipeId);
+        event.setCommentId(comment.getId());
+        event.setComment(comment);
+        return event;
+    }
+
+    public static RecipeEvent commentDeleted(Long recipeId, Long commentId) {
+        RecipeEvent event = new RecipeEvent();
+        event.setType(COMMENT_DELETED);
+        event.setRecipeId(recipeId);
+        event.setCommentId(commentId);
+        return event;
+    }
+
+    // commentId is null when the recipe's own like count changed
+    public static RecipeEvent likeCountChanged(Long recipeId, Long commentId, Integer likesCount) {
+        RecipeEvent event = new RecipeEvent();
+        event.setType(LIKE_COUNT_CHANGED);
+        event.setRecipeId(recipeId);
+        event.setCommentId(commentId);
+        event.setLikesCount(likesCount);
+        return event;
+    }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getRecipeId() { return recipeId; }
+    public void setRecipeId(Long recipeId) { this.recipeId = recipeId; }
+
+    public Long getCommentId() { return commentId; }
+    public void setCommentId(Long commentId) { this.commentId = commentId; }
+
+    public Integer getLikesCount() { return likesCount; }
+    public void setLikesCount(Integer likesCount) { this.likesCount = likesCount; }
+
+    public CommentResponse getComment() { return comment; }
+    public void setComment(CommentResponse comment) { this.comment = comment; }
+}
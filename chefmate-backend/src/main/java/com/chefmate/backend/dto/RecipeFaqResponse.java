@@ -0,0 +1,19 @@
+package com.chefmate.backend.dto;
+
+public class RecipeFaqResponse {
+    private String question;
+    private String answer;
+
+    public RecipeFaqResponse() {}
+
+    public RecipeFaqResponse(String question, String answer) {
+        this.question = question;
+        this.answer = answer;
+    }
+
+    public String getQuestion() { return question; }
+    public void setQuestion(String question) { this.question = question; }
+
+    public String getAnswer() { return answer; }
+    public void setAnswer(String answer) { this.answer = answer; }
+}
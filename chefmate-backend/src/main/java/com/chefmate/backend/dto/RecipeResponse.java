@@ -2,6 +2,7 @@ package com.chefmate.backend.dto;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public class RecipeResponse {
     private Long id;
@@ -14,6 +15,8 @@ public class RecipeResponse {
     private String difficulty;
     private String imageUrl;
     private List<String> imageUrls;
+    // Smaller copies of each image by width ("200", "600", "1200"); images without variants yet are missing
+    private Map<String, Map<String, String>> imageVariants;
     private List<String> ingredients;
     private List<String> steps;
     private Long userId;
@@ -35,6 +38,7 @@ public class RecipeResponse {
     public String getDifficulty() { return difficulty; }
     public String getImageUrl() { return imageUrl; }
     public List<String> getImageUrls() { return imageUrls; }
+    public Map<String, Map<String, String>> getImageVariants() { return imageVariants; }
     public List<String> getIngredients() { return ingredients; }
     public List<String> getSteps() { return steps; }
     public Long getUserId() { return userId; }
@@ -57,6 +61,7 @@ public class RecipeResponse {
     public void setDifficulty(String difficulty) { this.difficulty = difficulty; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
     public void setImageUrls(List<String> imageUrls) { this.imageUrls = imageUrls; }
+    public void setImageVariants(Map<String, Map<String, String>> imageVariants) { this.imageVariants = imageVariants; }
     public void setIngredients(List<String> ingredients) { this.ingredients = ingredients; }
     public void setSteps(List<String> steps) { this.steps = steps; }
     public void setUserId(Long userId) { this.userId = userId; }
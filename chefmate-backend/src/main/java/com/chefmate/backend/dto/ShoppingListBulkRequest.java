@@ -0,0 +1,14 @@
+package com.chefmate.backend.dto;
+
+import java.util.List;
+
+public class ShoppingListBulkRequest {
+    // Applied in order, all or nothing
+    private List<ShoppingListItemOperation> operations;
+
+    // Getters
+    public List<ShoppingListItemOperation> getOperations() { return operations; }
+
+    // Setters
+    public void setOperations(List<ShoppingListItemOperation> operations) { this.operations = operations; }
+}
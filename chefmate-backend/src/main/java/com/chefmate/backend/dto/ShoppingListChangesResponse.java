@@ -0,0 +1,33 @@
+package com.chefmate.backend.dto;
+
+import java.util.List;
+
+/**
+ * What changed on a shopping list after the version the client already has.
+ * The client applies {@code items} and {@code deletedItemIds} and then asks
+ * again with {@code since = version}.
+ */
+public class ShoppingListChangesResponse {
+    private Long id;
+    private String name;
+    private Boolean completed;
+    private Long version;
+    private List<ShoppingListItemResponse> items;
+    private List<Long> deletedItemIds;
+
+    // Getters
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public Boolean getCompleted() { return completed; }
+    public Long getVersion() { return version; }
+    public List<ShoppingListItemResponse> getItems() { return items; }
+    public List<Long> getDeletedItemIds() { return deletedItemIds; }
+
+    // Setters
+    public void setId(Long id) { this.id = id; }
+    public void setName(String name) { this.name = name; }
+    public void setCompleted(Boolean completed) { this.completed = completed; }
+    public void setVersion(Long version) { this.version = version; }
+    public void setItems(List<ShoppingListItemResponse> items) { this.items = items; }
+    public void setDeletedItemIds(List<Long> deletedItemIds) { this.deletedItemIds = deletedItemIds; }
+}
@@ -0,0 +1,14 @@
+package com.chefmate.backend.dto;
+
+import java.util.List;
+
+public class ShoppingListFromRecipesRequest {
+    // A recipe listed twice (cooked twice in the week) contributes its ingredients twice
+    private List<Long> recipeIds;
+
+    // Getters
+    public List<Long> getRecipeIds() { return recipeIds; }
+
+    // Setters
+    public void setRecipeIds(List<Long> recipeIds) { this.recipeIds = recipeIds; }
+}
@@ -0,0 +1,41 @@
+package com.chefmate.backend.dto;
+
+/**
+ * One change in a bulk item request. {@code op} is "add", "update", "delete" or "purchased";
+ * every op except "add" needs {@code itemId}. Fields left null are not changed.
+ *
+ * Offline clients should send a unique {@code mutationId} with each operation so
+ * that resending a queued batch does not apply it twice.
+ */
+public class ShoppingListItemOperation {
+    public static final String ADD = "add";
+    public static final String UPDATE = "update";
+    public static final String DELETE = "delete";
+    public static final String PURCHASED = "purchased";
+
+    private String mutationId;
+    private String op;
+    private Long itemId;
+    private String name;
+    private String quantity;
+    private String unit;
+    private Boolean purchased;
+
+    // Getters
+    public String getMutationId() { return mutationId; }
+    public String getOp() { return op; }
+    public Long getItemId() { return itemId; }
+    public String getName() { return name; }
+    public String getQuantity() { return quantity; }
+    public String getUnit() { return unit; }
+    public Boolean getPurchased() { return purchased; }
+
+    // Setters
+    public void setMutationId(String mutationId) { this.mutationId = mutationId; }
+    public void setOp(String op) { this.op = op; }
+    public void setItemId(Long itemId) { this.itemId = itemId; }
+    public void setName(String name) { this.name = name; }
+    public void setQuantity(String quantity) { this.quantity = quantity; }
+    public void setUnit(String unit) { this.unit = unit; }
+    public void setPurchased(Boolean purchased) { this.purchased = purchased; }
+}
@@ -6,6 +6,7 @@ public class ShoppingListItemResponse {
     private String quantity;
     private String unit;
     private Boolean purchased;
+    private Long version;
     private Long recipeId;
     private String recipeName;
 
@@ -15,6 +16,7 @@ public class ShoppingListItemResponse {
     public String getQuantity() { return quantity; }
     public String getUnit() { return unit; }
     public Boolean getPurchased() { return purchased; }
+    public Long getVersion() { return version; }
     public Long getRecipeId() { return recipeId; }
     public String getRecipeName() { return recipeName; }
 
@@ -24,6 +26,7 @@ public class ShoppingListItemResponse {
     public void setQuantity(String quantity) { this.quantity = quantity; }
     public void setUnit(String unit) { this.unit = unit; }
     public void setPurchased(Boolean purchased) { this.purchased = purchased; }
+    public void setVersion(Long version) { this.version = version; }
     public void setRecipeId(Long recipeId) { this.recipeId = recipeId; }
     public void setRecipeName(String recipeName) { this.recipeName = recipeName; }
 }
\ No newline at end of file
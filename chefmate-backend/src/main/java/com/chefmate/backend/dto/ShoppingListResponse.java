@@ -9,6 +9,7 @@ public class ShoppingListResponse {
     private String username;
     private LocalDateTime createdAt;
     private Boolean completed;
+    private Long version;
     private List<ShoppingListItemResponse> items;
 
     // Getters
@@ -17,6 +18,7 @@ public class ShoppingListResponse {
     public String getUsername() { return username; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public Boolean getCompleted() { return completed; }
+    public Long getVersion() { return version; }
     public List<ShoppingListItemResponse> getItems() { return items; }
 
     // Setters
@@ -25,5 +27,6 @@ public class ShoppingListResponse {
     public void setUsername(String username) { this.username = username; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public void setCompleted(Boolean completed) { this.completed = completed; }
+    public void setVersion(Long version) { this.version = version; }
     public void setItems(List<ShoppingListItemResponse> items) { this.items = items; }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.chefmate.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * AI usage of one user about one recipe on one day: how requests were answered and what
+ * the Gemini calls cost in tokens, time and money. Written in batches by AiTelemetryService.
+ */
+@Entity
+@Table(name = "ai_usage_daily", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_ai_usage_daily_user_recipe_date", columnNames = {"user_id", "recipe_id", "usage_date"})
+})
+public class AiUsageDaily {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Not a foreign key: usage is kept for accounting after the user is gone, and 0 is background work
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Not a foreign key either: 0 is a question about no stored recipe
+    @Column(name = "recipe_id", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long recipeId;
+
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    @Column(nullable = false)
+    private long requests;
+
+    @Column(name = "local_answers", nullable = false)
+    private long localAnswers;
+
+    @Column(name = "cached_answers", nullable = false)
+    private long cachedAnswers;
+
+    @Column(name = "upstream_calls", nullable = false)
+    private long upstreamCalls;
+
+    @Column(nullable = false)
+    private long fallbacks;
+
+    @Column(nullable = false)
+    private long errors;
+
+    @Column(name = "prompt_tokens", nullable = false)
+    private long promptTokens;
+
+    @Column(name = "response_tokens", nullable = false)
+    private long responseTokens;
+
+    @Column(name = "upstream_millis", nullable = false)
+    private long upstreamMillis;
+
+    // Millionths of a dollar at the token prices configured when the calls were made
+    @Column(name = "cost_micro_usd", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long costMicroUsd;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getRecipeId() { return recipeId; }
+    public void setRecipeId(Long recipeId) { this.recipeId = recipeId; }
+
+    public LocalDate getUsageDate() { return usageDate; }
+    public void setUsageDate(LocalDate usageDate) { this.usageDate = usageDate; }
+
+    public long getRequests() { return requests; }
+    public void setRequests(long requests) { this.requests = requests; }
+
+    public long getLocalAnswers() { return localAnswers; }
+    public void setLocalAnswers(long localAnswers) { this.localAnswers = localAnswers; }
+
+    public long getCachedAnswers() { return cachedAnswers; }
+    public void setCachedAnswers(long cachedAnswers) { this.cachedAnswers = cachedAnswers; }
+
+    public long getUpstreamCalls() { return upstreamCalls; }
+    public void setUpstreamCalls(long upstreamCalls) { this.upstreamCalls = upstreamCalls; }
+
+    public long getFallbacks() { return fallbacks; }
+    public void setFallbacks(long fallbacks) { this.fallbacks = fallbacks; }
+
+    public long getErrors() { return errors; }
+    public void setErrors(long errors) { this.errors = errors; }
+
+    public long getPromptTokens() { return promptTokens; }
+    public void setPromptTokens(long promptTokens) { this.promptTokens = promptTokens; }
+
+    public long getResponseTokens() { return responseTokens; }
+    public void setResponseTokens(long responseTokens) { this.responseTokens = responseTokens; }
+
+    public long getUpstreamMillis() { return upstreamMillis; }
+    public void setUpstreamMillis(long upstreamMillis) { this.upstreamMillis = upstreamMillis; }
+
+    public long getCostMicroUsd() { return costMicroUsd; }
+    public void setCostMicroUsd(long costMicroUsd) { this.costMicroUsd = costMicroUsd; }
+}
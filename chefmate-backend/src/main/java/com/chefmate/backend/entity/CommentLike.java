@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 })
 public class CommentLike {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comment_likes_seq")
+    @SequenceGenerator(name = "comment_likes_seq", sequenceName = "comment_likes_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,9 +1,14 @@
 package com.chefmate.backend.entity;
 
+import com.chefmate.backend.utils.IngredientParser;
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 @Entity
 @Table(name = "recipes")
@@ -36,19 +41,28 @@ public class Recipe {
     @Column(name = "image_url")
     private String imageUrl;
 
-    @ElementCollection
-    @CollectionTable(name = "recipe_image_urls", joinColumns = @JoinColumn(name = "recipe_id"))
-    @Column(name = "image_url")
+    // Lists are stored as JSONB on the recipe row, so a full recipe is one row read and one row write
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "image_urls", columnDefinition = "jsonb")
     private List<String> imageUrls = new ArrayList<>();
 
-    @ElementCollection
-    @CollectionTable(name = "recipe_ingredients", joinColumns = @JoinColumn(name = "recipe_id"))
-    @Column(name = "ingredient")
+    // Resized copies by image URL and width; only written by ImageVariantService, never by entity saves
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "image_variants", columnDefinition = "jsonb", insertable = false, updatable = false)
+    private Map<String, Map<String, String>> imageVariants;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "ingredients", columnDefinition = "jsonb")
     private List<String> ingredients = new ArrayList<>();
 
-    @ElementCollection
-    @CollectionTable(name = "recipe_steps", joinColumns = @JoinColumn(name = "recipe_id"))
-    @Column(name = "step", columnDefinition = "TEXT")
+    // Normalized names of the ingredients ("2 eggs, beaten" is "egg"), searched by
+    // RecipeRepository.findByIngredient; derived from ingredients on every save
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "ingredient_names", columnDefinition = "jsonb")
+    private List<String> ingredientNames = new ArrayList<>();
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "steps", columnDefinition = "jsonb")
     private List<String> steps = new ArrayList<>();
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -86,7 +100,9 @@ public class Recipe {
     public Difficulty getDifficulty() { return difficulty; }
     public String getImageUrl() { return imageUrl; }
     public List<String> getImageUrls() { return imageUrls; }
+    public Map<String, Map<String, String>> getImageVariants() { return imageVariants; }
     public List<String> getIngredients() { return ingredients; }
+    public List<String> getIngredientNames() { return ingredientNames; }
     public List<String> getSteps() { return steps; }
     public User getUser() { return user; }
     public LocalDateTime getCreatedAt() { return createdAt; }
@@ -110,6 +126,7 @@ public class Recipe {
     public void setDifficulty(Difficulty difficulty) { this.difficulty = difficulty; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
     public void setImageUrls(List<String> imageUrls) { this.imageUrls = imageUrls; }
+    public void setImageVariants(Map<String, Map<String, String>> imageVariants) { this.imageVariants = imageVariants; }
     public void setIngredients(List<String> ingredients) { this.ingredients = ingredients; }
     public void setSteps(List<String> steps) { this.steps = steps; }
     public void setUser(User user) { this.user = user; }
@@ -118,6 +135,28 @@ public class Recipe {
     public void setLikesCount(Integer likesCount) { this.likesCount = likesCount; }
     public void setViewsCount(Integer viewsCount) { this.viewsCount = viewsCount; }
 
+    @PrePersist
+    @PreUpdate
+    void fillIngredientNames() {
+        this.ingredientNames = ingredientNames(ingredients);
+    }
+
+    /**
+     * @return the distinct normalized names of the given ingredient lines, in list order
+     */
+    public static List<String> ingredientNames(List<String> ingredients) {
+        LinkedHashSet<String> names = new LinkedHashSet<>();
+        if (ingredients != null) {
+            for (String line : ingredients) {
+                String name = IngredientParser.parse(line).getNormalizedName();
+                if (!name.isEmpty()) {
+                    names.add(name);
+                }
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
     // Helper method
     private void calculateTotalTime() {
         int prep = (prepTime != null) ? prepTime : 0;
@@ -0,0 +1,56 @@
+package com.chefmate.backend.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import java.time.LocalDateTime;
+
+/**
+ * A precomputed AI answer to one of the fixed FAQ questions, for one version of a recipe
+ * (its updatedAt). Served from GET /api/recipes/{id}/faq and used to answer matching chat
+ * questions without a Gemini call.
+ */
+@Entity
+@Table(name = "recipe_faqs", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_recipe_faqs_recipe_version_question", columnNames = {"recipe_id", "recipe_version", "question"})
+})
+public class RecipeFaq {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "recipe_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Recipe recipe;
+
+    @Column(name = "recipe_version", nullable = false)
+    private LocalDateTime recipeVersion;
+
+    @Column(nullable = false, length = 32)
+    private String question;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String answer;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Recipe getRecipe() { return recipe; }
+    public void setRecipe(Recipe recipe) { this.recipe = recipe; }
+
+    public LocalDateTime getRecipeVersion() { return recipeVersion; }
+    public void setRecipeVersion(LocalDateTime recipeVersion) { this.recipeVersion = recipeVersion; }
+
+    public String getQuestion() { return question; }
+    public void setQuestion(String question) { this.question = question; }
+
+    public String getAnswer() { return answer; }
+    public void setAnswer(String answer) { this.answer = answer; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
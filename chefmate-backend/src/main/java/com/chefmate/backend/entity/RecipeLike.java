@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 })
 public class RecipeLike {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_likes_seq")
+    @SequenceGenerator(name = "recipe_likes_seq", sequenceName = "recipe_likes_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -6,7 +6,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "shopping_lists")
+@Table(name = "shopping_lists", indexes = {
+    @Index(name = "idx_shopping_lists_user_completed_created", columnList = "user_id, completed, created_at")
+})
 public class ShoppingList {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -14,7 +16,7 @@ public class ShoppingList {
 
     private String name;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -23,6 +25,10 @@ public class ShoppingList {
 
     private Boolean completed = false;
 
+    // Bumped atomically by ShoppingListItemBatchRepository.nextListVersion on every change, never written by Hibernate
+    @Column(name = "version", updatable = false)
+    private Long version = 0L;
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -38,4 +44,7 @@ public class ShoppingList {
 
     public Boolean getCompleted() { return completed; }
     public void setCompleted(Boolean completed) { this.completed = completed; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
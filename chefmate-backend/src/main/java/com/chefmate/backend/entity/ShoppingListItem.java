@@ -4,10 +4,14 @@ import jakarta.persistence.*;
 import com.chefmate.backend.entity.Recipe;
 
 @Entity
-@Table(name = "shopping_list_items")
+@Table(name = "shopping_list_items", indexes = {
+    @Index(name = "idx_shopping_list_items_list_version", columnList = "shopping_list_id, version")
+})
 public class ShoppingListItem {
+    // Sequence ids handed out 50 at a time let Hibernate batch inserts; IDENTITY needs a round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shopping_list_items_seq")
+    @SequenceGenerator(name = "shopping_list_items_seq", sequenceName = "shopping_list_items_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -15,11 +19,14 @@ public class ShoppingListItem {
     private String unit;
     private Boolean purchased = false;
 
-    @ManyToOne
+    // List version of the last change to this item
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "shopping_list_id")
     private ShoppingList shoppingList;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "recipe_id")
     private Recipe recipe;
 
@@ -38,6 +45,9 @@ public class ShoppingListItem {
     public Boolean getPurchased() { return purchased; }
     public void setPurchased(Boolean purchased) { this.purchased = purchased; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public ShoppingList getShoppingList() { return shoppingList; }
     public void setShoppingList(ShoppingList shoppingList) { this.shoppingList = shoppingList; }
 
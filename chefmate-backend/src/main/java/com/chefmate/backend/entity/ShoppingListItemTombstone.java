@@ -0,0 +1,49 @@
+package com.chefmate.backend.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import java.time.LocalDateTime;
+
+/**
+ * Marks an item deleted from a shopping list at a given list version, so that
+ * clients syncing with GET /api/shopping-lists/{id}/changes learn about deletions.
+ */
+@Entity
+@Table(name = "shopping_list_item_tombstones", indexes = {
+    @Index(name = "idx_shopping_list_item_tombstones_list_version", columnList = "shopping_list_id, version")
+})
+public class ShoppingListItemTombstone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "shopping_list_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private ShoppingList shoppingList;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt = LocalDateTime.now();
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public ShoppingList getShoppingList() { return shoppingList; }
+    public void setShoppingList(ShoppingList shoppingList) { this.shoppingList = shoppingList; }
+
+    public Long getItemId() { return itemId; }
+    public void setItemId(Long itemId) { this.itemId = itemId; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
+}
@@ -0,0 +1,58 @@
+package com.chefmate.backend.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import java.time.LocalDateTime;
+
+/**
+ * Client-generated id of an item operation that was already applied to a list.
+ * Offline clients resend queued operations until they see a response, so a
+ * replayed id is skipped instead of being applied twice.
+ */
+@Entity
+@Table(name = "shopping_list_mutations", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"shopping_list_id", "mutation_id"})
+})
+public class ShoppingListMutation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "shopping_list_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private ShoppingList shoppingList;
+
+    @Column(name = "mutation_id", nullable = false, length = 64)
+    private String mutationId;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "applied_at")
+    private LocalDateTime appliedAt = LocalDateTime.now();
+
+    public ShoppingListMutation() {}
+
+    public ShoppingListMutation(ShoppingList shoppingList, String mutationId, Long version) {
+        this.shoppingList = shoppingList;
+        this.mutationId = mutationId;
+        this.version = version;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public ShoppingList getShoppingList() { return shoppingList; }
+    public void setShoppingList(ShoppingList shoppingList) { this.shoppingList = shoppingList; }
+
+    public String getMutationId() { return mutationId; }
+    public void setMutationId(String mutationId) { this.mutationId = mutationId; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public LocalDateTime getAppliedAt() { return appliedAt; }
+    public void setAppliedAt(LocalDateTime appliedAt) { this.appliedAt = appliedAt; }
+}
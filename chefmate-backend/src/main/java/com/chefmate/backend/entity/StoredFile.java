@@ -0,0 +1,54 @@
+package com.chefmate.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One uploaded file on disk, named after the SHA-256 of its content. Every upload of the
+ * same content adds a reference instead of a copy; the file is deleted with its last
+ * reference. Maintained by FileStorageService.
+ */
+@Entity
+@Table(name = "stored_files", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_stored_files_digest", columnNames = {"digest"}),
+    @UniqueConstraint(name = "uk_stored_files_file_name", columnNames = {"file_name"})
+})
+public class StoredFile {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Lowercase hex SHA-256 of the content
+    @Column(nullable = false, length = 64)
+    private String digest;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getDigest() { return digest; }
+    public void setDigest(String digest) { this.digest = digest; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public int getRefCount() { return refCount; }
+    public void setRefCount(int refCount) { this.refCount = refCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,59 @@
+package com.chefmate.backend.repository;
+
+import com.chefmate.backend.entity.AiUsageDaily;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.List;
+
+/**
+ * Adds usage deltas to the per-user, per-recipe daily rows in one JDBC batch. Each row is an upsert,
+ * so instances flushing at the same time simply add up.
+ */
+@Repository
+public class AiUsageDailyRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO ai_usage_daily (user_id, recipe_id, usage_date, requests, local_answers, cached_answers, "
+                    + "upstream_calls, fallbacks, errors, prompt_tokens, response_tokens, upstream_millis, cost_micro_usd) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (user_id, recipe_id, usage_date) DO UPDATE SET "
+                    + "requests = ai_usage_daily.requests + EXCLUDED.requests, "
+                    + "local_answers = ai_usage_daily.local_answers + EXCLUDED.local_answers, "
+                    + "cached_answers = ai_usage_daily.cached_answers + EXCLUDED.cached_answers, "
+                    + "upstream_calls = ai_usage_daily.upstream_calls + EXCLUDED.upstream_calls, "
+                    + "fallbacks = ai_usage_daily.fallbacks + EXCLUDED.fallbacks, "
+                    + "errors = ai_usage_daily.errors + EXCLUDED.errors, "
+                    + "prompt_tokens = ai_usage_daily.prompt_tokens + EXCLUDED.prompt_tokens, "
+                    + "response_tokens = ai_usage_daily.response_tokens + EXCLUDED.response_tokens, "
+                    + "upstream_millis = ai_usage_daily.upstream_millis + EXCLUDED.upstream_millis, "
+                    + "cost_micro_usd = ai_usage_daily.cost_micro_usd + EXCLUDED.cost_micro_usd";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AiUsageDailyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void addAll(List<AiUsageDaily> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, deltas, deltas.size(), (ps, usage) -> {
+            ps.setLong(1, usage.getUserId());
+            ps.setLong(2, usage.getRecipeId());
+            ps.setDate(3, Date.valueOf(usage.getUsageDate()));
+            ps.setLong(4, usage.getRequests());
+            ps.setLong(5, usage.getLocalAnswers());
+            ps.setLong(6, usage.getCachedAnswers());
+            ps.setLong(7, usage.getUpstreamCalls());
+            ps.setLong(8, usage.getFallbacks());
+            ps.setLong(9, usage.getErrors());
+            ps.setLong(10, usage.getPromptTokens());
+            ps.setLong(11, usage.getResponseTokens());
+            ps.setLong(12, usage.getUpstreamMillis());
+            ps.setLong(13, usage.getCostMicroUsd());
+        });
+    }
+}
@@ -18,6 +18,7 @@ public interface CommentLikeRepository extends JpaRepository<CommentLike, Long>
     
     Optional<CommentLike> findByCommentIdAndUserId(Long commentId, Long userId);
     boolean existsByCommentIdAndUserId(Long commentId, Long userId);
+    long countByCommentId(Long commentId);
     void deleteByCommentId(Long commentId);
 }
 
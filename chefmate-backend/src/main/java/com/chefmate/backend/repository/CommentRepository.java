@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -21,6 +22,9 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Query("SELECT c FROM Comment c LEFT JOIN FETCH c.user WHERE c.parentComment.id IN :parentCommentIds ORDER BY c.parentComment.id, c.createdAt ASC")
     List<Comment> findByParentCommentIdsOrderByCreatedAtAsc(@Param("parentCommentIds") List<Long> parentCommentIds);
     
+    @Query("SELECT c.recipe.id FROM Comment c WHERE c.id = :commentId")
+    Optional<Long> findRecipeIdByCommentId(@Param("commentId") Long commentId);
+    
     void deleteByRecipeId(Long recipeId);
     
     // Delete all comments by a user
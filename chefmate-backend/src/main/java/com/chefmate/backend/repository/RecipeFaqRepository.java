@@ -0,0 +1,21 @@
+package com.chefmate.backend.repository;
+
+import com.chefmate.backend.entity.RecipeFaq;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RecipeFaqRepository extends JpaRepository<RecipeFaq, Long> {
+    List<RecipeFaq> findByRecipeIdAndRecipeVersion(Long recipeId, LocalDateTime recipeVersion);
+
+    // Answers for older versions of the recipe are never served again
+    @Modifying
+    @Query("DELETE FROM RecipeFaq f WHERE f.recipe.id = :recipeId AND f.recipeVersion <> :recipeVersion")
+    int deleteOtherVersions(@Param("recipeId") Long recipeId, @Param("recipeVersion") LocalDateTime recipeVersion);
+}
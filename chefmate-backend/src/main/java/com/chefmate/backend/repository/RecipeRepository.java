@@ -1,9 +1,16 @@
 package com.chefmate.backend.repository;
 
 import com.chefmate.backend.entity.Recipe;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
@@ -12,4 +19,34 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     List<Recipe> findByDifficulty(Recipe.Difficulty difficulty);
     List<Recipe> findByTotalTimeLessThanEqual(Integer maxTime);
     void deleteByUserId(Long userId);
-}
\ No newline at end of file
+
+    // Recipes with an ingredient of this normalized name (see Recipe.ingredientNames),
+    // served by the GIN index on recipes.ingredient_names
+    @Query(value = "SELECT * FROM recipes WHERE ingredient_names @> jsonb_build_array(CAST(:name AS text))", nativeQuery = true)
+    List<Recipe> findByIngredient(@Param("name") String name);
+
+    // Version check for per-recipe caches, without loading the JSONB columns
+    @Query("SELECT r.updatedAt FROM Recipe r WHERE r.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    // Most viewed and liked first, for background work on popular recipes
+    @Query("SELECT r.id FROM Recipe r ORDER BY r.viewsCount DESC, r.likesCount DESC, r.id")
+    List<Long> findPopularIds(Pageable pageable);
+
+    // Merges one image's variants into the row in place, so concurrent workers do not overwrite each other
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE recipes SET image_variants = COALESCE(image_variants, CAST('{}' AS jsonb)) "
+            + "|| jsonb_build_object(CAST(:imageUrl AS text), CAST(:variants AS jsonb)) WHERE id = :recipeId",
+            nativeQuery = true)
+    int saveImageVariants(@Param("recipeId") Long recipeId, @Param("imageUrl") String imageUrl,
+                          @Param("variants") String variants);
+
+    // Drops the variants of an image the recipe no longer has
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE recipes SET image_variants = image_variants - CAST(:imageUrl AS text) "
+            + "WHERE id = :recipeId AND image_variants IS NOT NULL",
+            nativeQuery = true)
+    int removeImageVariants(@Param("recipeId") Long recipeId, @Param("imageUrl") String imageUrl);
+}
@@ -0,0 +1,91 @@
+package com.chefmate.backend.repository;
+
+import com.chefmate.backend.entity.ShoppingListItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes changes to many existing shopping list items as JDBC batches, one round
+ * trip per statement kind instead of one per row. New items are persisted through
+ * ShoppingListItemRepository, where Hibernate batches the inserts itself. The list
+ * version the changes are stamped with also comes from here.
+ *
+ * Runs on the connection of the surrounding JPA transaction. Items passed in
+ * must not also be managed by Hibernate, or their changes would be flushed twice.
+ */
+@Repository
+public class ShoppingListItemBatchRepository {
+
+    private static final String UPDATE_SQL =
+            "UPDATE shopping_list_items SET name = ?, quantity = ?, unit = ?, purchased = ?, version = ? WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM shopping_list_items WHERE id = ? AND shopping_list_id = ?";
+    private static final String TOMBSTONE_SQL =
+            "INSERT INTO shopping_list_item_tombstones (shopping_list_id, item_id, version, deleted_at) VALUES (?, ?, ?, ?)";
+    private static final String NEXT_VERSION_SQL =
+            "UPDATE shopping_lists SET version = COALESCE(version, 0) + 1 WHERE id = ? RETURNING version";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShoppingListItemBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Increments and returns the list's version, or null when there is no such list. The row
+     * lock taken by the update serializes concurrent writers to the same list until they commit.
+     */
+    public Long nextListVersion(Long shoppingListId) {
+        List<Long> versions = jdbcTemplate.queryForList(NEXT_VERSION_SQL, Long.class, shoppingListId);
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+
+    public void updateAll(List<ShoppingListItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, items, items.size(), (ps, item) -> {
+            ps.setString(1, item.getName());
+            ps.setString(2, item.getQuantity());
+            ps.setString(3, item.getUnit());
+            ps.setBoolean(4, Boolean.TRUE.equals(item.getPurchased()));
+            setVersion(ps, 5, item);
+            ps.setLong(6, item.getId());
+        });
+    }
+
+    /**
+     * Deletes the items and leaves a tombstone at the given list version for each of them.
+     * Only items of the given list are deleted, whatever the ids.
+     */
+    public void deleteAllById(Long shoppingListId, List<Long> ids, long version) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, ids, ids.size(), (ps, id) -> {
+            ps.setLong(1, id);
+            ps.setLong(2, shoppingListId);
+        });
+        Timestamp deletedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(TOMBSTONE_SQL, ids, ids.size(), (ps, id) -> {
+            ps.setLong(1, shoppingListId);
+            ps.setLong(2, id);
+            ps.setLong(3, version);
+            ps.setTimestamp(4, deletedAt);
+        });
+    }
+
+    private static void setVersion(PreparedStatement ps, int index, ShoppingListItem item) throws SQLException {
+        if (item.getVersion() != null) {
+            ps.setLong(index, item.getVersion());
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+}
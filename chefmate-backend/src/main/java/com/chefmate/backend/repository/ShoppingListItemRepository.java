@@ -2,12 +2,30 @@ package com.chefmate.backend.repository;
 
 import com.chefmate.backend.entity.ShoppingListItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ShoppingListItemRepository extends JpaRepository<ShoppingListItem, Long> {
     List<ShoppingListItem> findByShoppingListId(Long shoppingListId);
+    
+    @Query("SELECT i FROM ShoppingListItem i WHERE i.shoppingList.id IN :shoppingListIds ORDER BY i.id")
+    List<ShoppingListItem> findByShoppingListIds(@Param("shoppingListIds") Collection<Long> shoppingListIds);
+    
+    // Not dirty-checked: callers that load through this write their changes with ShoppingListItemBatchRepository
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT i FROM ShoppingListItem i WHERE i.shoppingList.id = :shoppingListId ORDER BY i.id")
+    List<ShoppingListItem> findReadOnlyByShoppingListId(@Param("shoppingListId") Long shoppingListId);
+    
+    @Query("SELECT i FROM ShoppingListItem i WHERE i.shoppingList.id = :shoppingListId AND i.version > :since ORDER BY i.id")
+    List<ShoppingListItem> findChangedSince(@Param("shoppingListId") Long shoppingListId, @Param("since") Long since);
+    
     List<ShoppingListItem> findByShoppingListIdAndPurchased(Long shoppingListId, Boolean purchased);
     void deleteByShoppingListId(Long shoppingListId);
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.chefmate.backend.repository;
+
+import com.chefmate.backend.entity.ShoppingListItemTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface ShoppingListItemTombstoneRepository extends JpaRepository<ShoppingListItemTombstone, Long> {
+    @Query("SELECT t.itemId FROM ShoppingListItemTombstone t WHERE t.shoppingList.id = :shoppingListId AND t.version > :since ORDER BY t.version")
+    List<Long> findItemIdsDeletedSince(@Param("shoppingListId") Long shoppingListId, @Param("since") Long since);
+
+    boolean existsByShoppingListIdAndItemId(Long shoppingListId, Long itemId);
+}
@@ -0,0 +1,16 @@
+package com.chefmate.backend.repository;
+
+import com.chefmate.backend.entity.ShoppingListMutation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ShoppingListMutationRepository extends JpaRepository<ShoppingListMutation, Long> {
+    @Query("SELECT m.mutationId FROM ShoppingListMutation m WHERE m.shoppingList.id = :shoppingListId AND m.mutationId IN :mutationIds")
+    List<String> findAppliedMutationIds(@Param("shoppingListId") Long shoppingListId,
+                                        @Param("mutationIds") Collection<String> mutationIds);
+}
@@ -11,6 +11,9 @@ import java.util.Optional;
 @Repository
 public interface ShoppingListRepository extends JpaRepository<ShoppingList, Long> {
     List<ShoppingList> findByUserId(Long userId);
+    
+    @Query("SELECT sl FROM ShoppingList sl JOIN FETCH sl.user WHERE sl.user.id = :userId ORDER BY sl.createdAt DESC")
+    List<ShoppingList> findByUserIdWithUserOrderByCreatedAtDesc(@Param("userId") Long userId);
     List<ShoppingList> findByUserIdAndCompleted(Long userId, Boolean completed);
     
     @Query("SELECT sl FROM ShoppingList sl WHERE sl.user.id = :userId AND sl.completed = :completed ORDER BY sl.createdAt DESC")
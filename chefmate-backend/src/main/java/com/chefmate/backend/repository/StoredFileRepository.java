@@ -0,0 +1,68 @@
+package com.chefmate.backend.repository;
+
+import com.chefmate.backend.entity.StoredFile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Reference counts of content-addressed uploads. Each change is a single statement, so
+ * concurrent uploads of the same content count up on one row instead of racing.
+ */
+@Repository
+public class StoredFileRepository {
+
+    private static final String ACQUIRE_SQL =
+            "INSERT INTO stored_files (digest, file_name, size_bytes, ref_count, created_at) "
+                    + "VALUES (?, ?, ?, 1, now()) "
+                    + "ON CONFLICT (digest) DO UPDATE SET ref_count = stored_files.ref_count + 1 "
+                    + "RETURNING file_name, ref_count";
+
+    private static final String RELEASE_SQL =
+            "UPDATE stored_files SET ref_count = ref_count - 1 WHERE file_name = ? AND ref_count > 0 "
+                    + "RETURNING ref_count";
+
+    private static final String DELETE_UNREFERENCED_SQL =
+            "DELETE FROM stored_files WHERE file_name = ? AND ref_count = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StoredFileRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds a reference to the file with this digest, registering it under fileName if it
+     * is new.
+     *
+     * @return the file name the content is stored under (fileName unless it was already
+     *         stored) and its reference count after this call
+     */
+    public StoredFile acquire(String digest, String fileName, long sizeBytes) {
+        return jdbcTemplate.queryForObject(ACQUIRE_SQL, (rs, rowNum) -> {
+            StoredFile storedFile = new StoredFile();
+            storedFile.setDigest(digest);
+            storedFile.setSizeBytes(sizeBytes);
+            storedFile.setFileName(rs.getString("file_name"));
+            storedFile.setRefCount(rs.getInt("ref_count"));
+            return storedFile;
+        }, digest, fileName, sizeBytes);
+    }
+
+    /**
+     * Drops a reference, and the row with the last one.
+     *
+     * @return the references left, or null for files stored before content addressing
+     */
+    public Integer release(String fileName) {
+        List<Integer> left = jdbcTemplate.queryForList(RELEASE_SQL, Integer.class, fileName);
+        if (left.isEmpty()) {
+            return null;
+        }
+        if (left.get(0) == 0) {
+            jdbcTemplate.update(DELETE_UNREFERENCED_SQL, fileName);
+        }
+        return left.get(0);
+    }
+}
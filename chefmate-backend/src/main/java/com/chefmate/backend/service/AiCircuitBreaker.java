@@ -0,0 +1,194 @@
+package com.chefmate.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker for Gemini calls.
+ *
+ * Outcomes of the last window-size calls are kept in a ring buffer. Once at least
+ * minimum-calls are recorded, the breaker opens when too many of them failed or were
+ * slow. While open, calls are refused immediately and callers answer with a local
+ * fallback. After open-duration one probe call is let through (half-open); its outcome
+ * closes the breaker or opens it again.
+ */
+@Service
+public class AiCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long slowCallNanos;
+    private final int slowCallRateThreshold;
+    private final long openDurationNanos;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int recorded;
+    private int next;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private long probeStartedAt;
+    private boolean probeInFlight;
+
+    private final MeterRegistry meterRegistry;
+    private final Timer successLatency;
+    private final Timer errorLatency;
+    private final Counter notPermitted;
+
+    public AiCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${app.ai.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${app.ai.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${app.ai.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${app.ai.circuit-breaker.slow-call-ms:10000}") long slowCallMillis,
+            @Value("${app.ai.circuit-breaker.slow-call-rate-threshold:80}") int slowCallRateThreshold,
+            @Value("${app.ai.circuit-breaker.open-duration-ms:30000}") long openDurationMillis) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+
+        this.meterRegistry = meterRegistry;
+        this.successLatency = Timer.builder("chefmate.ai.upstream.latency")
+                .description("Gemini call latency")
+                .tag("outcome", "success")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.errorLatency = Timer.builder("chefmate.ai.upstream.latency")
+                .description("Gemini call latency")
+                .tag("outcome", "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.notPermitted = Counter.builder("chefmate.ai.circuit.fallbacks")
+                .description("AI requests answered locally because the circuit was open")
+                .register(meterRegistry);
+        meterRegistry.gauge("chefmate.ai.circuit.state", this, breaker -> breaker.getState().ordinal());
+    }
+
+    /**
+     * @return false when the call must not go upstream; the caller should fall back
+     */
+    public synchronized boolean tryAcquirePermission() {
+        long now = System.nanoTime();
+        if (state == State.OPEN && now - openedAt >= openDurationNanos) {
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        // A probe whose thread died before reporting back does not block forever
+        if (state == State.HALF_OPEN && (!probeInFlight || now - probeStartedAt >= openDurationNanos)) {
+            probeInFlight = true;
+            probeStartedAt = now;
+            return true;
+        }
+        notPermitted.increment();
+        return false;
+    }
+
+    /**
+     * Gives back a permission whose call never reached Gemini (shed by the quota or our
+     * own connection limit), so a half-open breaker lets the next caller probe at once.
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized void onSuccess(long durationNanos) {
+        successLatency.record(durationNanos, TimeUnit.NANOSECONDS);
+        record(false, durationNanos >= slowCallNanos);
+    }
+
+    public synchronized void onError(long durationNanos) {
+        errorLatency.record(durationNanos, TimeUnit.NANOSECONDS);
+        record(true, durationNanos >= slowCallNanos);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean isFailure, boolean isSlow) {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            transitionTo(isFailure || isSlow ? State.OPEN : State.CLOSED);
+            return;
+        }
+        if (state == State.OPEN) {
+            // A call that started before the breaker opened
+            return;
+        }
+
+        failed[next] = isFailure;
+        slow[next] = isSlow;
+        next = (next + 1) % windowSize;
+        recorded = Math.min(recorded + 1, windowSize);
+        if (recorded < minimumCalls) {
+            return;
+        }
+
+        int failures = 0;
+        int slowCalls = 0;
+        for (int i = 0; i < recorded; i++) {
+            if (failed[i]) {
+                failures++;
+            }
+            if (slow[i]) {
+                slowCalls++;
+            }
+        }
+        if (failures * 100 >= failureRateThreshold * recorded || slowCalls * 100 >= slowCallRateThreshold * recorded) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void transitionTo(State newState) {
+        if (newState == state) {
+            return;
+        }
+        logger.warn("Gemini circuit breaker {} -> {}", state, newState);
+        meterRegistry.counter("chefmate.ai.circuit.transitions", "from", state.name(), "to", newState.name()).increment();
+        state = newState;
+        if (newState == State.OPEN) {
+            openedAt = System.nanoTime();
+        }
+        if (newState != State.HALF_OPEN) {
+            // Each closed or open period starts with a fresh window
+            recorded = 0;
+            next = 0;
+            probeInFlight = false;
+        }
+    }
+
+    /**
+     * Thrown instead of calling Gemini while the breaker is open; never cached.
+     */
+    public static final class CircuitOpenException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public CircuitOpenException() {
+            super("Gemini circuit breaker is open", null, false, false);
+        }
+    }
+}
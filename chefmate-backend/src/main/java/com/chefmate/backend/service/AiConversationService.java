@@ -0,0 +1,182 @@
+package com.chefmate.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recent chat turns per cooking session, so follow-up questions keep their context.
+ *
+ * Each session keeps only as many turns as fit the history token budget, and idle
+ * sessions are dropped. Memory is therefore bounded by maxSessions times the budget.
+ */
+@Service
+public class AiConversationService {
+
+    public static final String USER = "user";
+    public static final String MODEL = "model";
+
+    private final Map<String, Conversation> conversations = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("ai-conversation-sweeper").daemon(true).factory());
+
+    private final int maxSessions;
+    private final int historyTokenBudget;
+    private final long idleTimeoutNanos;
+    private final Counter evictedSessions;
+
+    public AiConversationService(
+            MeterRegistry meterRegistry,
+            @Value("${app.ai.conversation.max-sessions:5000}") int maxSessions,
+            @Value("${app.ai.conversation.history-token-budget:1500}") int historyTokenBudget,
+            @Value("${app.ai.conversation.idle-minutes:30}") long idleMinutes) {
+        this.maxSessions = maxSessions;
+        this.historyTokenBudget = historyTokenBudget;
+        this.idleTimeoutNanos = TimeUnit.MINUTES.toNanos(idleMinutes);
+
+        this.evictedSessions = Counter.builder("chefmate.ai.conversation.evicted")
+                .description("Chat sessions dropped for being idle or to stay within max-sessions")
+                .register(meterRegistry);
+        meterRegistry.gauge("chefmate.ai.conversation.sessions", conversations, Map::size);
+
+        long sweepMinutes = Math.max(1, idleMinutes / 2);
+        sweeper.scheduleAtFixedRate(this::evictIdle, sweepMinutes, sweepMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * @return the session's turns, oldest first; empty for an unknown session
+     */
+    public List<Turn> getHistory(String sessionKey) {
+        if (sessionKey == null) {
+            return List.of();
+        }
+        Conversation conversation = conversations.get(sessionKey);
+        if (conversation == null) {
+            return List.of();
+        }
+        synchronized (conversation) {
+            conversation.lastAccess = System.nanoTime();
+            return List.copyOf(conversation.turns);
+        }
+    }
+
+    public void recordExchange(String sessionKey, String question, String answer) {
+        if (sessionKey == null || answer == null || answer.isEmpty()) {
+            return;
+        }
+        Conversation conversation = conversations.get(sessionKey);
+        if (conversation == null) {
+            if (conversations.size() >= maxSessions) {
+                evictLeastRecentlyUsed();
+            }
+            conversation = conversations.computeIfAbsent(sessionKey, key -> new Conversation());
+        }
+
+        synchronized (conversation) {
+            conversation.lastAccess = System.nanoTime();
+            conversation.add(new Turn(USER, question));
+            conversation.add(new Turn(MODEL, answer));
+            // Drop whole exchanges from the front so the history always starts with a user turn
+            while (conversation.tokens > historyTokenBudget && conversation.turns.size() > 2) {
+                conversation.removeFirst();
+                conversation.removeFirst();
+            }
+            if (conversation.tokens > historyTokenBudget) {
+                // A single exchange larger than the whole budget is not worth sending back
+                conversation.turns.clear();
+                conversation.tokens = 0;
+            }
+        }
+    }
+
+    public void endConversation(String sessionKey) {
+        if (sessionKey != null) {
+            conversations.remove(sessionKey);
+        }
+    }
+
+    public int getSessionCount() {
+        return conversations.size();
+    }
+
+    /**
+     * Rough token count for English text (about four characters per token), good enough
+     * for budgeting without calling Gemini's countTokens.
+     */
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + 3) / 4;
+    }
+
+    void evictIdle() {
+        long now = System.nanoTime();
+        conversations.entrySet().removeIf(entry -> {
+            boolean idle = now - entry.getValue().lastAccess > idleTimeoutNanos;
+            if (idle) {
+                evictedSessions.increment();
+            }
+            return idle;
+        });
+    }
+
+    private void evictLeastRecentlyUsed() {
+        String oldestKey = null;
+        long oldestAccess = Long.MAX_VALUE;
+        for (Map.Entry<String, Conversation> entry : conversations.entrySet()) {
+            long lastAccess = entry.getValue().lastAccess;
+            if (oldestKey == null || lastAccess - oldestAccess < 0) {
+                oldestKey = entry.getKey();
+                oldestAccess = lastAccess;
+            }
+        }
+        if (oldestKey != null && conversations.remove(oldestKey) != null) {
+            evictedSessions.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    public static final class Turn {
+        private final String role;
+        private final String text;
+        private final int tokens;
+
+        public Turn(String role, String text) {
+            this.role = role;
+            this.text = text;
+            this.tokens = estimateTokens(text);
+        }
+
+        public String getRole() { return role; }
+        public String getText() { return text; }
+        public int getTokens() { return tokens; }
+    }
+
+    private static final class Conversation {
+        private final Deque<Turn> turns = new ArrayDeque<>();
+        private int tokens;
+        private volatile long lastAccess = System.nanoTime();
+
+        private void add(Turn turn) {
+            turns.addLast(turn);
+            tokens += turn.tokens;
+        }
+
+        private void removeFirst() {
+            tokens -= turns.removeFirst().tokens;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.entity.Recipe;
+import com.chefmate.backend.repository.RecipeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Builds the Gemini system instruction.
+ *
+ * The recipe part comes from the stored recipe when the request has a recipeId, and is
+ * rendered once per recipe version. Clients then only need to send the cooking session
+ * fields; the recipe fields in cookingContext are still used when there is no recipeId.
+ */
+@Service
+public class AiPromptService {
+
+    private static final String INTRO = "You are a professional cooking assistant. "
+            + "You help people with recipes, cooking tips, techniques, and nutritional advice. "
+            + "Be helpful, friendly, and specific. ";
+
+    private static final String INSTRUCTIONS = "\n=== INSTRUCTIONS ===\n"
+            + "You have access to the FULL recipe information above. "
+            + "Use this information to provide accurate, specific guidance. "
+            + "If the user asks about ingredients, steps, timing, or techniques, refer to the recipe details. "
+            + "If the user says 'next step', help them move to the next step. "
+            + "If they have a problem, provide specific solutions based on the current context and recipe information.";
+
+    private static final String LANGUAGE = "\nIMPORTANT: Always respond STRICTLY in English, regardless of what language the question is asked in. "
+            + "If the question is in another language, still respond in English.";
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeVersionCache<RecipeFacts> recipeBlocks;
+
+    public AiPromptService(RecipeRepository recipeRepository,
+                           @Value("${app.ai.prompt-cache-size:1000}") int maxCachedRecipes) {
+        this.recipeRepository = recipeRepository;
+        this.recipeBlocks = new RecipeVersionCache<>(maxCachedRecipes);
+    }
+
+    /**
+     * @return the "RECIPE INFORMATION" block, or an empty string when there is no recipe to describe
+     */
+    public String getRecipeBlock(Long recipeId, Map<String, Object> cookingContext) {
+        RecipeFacts recipe = getRecipe(recipeId, cookingContext);
+        return recipe != null ? recipe.getBlock() : "";
+    }
+
+    /**
+     * @return the recipe the question is about, with its rendered block; null when there is none
+     */
+    public RecipeFacts getRecipe(Long recipeId, Map<String, Object> cookingContext) {
+        if (recipeId != null) {
+            Optional<LocalDateTime> version = recipeRepository.findUpdatedAtById(recipeId);
+            if (version.isPresent()) {
+                RecipeFacts cached = recipeBlocks.get(recipeId, version.get());
+                if (cached != null) {
+                    return cached;
+                }
+                Optional<Recipe> recipe = recipeRepository.findById(recipeId);
+                if (recipe.isPresent()) {
+                    RecipeFacts facts = toFacts(recipe.get());
+                    recipeBlocks.put(recipeId, recipe.get().getUpdatedAt(), facts);
+                    return facts;
+                }
+            }
+        }
+        return clientRecipe(cookingContext);
+    }
+
+    public String buildSystemInstruction(String recipeBlock, Map<String, Object> cookingContext) {
+        StringBuilder instruction = new StringBuilder(INTRO.length() + recipeBlock.length() + 1024).append(INTRO);
+        instruction.append(recipeBlock);
+
+        if (cookingContext != null) {
+            appendSession(instruction, cookingContext);
+        }
+        if (!recipeBlock.isEmpty() || cookingContext != null) {
+            instruction.append(INSTRUCTIONS);
+        }
+
+        instruction.append(LANGUAGE);
+        return instruction.toString();
+    }
+
+    private static RecipeFacts toFacts(Recipe recipe) {
+        String block = renderRecipe(recipe.getTitle(), recipe.getDescription(),
+                recipe.getDifficulty() != null ? recipe.getDifficulty().name() : null,
+                recipe.getPrepTime(), recipe.getCookTime(), recipe.getTotalTime(), recipe.getServings(),
+                recipe.getIngredients(), recipe.getSteps());
+        return new RecipeFacts(recipe.getId(), recipe.getUpdatedAt(), recipe.getTitle(), recipe.getPrepTime(), recipe.getCookTime(), recipe.getTotalTime(),
+                recipe.getServings(), recipe.getIngredients(), recipe.getSteps(), block);
+    }
+
+    // Older clients send the recipe inside cookingContext instead of a recipeId
+    @SuppressWarnings("unchecked")
+    private static RecipeFacts clientRecipe(Map<String, Object> cookingContext) {
+        if (cookingContext == null || cookingContext.get("recipeTitle") == null) {
+            return null;
+        }
+        List<String> ingredients = (List<String>) cookingContext.get("recipeIngredients");
+        List<String> steps = (List<String>) cookingContext.get("recipeSteps");
+        String block = renderRecipe(cookingContext.get("recipeTitle"), cookingContext.get("recipeDescription"),
+                cookingContext.get("recipeDifficulty"), cookingContext.get("prepTime"),
+                cookingContext.get("cookTime"), cookingContext.get("totalTime"), cookingContext.get("servings"),
+                ingredients, steps);
+        return new RecipeFacts(null, null, String.valueOf(cookingContext.get("recipeTitle")),
+                asInteger(cookingContext.get("prepTime")), asInteger(cookingContext.get("cookTime")),
+                asInteger(cookingContext.get("totalTime")), asInteger(cookingContext.get("servings")),
+                ingredients, steps, block);
+    }
+
+    private static Integer asInteger(Object value) {
+        return value instanceof Number number ? number.intValue() : null;
+    }
+
+    private static String renderRecipe(Object title, Object description, Object difficulty,
+                                       Object prepTime, Object cookTime, Object totalTime, Object servings,
+                                       List<String> ingredients, List<String> steps) {
+        StringBuilder block = new StringBuilder(512);
+        block.append("\n\n=== RECIPE INFORMATION ===\n");
+        block.append("Recipe: ").append(title).append("\n");
+
+        if (description != null) {
+            block.append("Description: ").append(description).append("\n");
+        }
+        if (difficulty != null) {
+            block.append("Difficulty: ").append(difficulty).append("\n");
+        }
+        if (prepTime != null) {
+            block.append("Prep Time: ").append(prepTime).append(" minutes\n");
+        }
+        if (cookTime != null) {
+            block.append("Cook Time: ").append(cookTime).append(" minutes\n");
+        }
+        if (totalTime != null) {
+            block.append("Total Time: ").append(totalTime).append(" minutes\n");
+        }
+        if (servings != null) {
+            block.append("Servings: ").append(servings).append("\n");
+        }
+
+        if (ingredients != null && !ingredients.isEmpty()) {
+            block.append("\nIngredients:\n");
+            for (int i = 0; i < ingredients.size(); i++) {
+                block.append("  ").append(i + 1).append(". ").append(ingredients.get(i)).append("\n");
+            }
+        }
+        if (steps != null && !steps.isEmpty()) {
+            block.append("\nCooking Steps:\n");
+            for (int i = 0; i < steps.size(); i++) {
+                block.append("  Step ").append(i + 1).append(": ").append(steps.get(i)).append("\n");
+            }
+        }
+        return block.toString();
+    }
+
+    private static void appendSession(StringBuilder instruction, Map<String, Object> cookingContext) {
+        instruction.append("\n=== CURRENT COOKING SESSION ===\n");
+        if (cookingContext.get("currentStep") != null && cookingContext.get("totalSteps") != null) {
+            instruction.append("Current Step: ").append(cookingContext.get("currentStep"))
+                    .append("/").append(cookingContext.get("totalSteps")).append("\n");
+        }
+        if (cookingContext.get("elapsedTimeSeconds") instanceof Number elapsed) {
+            long elapsedSeconds = elapsed.longValue();
+            instruction.append("Elapsed Time: ")
+                    .append(String.format("%d:%02d", elapsedSeconds / 60, elapsedSeconds % 60)).append("\n");
+        }
+        if (cookingContext.get("usedIngredients") instanceof List<?> usedIngredients && !usedIngredients.isEmpty()) {
+            instruction.append("Used Ingredients: ");
+            for (int i = 0; i < usedIngredients.size(); i++) {
+                if (i > 0) {
+                    instruction.append(", ");
+                }
+                instruction.append(usedIngredients.get(i));
+            }
+            instruction.append("\n");
+        }
+        if (cookingContext.get("cookingStage") != null) {
+            instruction.append("Cooking Stage: ").append(cookingContext.get("cookingStage")).append("\n");
+        }
+        if (cookingContext.get("currentAction") != null) {
+            instruction.append("Current Action: ").append(cookingContext.get("currentAction")).append("\n");
+        }
+        if (cookingContext.get("stoveSetting") != null) {
+            instruction.append("Stove Setting: ").append(cookingContext.get("stoveSetting")).append("\n");
+        }
+    }
+
+    /**
+     * The recipe fields AI answers are built from, plus the block rendered from them.
+     */
+    public static final class RecipeFacts {
+        private final Long id;
+        private final LocalDateTime version;
+        private final String title;
+        private final Integer prepTime;
+        private final Integer cookTime;
+        private final Integer totalTime;
+        private final Integer servings;
+        private final List<String> ingredients;
+        private final List<String> steps;
+        private final String block;
+
+        RecipeFacts(Long id, LocalDateTime version, String title, Integer prepTime, Integer cookTime, Integer totalTime,
+                    Integer servings, List<String> ingredients, List<String> steps, String block) {
+            this.id = id;
+            this.version = version;
+            this.title = title;
+            this.prepTime = prepTime;
+            this.cookTime = cookTime;
+            this.totalTime = totalTime;
+            this.servings = servings;
+            this.ingredients = ingredients != null ? Collections.unmodifiableList(new ArrayList<>(ingredients)) : List.of();
+            this.steps = steps != null ? Collections.unmodifiableList(new ArrayList<>(steps)) : List.of();
+            this.block = block;
+        }
+
+        // Both null for a recipe sent by the client instead of a stored one
+        public Long getId() { return id; }
+        public LocalDateTime getVersion() { return version; }
+        public String getTitle() { return title; }
+        public Integer getPrepTime() { return prepTime; }
+        public Integer getCookTime() { return cookTime; }
+        public Integer getTotalTime() { return totalTime; }
+        public Integer getServings() { return servings; }
+        public List<String> getIngredients() { return ingredients; }
+        public List<String> getSteps() { return steps; }
+        public String getBlock() { return block; }
+    }
+}
@@ -0,0 +1,240 @@
+package com.chefmate.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Answers the common cooking-mode questions ("what's next", "how many servings",
+ * "what ingredients are left", "how long does it take") straight from the recipe and
+ * the session fields, without a Gemini call. FAQ questions with a precomputed answer
+ * ("can I freeze it?") are answered from {@link RecipeFaqService}.
+ *
+ * Only short questions that match a pattern as a whole are answered here; anything
+ * longer or more specific ("how long do I fry the onions?") goes to Gemini.
+ */
+@Service
+public class AiQuickAnswerService {
+
+    enum Intent {
+        NEXT_STEP, CURRENT_STEP, SERVINGS, INGREDIENTS_LEFT, INGREDIENTS, COOK_TIME,
+        // Matched by RecipeFaqService, not by PATTERNS
+        FAQ
+    }
+
+    // Matched against the normalized question; checked in declaration order
+    private static final Map<Intent, Pattern> PATTERNS = new EnumMap<>(Intent.class);
+
+    static {
+        PATTERNS.put(Intent.NEXT_STEP, question(
+                "(what's|what is|whats) (the )?next( step)?",
+                "next( step)?",
+                "what (do|should) i do next",
+                "what (comes )?(now|next)",
+                "(go to|show me|read) (the )?next step"));
+        PATTERNS.put(Intent.CURRENT_STEP, question(
+                "(what's|what is|whats) (the |this |my )?(current )?step",
+                "(what|which) step am i on",
+                "(repeat|read|show me) (the |this )?(current )?step( again)?"));
+        PATTERNS.put(Intent.SERVINGS, question(
+                "how many (servings|portions)( does (it|this|the recipe|this recipe) (make|have))?",
+                "how many (people )?does (it|this|the recipe|this recipe) (serve|feed)",
+                "how many people is (it|this|the recipe|this recipe) for",
+                "(number of )?servings"));
+        PATTERNS.put(Intent.INGREDIENTS_LEFT, question(
+                "(what|which) ingredients (are |do i have )?(left|remaining)",
+                "(what|which) ingredients (haven't i used|have i not used|didn't i use|do i still need)( yet)?",
+                "(what's|what is|whats) left( to (add|use))?",
+                "(remaining|unused) ingredients",
+                "ingredients left",
+                "what else do i need( to add)?"));
+        PATTERNS.put(Intent.INGREDIENTS, question(
+                "(what|which) ingredients do i need",
+                "(list|show)( me)? (the |all )?ingredients",
+                "(what are )?(the )?ingredients",
+                "what do i need"));
+        PATTERNS.put(Intent.COOK_TIME, question(
+                "how long (does|will) (it|this|the recipe|this recipe) take( to (make|cook))?",
+                "how long to (make|cook) (it|this)",
+                "(what's|what is|whats|how long is) the (cook|cooking|prep|preparation|total) time",
+                "(cook|cooking|prep|preparation|total) time"));
+    }
+
+    private final RecipeFaqService recipeFaqService;
+    private final Map<Intent, Counter> answered = new EnumMap<>(Intent.class);
+    private final Counter passedOn;
+
+    public AiQuickAnswerService(MeterRegistry meterRegistry, RecipeFaqService recipeFaqService) {
+        this.recipeFaqService = recipeFaqService;
+        for (Intent intent : Intent.values()) {
+            answered.put(intent, Counter.builder("chefmate.ai.quick.answered")
+                    .description("AI questions answered locally from the recipe")
+                    .tag("intent", intent.name())
+                    .register(meterRegistry));
+        }
+        this.passedOn = Counter.builder("chefmate.ai.quick.passed")
+                .description("AI questions that needed Gemini")
+                .register(meterRegistry);
+        meterRegistry.gauge("chefmate.ai.quick.local.percent", this, AiQuickAnswerService::getLocalPercent);
+    }
+
+    /**
+     * @return the local answer, or null when the question has to go to Gemini
+     */
+    public String answer(String message, AiPromptService.RecipeFacts recipe, Map<String, Object> cookingContext) {
+        Intent intent = recipe != null ? match(message) : null;
+        if (intent != null) {
+            // Null when the intent is clear but the data is missing; Gemini may still help then
+            String answer = answerFor(intent, recipe, cookingContext);
+            if (answer != null) {
+                answered.get(intent).increment();
+                return answer;
+            }
+        } else {
+            String faqAnswer = recipeFaqService.findAnswer(recipe, message);
+            if (faqAnswer != null) {
+                answered.get(Intent.FAQ).increment();
+                return faqAnswer;
+            }
+        }
+        passedOn.increment();
+        return null;
+    }
+
+    /**
+     * @return the share of questions answered locally, 0-100
+     */
+    public double getLocalPercent() {
+        double local = 0;
+        for (Counter counter : answered.values()) {
+            local += counter.count();
+        }
+        double total = local + passedOn.count();
+        return total == 0 ? 0 : local * 100 / total;
+    }
+
+    static Intent match(String message) {
+        String question = AiResponseCache.normalizeMessage(message);
+        for (Map.Entry<Intent, Pattern> entry : PATTERNS.entrySet()) {
+            if (entry.getValue().matcher(question).matches()) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private static String answerFor(Intent intent, AiPromptService.RecipeFacts recipe, Map<String, Object> cookingContext) {
+        List<String> steps = recipe.getSteps();
+        Integer currentStep = cookingContext != null && cookingContext.get("currentStep") instanceof Number step
+                ? step.intValue() : null;
+
+        switch (intent) {
+            case NEXT_STEP:
+                if (steps.isEmpty() || currentStep == null || currentStep < 0) {
+                    return null;
+                }
+                if (currentStep >= steps.size()) {
+                    return "You're on the last step, there is nothing after it. Enjoy your " + recipe.getTitle() + "!";
+                }
+                return step(currentStep + 1, steps);
+            case CURRENT_STEP:
+                if (currentStep == null || currentStep < 1 || currentStep > steps.size()) {
+                    return null;
+                }
+                return step(currentStep, steps);
+            case SERVINGS:
+                if (recipe.getServings() == null) {
+                    return null;
+                }
+                return recipe.getTitle() + " makes " + recipe.getServings()
+                        + (recipe.getServings() == 1 ? " serving." : " servings.");
+            case INGREDIENTS_LEFT:
+                if (recipe.getIngredients().isEmpty()) {
+                    return null;
+                }
+                List<String> left = remainingIngredients(recipe.getIngredients(), cookingContext);
+                if (left.isEmpty()) {
+                    return "You've used all the ingredients.";
+                }
+                return list("Ingredients left:", left);
+            case INGREDIENTS:
+                if (recipe.getIngredients().isEmpty()) {
+                    return null;
+                }
+                return list("You need:", recipe.getIngredients());
+            case COOK_TIME:
+                return times(recipe);
+            default:
+                return null;
+        }
+    }
+
+    private static String step(int number, List<String> steps) {
+        return "Step " + number + " of " + steps.size() + ": " + steps.get(number - 1);
+    }
+
+    // The client reports used ingredients either as the full line or just the name
+    private static List<String> remainingIngredients(List<String> ingredients, Map<String, Object> cookingContext) {
+        List<String> used = new ArrayList<>();
+        if (cookingContext != null && cookingContext.get("usedIngredients") instanceof List<?> usedIngredients) {
+            for (Object item : usedIngredients) {
+                if (item != null && !item.toString().isBlank()) {
+                    used.add(item.toString().toLowerCase(Locale.ROOT).trim());
+                }
+            }
+        }
+        List<String> left = new ArrayList<>();
+        for (String ingredient : ingredients) {
+            String line = ingredient.toLowerCase(Locale.ROOT);
+            boolean isUsed = false;
+            for (String item : used) {
+                if (line.contains(item) || item.contains(line)) {
+                    isUsed = true;
+                    break;
+                }
+            }
+            if (!isUsed) {
+                left.add(ingredient);
+            }
+        }
+        return left;
+    }
+
+    private static String list(String heading, List<String> items) {
+        StringBuilder text = new StringBuilder(heading);
+        for (String item : items) {
+            text.append("\n- ").append(item);
+        }
+        return text.toString();
+    }
+
+    private static String times(AiPromptService.RecipeFacts recipe) {
+        StringBuilder text = new StringBuilder();
+        appendTime(text, "Prep time", recipe.getPrepTime());
+        appendTime(text, "Cook time", recipe.getCookTime());
+        appendTime(text, "Total time", recipe.getTotalTime());
+        return text.length() == 0 ? null : text.toString();
+    }
+
+    private static void appendTime(StringBuilder text, String label, Integer minutes) {
+        if (minutes == null || minutes <= 0) {
+            return;
+        }
+        if (text.length() > 0) {
+            text.append(", ");
+        }
+        text.append(label).append(": ").append(minutes).append(" minutes");
+    }
+
+    // Optional lead-in ("ok", "so") and trailing "please" around any of the alternatives
+    static Pattern question(String... alternatives) {
+        return Pattern.compile("((ok|okay|so|and|hey|chef) )?(" + String.join("|", alternatives) + ")( please| now)?");
+    }
+}
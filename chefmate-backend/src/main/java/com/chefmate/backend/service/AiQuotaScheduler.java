@@ -0,0 +1,181 @@
+package com.chefmate.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Admission control for upstream Gemini calls, shared by all users.
+ *
+ * Permits are issued at the configured requests-per-minute, with a small burst. When
+ * none is free, callers wait in a queue ordered by priority and then arrival, for at
+ * most max-wait. If the queue is full, the newest lowest-priority waiter is shed, so
+ * background work gives way to people who are cooking.
+ */
+@Service
+public class AiQuotaScheduler {
+
+    public enum Priority {
+        // Declaration order is priority order
+        INTERACTIVE, BACKGROUND
+    }
+
+    private final PriorityQueue<Waiter> waiting = new PriorityQueue<>(
+            Comparator.comparing((Waiter waiter) -> waiter.priority).thenComparingLong(waiter -> waiter.sequence));
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("ai-quota-dispatcher").daemon(true).factory());
+
+    private final long permitIntervalNanos;
+    private final int burst;
+    private final int maxQueueDepth;
+    private final long maxWaitMillis;
+
+    private double permits;
+    private long lastRefill = System.nanoTime();
+    private long nextSequence;
+
+    private final Timer waitTimer;
+    private final Counter shed;
+    private final Counter timedOut;
+
+    public AiQuotaScheduler(
+            MeterRegistry meterRegistry,
+            @Value("${app.ai.quota.requests-per-minute:60}") int requestsPerMinute,
+            @Value("${app.ai.quota.burst:5}") int burst,
+            @Value("${app.ai.quota.max-queue-depth:50}") int maxQueueDepth,
+            @Value("${app.ai.quota.max-wait-ms:15000}") long maxWaitMillis) {
+        this.permitIntervalNanos = TimeUnit.MINUTES.toNanos(1) / requestsPerMinute;
+        this.burst = Math.max(1, burst);
+        this.maxQueueDepth = maxQueueDepth;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = this.burst;
+
+        this.waitTimer = Timer.builder("chefmate.ai.quota.wait")
+                .description("Time upstream Gemini calls waited for a quota permit")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.shed = Counter.builder("chefmate.ai.quota.shed")
+                .description("Queued Gemini calls dropped to make room for higher-priority ones")
+                .register(meterRegistry);
+        this.timedOut = Counter.builder("chefmate.ai.quota.timeout")
+                .description("Queued Gemini calls that gave up after max-wait")
+                .register(meterRegistry);
+        meterRegistry.gauge("chefmate.ai.quota.queue.depth", this, AiQuotaScheduler::getQueueDepth);
+
+        long tickNanos = Math.min(permitIntervalNanos, TimeUnit.MILLISECONDS.toNanos(100));
+        dispatcher.scheduleAtFixedRate(this::dispatch, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Blocks until the call may go upstream.
+     *
+     * @throws RejectedExecutionException if the call was shed or waited longer than max-wait
+     */
+    public void acquire(Priority priority) {
+        long startedAt = System.nanoTime();
+        Waiter waiter;
+        synchronized (this) {
+            refill(startedAt);
+            if (waiting.isEmpty() && permits >= 1) {
+                permits -= 1;
+                waitTimer.record(0, TimeUnit.NANOSECONDS);
+                return;
+            }
+            waiter = new Waiter(priority, nextSequence++);
+            waiting.add(waiter);
+            if (waiting.size() > maxQueueDepth) {
+                Waiter victim = lowestPriorityNewest();
+                waiting.remove(victim);
+                shed.increment();
+                victim.granted.complete(false);
+            }
+        }
+
+        boolean granted;
+        try {
+            granted = waiter.granted.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            synchronized (this) {
+                if (waiting.remove(waiter)) {
+                    timedOut.increment();
+                    throw new RejectedExecutionException("No Gemini quota available within " + maxWaitMillis + "ms");
+                }
+            }
+            // Granted just as the wait ran out
+            granted = waiter.granted.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            synchronized (this) {
+                if (waiting.remove(waiter)) {
+                    throw new RejectedExecutionException("Interrupted while waiting for Gemini quota");
+                }
+            }
+            granted = waiter.granted.join();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+
+        if (!granted) {
+            throw new RejectedExecutionException("Gemini quota exhausted, request shed");
+        }
+        waitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized int getQueueDepth() {
+        return waiting.size();
+    }
+
+    private synchronized void dispatch() {
+        refill(System.nanoTime());
+        while (permits >= 1 && !waiting.isEmpty()) {
+            permits -= 1;
+            waiting.poll().granted.complete(true);
+        }
+    }
+
+    private void refill(long now) {
+        permits = Math.min(burst, permits + (double) (now - lastRefill) / permitIntervalNanos);
+        lastRefill = now;
+    }
+
+    private Waiter lowestPriorityNewest() {
+        Waiter victim = null;
+        for (Waiter candidate : waiting) {
+            if (victim == null
+                    || candidate.priority.compareTo(victim.priority) > 0
+                    || (candidate.priority == victim.priority && candidate.sequence > victim.sequence)) {
+                victim = candidate;
+            }
+        }
+        return victim;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    private static final class Waiter {
+        private final Priority priority;
+        private final long sequence;
+        private final CompletableFuture<Boolean> granted = new CompletableFuture<>();
+
+        private Waiter(Priority priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.chefmate.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user token bucket for AI requests, so one user cannot use up the shared Gemini quota.
+ *
+ * Each bucket is a single AtomicLong holding the "theoretical arrival time" of the next
+ * request (GCRA); taking a token is one compare-and-set, with no locks. A bucket that has
+ * fully refilled is indistinguishable from a new one and is dropped by a periodic sweep.
+ */
+@Service
+public class AiRateLimiter {
+
+    private final Map<Long, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("ai-rate-limit-sweeper").daemon(true).factory());
+
+    private final long intervalNanos;
+    private final long burstToleranceNanos;
+    private final Counter rejected;
+
+    public AiRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${app.ai.rate-limit.requests-per-minute:10}") int requestsPerMinute,
+            @Value("${app.ai.rate-limit.burst:5}") int burst) {
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / requestsPerMinute;
+        this.burstToleranceNanos = intervalNanos * Math.max(1, burst);
+
+        this.rejected = Counter.builder("chefmate.ai.ratelimit.rejected")
+                .description("AI requests refused because the user exceeded their rate")
+                .register(meterRegistry);
+        meterRegistry.gauge("chefmate.ai.ratelimit.users", buckets, Map::size);
+
+        sweeper.scheduleAtFixedRate(this::dropRefilledBuckets, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * @return false when the user has no tokens left; the request should be refused
+     */
+    public boolean tryAcquire(Long userId) {
+        AtomicLong nextArrival = buckets.computeIfAbsent(userId, id -> new AtomicLong(System.nanoTime()));
+        while (true) {
+            long now = System.nanoTime();
+            long current = nextArrival.get();
+            long start = current - now > 0 ? current : now;
+            long next = start + intervalNanos;
+            if (next - now > burstToleranceNanos) {
+                rejected.increment();
+                return false;
+            }
+            if (nextArrival.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    void dropRefilledBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(nextArrival -> nextArrival.get() - now <= 0);
+    }
+
+    int getTrackedUserCount() {
+        return buckets.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+}
@@ -0,0 +1,237 @@
+package com.chefmate.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reuses Gemini answers for the same question about the same recipe.
+ *
+ * Concurrent requests for a key that is being loaded wait for that one upstream
+ * call instead of starting their own. Only successful answers are stored.
+ */
+@Service
+public class AiResponseCache {
+
+    // Where the cook is in the recipe. Timers, stage, stove setting and used ingredients
+    // change constantly, so cacheable answers are asked without them (see cacheableContext).
+    private static final List<String> FINGERPRINT_FIELDS = List.of("currentStep", "totalSteps");
+
+    private final Map<String, CachedAnswer> answers = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter savedCalls;
+
+    public AiResponseCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.ai.cache.max-entries:2000}") int maxEntries,
+            @Value("${app.ai.cache.ttl-seconds:3600}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+
+        this.hits = Counter.builder("chefmate.ai.cache.hits")
+                .description("AI answers served from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("chefmate.ai.cache.misses")
+                .description("AI questions that needed an upstream call")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("chefmate.ai.cache.coalesced")
+                .description("AI questions that waited for an identical call already in flight")
+                .register(meterRegistry);
+        this.savedCalls = Counter.builder("chefmate.ai.cache.saved.calls")
+                .description("Upstream Gemini calls avoided by cache hits and coalescing")
+                .register(meterRegistry);
+        meterRegistry.gauge("chefmate.ai.cache.size", answers, Map::size);
+        meterRegistry.gauge("chefmate.ai.cache.hit.ratio", this, AiResponseCache::getHitRatio);
+    }
+
+    /**
+     * Returns the cached answer for the key, or runs the loader once for all concurrent callers.
+     * Loader failures are passed to every waiting caller and nothing is cached.
+     */
+    public String get(String key, Callable<String> loader) throws Exception {
+        String cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<String> load = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            coalesced.increment();
+            savedCalls.increment();
+            return await(existing);
+        }
+
+        try {
+            // Another caller may have finished loading between the lookup and putIfAbsent
+            CachedAnswer answer = answers.get(key);
+            if (answer != null && !answer.isExpired(System.nanoTime())) {
+                hits.increment();
+                savedCalls.increment();
+                load.complete(answer.text);
+                return answer.text;
+            }
+
+            misses.increment();
+            String text = loader.call();
+            put(key, text);
+            load.complete(text);
+            return text;
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    /**
+     * @return the cached answer, or null when there is none or it has expired
+     */
+    public String getIfPresent(String key) {
+        CachedAnswer cached = answers.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.isExpired(System.nanoTime())) {
+            answers.remove(key, cached);
+            return null;
+        }
+        hits.increment();
+        savedCalls.increment();
+        return cached.text;
+    }
+
+    public void put(String key, String text) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        if (answers.size() >= maxEntries) {
+            evict();
+        }
+        answers.put(key, new CachedAnswer(text, System.nanoTime() + ttlNanos));
+    }
+
+    public int size() {
+        return answers.size();
+    }
+
+    public double getHitRatio() {
+        double total = hits.count() + misses.count() + coalesced.count();
+        return total == 0 ? 0.0 : (hits.count() + coalesced.count()) / total;
+    }
+
+    /**
+     * Cache key: SHA-256 of the normalized question, the rendered recipe block
+     * (see {@link AiPromptService#getRecipeBlock}) and the current step.
+     */
+    public static String keyFor(String message, String recipeBlock, Map<String, Object> cookingContext) {
+        StringBuilder source = new StringBuilder(normalizeMessage(message))
+                .append('\n').append(recipeBlock);
+        if (cookingContext != null) {
+            for (String field : FINGERPRINT_FIELDS) {
+                Object value = cookingContext.get(field);
+                if (value != null) {
+                    source.append('\n').append(field).append('=').append(value);
+                }
+            }
+        }
+        return sha256(source.toString());
+    }
+
+    /**
+     * The part of the cooking context a cacheable answer may be built from: only the
+     * fields that are in its key, so a cached answer never depends on anything else.
+     */
+    public static Map<String, Object> cacheableContext(Map<String, Object> cookingContext) {
+        if (cookingContext == null) {
+            return null;
+        }
+        Map<String, Object> context = new LinkedHashMap<>();
+        for (String field : FINGERPRINT_FIELDS) {
+            Object value = cookingContext.get(field);
+            if (value != null) {
+                context.put(field, value);
+            }
+        }
+        return context;
+    }
+
+    // "Can I  substitute Butter?" and "can i substitute butter" are the same question
+    static String normalizeMessage(String message) {
+        if (message == null) {
+            return "";
+        }
+        return message.toLowerCase(Locale.ROOT)
+                .replaceAll("[\\p{Punct}&&[^']]+", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        answers.entrySet().removeIf(entry -> entry.getValue().isExpired(now));
+        // Still full: drop an arbitrary entry, it is simply asked again next time
+        Iterator<String> keys = answers.keySet().iterator();
+        while (answers.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String await(CompletableFuture<String> load) throws Exception {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class CachedAnswer {
+        private final String text;
+        private final long expiresAt;
+
+        private CachedAnswer(String text, long expiresAt) {
+            this.text = text;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+    }
+}
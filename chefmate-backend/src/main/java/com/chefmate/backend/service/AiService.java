@@ -1,23 +1,47 @@
 package com.chefmate.backend.service;
 
+import com.chefmate.backend.dto.AiResponse;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class AiService {
@@ -25,6 +49,29 @@ public class AiService {
     private static final Logger logger = LoggerFactory.getLogger(AiService.class);
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final AiResponseCache responseCache;
+    private final AiPromptService promptService;
+    private final AiQuickAnswerService quickAnswerService;
+    private final AiConversationService conversationService;
+    private final AiQuotaScheduler quotaScheduler;
+    private final AiCircuitBreaker circuitBreaker;
+    private final OutboundHttpService outboundHttp;
+    private final AiTelemetryService telemetry;
+
+    // Bulkhead: every Gemini call runs here, never on a Tomcat worker. At most maxConcurrent
+    // calls are in flight, a bounded number wait, and anything beyond that is rejected at once
+    private final ThreadPoolExecutor aiExecutor;
+    private final long queueTimeoutNanos;
+    private final Counter rejectedCalls;
+
+    // Streaming needs to read the response body as it arrives, which RestTemplate cannot do,
+    // so streams go through OutboundHttpService.openStream on the same pooled client
+    private final long streamTimeoutMillis;
+    private final long readTimeoutMillis;
+    private final AtomicInteger activeStreams = new AtomicInteger();
+    private final Timer firstTokenTimer;
+    private final Timer streamDurationTimer;
+    private final Counter cancelledStreams;
 
     @Value("${gemini.api.key:}")
     private String geminiApiKey;
@@ -35,58 +82,114 @@ public class AiService {
     @Value("${gemini.api.model:gemini-2.5-flash}")
     private String geminiModel;
 
-    public AiService() {
-        this.restTemplate = new RestTemplate();
+    public AiService(
+            MeterRegistry meterRegistry,
+            AiResponseCache responseCache,
+            AiPromptService promptService,
+            AiQuickAnswerService quickAnswerService,
+            AiConversationService conversationService,
+            AiQuotaScheduler quotaScheduler,
+            AiCircuitBreaker circuitBreaker,
+            OutboundHttpService outboundHttp,
+            AiTelemetryService telemetry,
+            @Value("${app.ai.stream.timeout-ms:120000}") long streamTimeoutMillis,
+            @Value("${app.ai.read-timeout-ms:30000}") long readTimeoutMillis,
+            @Value("${app.ai.max-concurrent:16}") int maxConcurrent,
+            @Value("${app.ai.queue-capacity:32}") int queueCapacity,
+            @Value("${app.ai.queue-timeout-ms:10000}") long queueTimeoutMillis) {
+        // Without a deadline a hung Gemini call would hold its bulkhead slot indefinitely
+        this.restTemplate = outboundHttp.restTemplate(readTimeoutMillis);
         this.objectMapper = new ObjectMapper();
+        this.responseCache = responseCache;
+        this.promptService = promptService;
+        this.quickAnswerService = quickAnswerService;
+        this.conversationService = conversationService;
+        this.quotaScheduler = quotaScheduler;
+        this.circuitBreaker = circuitBreaker;
+        this.outboundHttp = outboundHttp;
+        this.telemetry = telemetry;
+        // Virtual threads: a call parked on Gemini holds a slot but no platform thread
+        this.aiExecutor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("ai-call-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+        this.streamTimeoutMillis = streamTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+
+        this.firstTokenTimer = Timer.builder("chefmate.ai.stream.first.token")
+                .description("Time from the chat request until the first text chunk reaches the client")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.streamDurationTimer = Timer.builder("chefmate.ai.stream.duration")
+                .description("Time from the chat request until the streamed answer is complete")
+                .register(meterRegistry);
+        this.cancelledStreams = Counter.builder("chefmate.ai.stream.cancelled")
+                .description("Streams aborted because the client disconnected or timed out")
+                .register(meterRegistry);
+        meterRegistry.gauge("chefmate.ai.stream.active", activeStreams);
+
+        this.rejectedCalls = Counter.builder("chefmate.ai.rejected")
+                .description("AI requests turned away because the AI bulkhead was full")
+                .register(meterRegistry);
+        meterRegistry.gauge("chefmate.ai.inflight", aiExecutor, ThreadPoolExecutor::getActiveCount);
+        meterRegistry.gauge("chefmate.ai.queued", aiExecutor, executor -> executor.getQueue().size());
     }
     
+    // Only logs the settings; whether Gemini is reachable is checked after startup by GeminiHealthIndicator
     @PostConstruct
     public void init() {
-        logger.info("=== Gemini AI Service Initialization ===");
-        logger.info("API Key configured: {}", geminiApiKey != null && !geminiApiKey.trim().isEmpty());
-        logger.info("API Key length: {}", geminiApiKey != null ? geminiApiKey.length() : 0);
-        logger.info("API URL: {}", geminiApiUrl);
-        logger.info("Model: {}", geminiModel);
-        
-        if (geminiApiKey != null && !geminiApiKey.trim().isEmpty()) {
-            try {
-                listAvailableModels();
-            } catch (Exception e) {
-                logger.warn("Could not list available models: {}", e.getMessage());
-            }
+        logger.info("Gemini AI configured: {}, API URL: {}, model: {}", isConfigured(), geminiApiUrl, geminiModel);
+    }
+
+    /**
+     * @return the names of the models the API key can use
+     */
+    List<String> listModels() throws Exception {
+        ResponseEntity<String> response = restTemplate.exchange(
+                geminiApiUrl + "/models",
+                HttpMethod.GET,
+                new HttpEntity<>(apiHeaders()),
+                String.class
+        );
+
+        List<String> models = new ArrayList<>();
+        JsonNode jsonResponse = objectMapper.readTree(response.getBody());
+        for (JsonNode model : jsonResponse.path("models")) {
+            models.add(model.path("name").asText());
         }
-        
-        logger.info("=========================================");
+        return models;
     }
-    
-    private void listAvailableModels() {
+
+    String getModel() {
+        return geminiModel;
+    }
+
+    /**
+     * Runs {@link #getAiResponse(String, Long, Map, String, Long)} on the AI bulkhead.
+     *
+     * @throws RejectedExecutionException right away when all slots and the wait queue are taken;
+     *         the returned future fails with the same exception if the call waited too long for a slot
+     */
+    public CompletableFuture<String> getAiResponseAsync(String userMessage, Long recipeId,
+                                                        Map<String, Object> cookingContext, String sessionKey, Long userId) {
+        long queuedAt = System.nanoTime();
         try {
-            String listUrl = UriComponentsBuilder.fromHttpUrl(geminiApiUrl + "/models")
-                    .queryParam("key", geminiApiKey)
-                    .toUriString();
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Content-Type", "application/json");
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                    listUrl,
-                    HttpMethod.GET,
-                    new HttpEntity<>(headers),
-                    String.class
-            );
-            
-            if (response.getStatusCode().is2xxSuccessful()) {
-                JsonNode jsonResponse = objectMapper.readTree(response.getBody());
-                logger.info("Available Gemini models:");
-                if (jsonResponse.has("models")) {
-                    jsonResponse.get("models").forEach(model -> {
-                        String name = model.path("name").asText();
-                        logger.info("  - {}", name);
-                    });
-                }
-            }
-        } catch (Exception e) {
-            logger.warn("Error listing models: {}", e.getMessage());
+            return CompletableFuture.supplyAsync(() -> {
+                checkQueueWait(queuedAt);
+                return getAiResponse(userMessage, recipeId, cookingContext, sessionKey, userId);
+            }, aiExecutor);
+        } catch (RejectedExecutionException e) {
+            rejectedCalls.increment();
+            throw e;
+        }
+    }
+
+    // A request that sat in the queue this long has most likely been given up on by the client
+    private void checkQueueWait(long queuedAt) {
+        if (System.nanoTime() - queuedAt > queueTimeoutNanos) {
+            rejectedCalls.increment();
+            throw new RejectedExecutionException("AI request waited too long for a free slot");
         }
     }
 
@@ -95,192 +198,73 @@ public class AiService {
     }
     
     public String getAiResponse(String userMessage, Long recipeId, Map<String, Object> cookingContext) {
-        logger.info("Gemini API key status: {}", 
-            geminiApiKey != null && !geminiApiKey.trim().isEmpty() 
-                ? "Configured (length: " + geminiApiKey.length() + ")" 
-                : "NOT CONFIGURED");
-        
-        if (geminiApiKey == null || geminiApiKey.trim().isEmpty()) {
-            logger.warn("Gemini API key is not configured. Returning default response.");
-            return getDefaultResponse(userMessage);
-        }
+        return getAiResponse(userMessage, recipeId, cookingContext, null);
+    }
+
+    public String getAiResponse(String userMessage, Long recipeId, Map<String, Object> cookingContext, String sessionKey) {
+        return getAiResponse(userMessage, recipeId, cookingContext, sessionKey, null);
+    }
 
+    /**
+     * @param sessionKey chat session whose earlier turns are sent along and which this
+     *                   exchange is added to; null for a one-off question
+     * @param userId     user the usage is accounted to
+     */
+    public String getAiResponse(String userMessage, Long recipeId, Map<String, Object> cookingContext,
+                                String sessionKey, Long userId) {
         try {
-            Map<String, Object> requestBody = new HashMap<>();
-            
-            StringBuilder systemInstructionBuilder = new StringBuilder();
-            systemInstructionBuilder.append("You are a professional cooking assistant. ");
-            systemInstructionBuilder.append("You help people with recipes, cooking tips, techniques, and nutritional advice. ");
-            systemInstructionBuilder.append("Be helpful, friendly, and specific. ");
-            
-            if (cookingContext != null) {
-                // Add full recipe information
-                if (cookingContext.get("recipeTitle") != null) {
-                    systemInstructionBuilder.append("\n\n=== RECIPE INFORMATION ===\n");
-                    systemInstructionBuilder.append("Recipe: ").append(cookingContext.get("recipeTitle")).append("\n");
-                    
-                    if (cookingContext.get("recipeDescription") != null) {
-                        systemInstructionBuilder.append("Description: ").append(cookingContext.get("recipeDescription")).append("\n");
-                    }
-                    
-                    if (cookingContext.get("recipeDifficulty") != null) {
-                        systemInstructionBuilder.append("Difficulty: ").append(cookingContext.get("recipeDifficulty")).append("\n");
-                    }
-                    
-                    if (cookingContext.get("prepTime") != null) {
-                        systemInstructionBuilder.append("Prep Time: ").append(cookingContext.get("prepTime")).append(" minutes\n");
-                    }
-                    
-                    if (cookingContext.get("cookTime") != null) {
-                        systemInstructionBuilder.append("Cook Time: ").append(cookingContext.get("cookTime")).append(" minutes\n");
-                    }
-                    
-                    if (cookingContext.get("totalTime") != null) {
-                        systemInstructionBuilder.append("Total Time: ").append(cookingContext.get("totalTime")).append(" minutes\n");
-                    }
-                    
-                    if (cookingContext.get("servings") != null) {
-                        systemInstructionBuilder.append("Servings: ").append(cookingContext.get("servings")).append("\n");
-                    }
-                    
-                    // Ingredients
-                    if (cookingContext.get("recipeIngredients") != null) {
-                        @SuppressWarnings("unchecked")
-                        List<String> ingredients = (List<String>) cookingContext.get("recipeIngredients");
-                        if (ingredients != null && !ingredients.isEmpty()) {
-                            systemInstructionBuilder.append("\nIngredients:\n");
-                            for (int i = 0; i < ingredients.size(); i++) {
-                                systemInstructionBuilder.append("  ").append(i + 1).append(". ").append(ingredients.get(i)).append("\n");
-                            }
-                        }
-                    }
-                    
-                    // Steps
-                    if (cookingContext.get("recipeSteps") != null) {
-                        @SuppressWarnings("unchecked")
-                        List<String> steps = (List<String>) cookingContext.get("recipeSteps");
-                        if (steps != null && !steps.isEmpty()) {
-                            systemInstructionBuilder.append("\nCooking Steps:\n");
-                            for (int i = 0; i < steps.size(); i++) {
-                                systemInstructionBuilder.append("  Step ").append(i + 1).append(": ").append(steps.get(i)).append("\n");
-                            }
-                        }
-                    }
-                }
-                
-                // Current cooking session context
-                systemInstructionBuilder.append("\n=== CURRENT COOKING SESSION ===\n");
-                if (cookingContext.get("currentStep") != null && cookingContext.get("totalSteps") != null) {
-                    systemInstructionBuilder.append("Current Step: ").append(cookingContext.get("currentStep"))
-                            .append("/").append(cookingContext.get("totalSteps")).append("\n");
-                }
-                if (cookingContext.get("elapsedTimeSeconds") != null) {
-                    long elapsedSeconds = ((Number) cookingContext.get("elapsedTimeSeconds")).longValue();
-                    long minutes = elapsedSeconds / 60;
-                    long seconds = elapsedSeconds % 60;
-                    systemInstructionBuilder.append("Elapsed Time: ").append(String.format("%d:%02d", minutes, seconds)).append("\n");
-                }
-                if (cookingContext.get("usedIngredients") != null) {
-                    @SuppressWarnings("unchecked")
-                    List<String> usedIngredients = (List<String>) cookingContext.get("usedIngredients");
-                    if (usedIngredients != null && !usedIngredients.isEmpty()) {
-                        systemInstructionBuilder.append("Used Ingredients: ").append(String.join(", ", usedIngredients)).append("\n");
-                    }
-                }
-                if (cookingContext.get("cookingStage") != null) {
-                    systemInstructionBuilder.append("Cooking Stage: ").append(cookingContext.get("cookingStage")).append("\n");
-                }
-                if (cookingContext.get("currentAction") != null) {
-                    systemInstructionBuilder.append("Current Action: ").append(cookingContext.get("currentAction")).append("\n");
-                }
-                if (cookingContext.get("stoveSetting") != null) {
-                    systemInstructionBuilder.append("Stove Setting: ").append(cookingContext.get("stoveSetting")).append("\n");
-                }
-                
-                systemInstructionBuilder.append("\n=== INSTRUCTIONS ===\n");
-                systemInstructionBuilder.append("You have access to the FULL recipe information above. ");
-                systemInstructionBuilder.append("Use this information to provide accurate, specific guidance. ");
-                systemInstructionBuilder.append("If the user asks about ingredients, steps, timing, or techniques, refer to the recipe details. ");
-                systemInstructionBuilder.append("If the user says 'next step', help them move to the next step. ");
-                systemInstructionBuilder.append("If they have a problem, provide specific solutions based on the current context and recipe information.");
+            AiPromptService.RecipeFacts recipe = promptService.getRecipe(recipeId, cookingContext);
+            String quickAnswer = quickAnswerService.answer(userMessage, recipe, cookingContext);
+            if (quickAnswer != null) {
+                telemetry.record(userId, recipeId, AiTelemetryService.Source.LOCAL);
+                conversationService.recordExchange(sessionKey, userMessage, quickAnswer);
+                return quickAnswer;
             }
-            
-            systemInstructionBuilder.append("\nIMPORTANT: Always respond STRICTLY in English, regardless of what language the question is asked in. ");
-            systemInstructionBuilder.append("If the question is in another language, still respond in English.");
-            
-            String systemInstruction = systemInstructionBuilder.toString();
-            
-            List<Map<String, Object>> contents = new ArrayList<>();
-            Map<String, Object> content = new HashMap<>();
-            List<Map<String, String>> parts = new ArrayList<>();
-            parts.add(Map.of("text", userMessage));
-            content.put("parts", parts);
-            contents.add(content);
-            
-            requestBody.put("contents", contents);
-            
-            Map<String, Object> systemInstructionMap = new HashMap<>();
-            systemInstructionMap.put("parts", List.of(Map.of("text", systemInstruction)));
-            requestBody.put("systemInstruction", systemInstructionMap);
-            
-            Map<String, Object> generationConfig = new HashMap<>();
-            generationConfig.put("temperature", 0.7);
-            generationConfig.put("maxOutputTokens", 1000);
-            requestBody.put("generationConfig", generationConfig);
-
-            String url = UriComponentsBuilder.fromHttpUrl(geminiApiUrl + "/models/" + geminiModel + ":generateContent")
-                    .queryParam("key", geminiApiKey)
-                    .toUriString();
-            
-            logger.info("Using Gemini API URL: {}", url);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Content-Type", "application/json");
-
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-
-            logger.info("Calling Gemini API with URL: {}", url);
-            logger.info("Request body: {}", objectMapper.writeValueAsString(requestBody));
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    request,
-                    String.class
-            );
-
-            logger.info("Gemini API response status: {}", response.getStatusCode());
-            logger.info("Gemini API response body: {}", response.getBody());
 
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                logger.error("Gemini API returned error status: {}", response.getStatusCode());
-                return "Error communicating with AI: " + response.getStatusCode() + ". Please check logs for more information.";
+            if (geminiApiKey == null || geminiApiKey.trim().isEmpty()) {
+                logger.warn("Gemini API key is not configured. Returning default response.");
+                return getDefaultResponse(userMessage);
             }
 
-            JsonNode jsonResponse = objectMapper.readTree(response.getBody());
-            
-            if (!jsonResponse.has("candidates") || jsonResponse.get("candidates").size() == 0) {
-                logger.error("Gemini API response has no candidates. Full response: {}", response.getBody());
-                return "Error: AI did not return a response. Please check logs.";
+            List<AiConversationService.Turn> history = conversationService.getHistory(sessionKey);
+            String recipeBlock = recipe != null ? recipe.getBlock() : "";
+            String answer;
+            if (history.isEmpty()) {
+                String cacheKey = AiResponseCache.keyFor(userMessage, recipeBlock, cookingContext);
+                AtomicBoolean loaded = new AtomicBoolean();
+                answer = responseCache.get(cacheKey, () -> {
+                    loaded.set(true);
+                    return requestAnswer(userMessage,
+                            promptService.buildSystemInstruction(recipeBlock, AiResponseCache.cacheableContext(cookingContext)),
+                            history, AiQuotaScheduler.Priority.INTERACTIVE, userId, recipeId);
+                });
+                if (!loaded.get()) {
+                    // Also when another request was already loading the same answer
+                    telemetry.record(userId, recipeId, AiTelemetryService.Source.CACHED);
+                }
+            } else {
+                // A follow-up depends on the earlier turns, so it is not shared through the cache
+                answer = requestAnswer(userMessage, promptService.buildSystemInstruction(recipeBlock, cookingContext), history,
+                        AiQuotaScheduler.Priority.INTERACTIVE, userId, recipeId);
             }
-            
-            String aiResponse = jsonResponse
-                    .path("candidates")
-                    .get(0)
-                    .path("content")
-                    .path("parts")
-                    .get(0)
-                    .path("text")
-                    .asText();
-
-            logger.info("Received AI response successfully from Gemini: {}", aiResponse.substring(0, Math.min(100, aiResponse.length())));
-            return aiResponse;
-
-        } catch (org.springframework.web.client.HttpClientErrorException e) {
+            conversationService.recordExchange(sessionKey, userMessage, answer);
+            return answer;
+
+        } catch (RejectedExecutionException e) {
+            // Over the shared Gemini quota; the caller answers 429 instead of an error text
+            telemetry.recordError(userId, recipeId, AiTelemetryService.errorClass(e));
+            throw e;
+        } catch (AiCircuitBreaker.CircuitOpenException e) {
+            // Not cached and not added to the history, so the real answer is fetched once Gemini is back
+            telemetry.record(userId, recipeId, AiTelemetryService.Source.FALLBACK);
+            return getFallbackResponse();
+        } catch (HttpClientErrorException e) {
+            telemetry.recordError(userId, recipeId, AiTelemetryService.errorClass(e));
             logger.error("HTTP error calling Gemini API: {} - Response: {}", e.getStatusCode(), e.getResponseBodyAsString(), e);
             return "Error communicating with AI: " + e.getStatusCode() + ". " + 
                    (e.getResponseBodyAsString() != null ? e.getResponseBodyAsString() : e.getMessage());
         } catch (Exception e) {
+            telemetry.recordError(userId, recipeId, AiTelemetryService.errorClass(e));
             logger.error("Error calling Gemini API: {}", e.getMessage(), e);
             logger.error("Exception type: {}", e.getClass().getName());
             if (e.getCause() != null) {
@@ -290,6 +274,389 @@ public class AiService {
         }
     }
 
+    public boolean isConfigured() {
+        return geminiApiKey != null && !geminiApiKey.trim().isEmpty();
+    }
+
+    /**
+     * One Gemini call for background work such as FAQ precomputation, on the caller's
+     * thread and at BACKGROUND quota priority; nothing is cached or added to a history.
+     *
+     * @param recipeId recipe the usage is accounted to
+     * @throws RejectedExecutionException when the quota is needed for interactive requests
+     * @throws AiCircuitBreaker.CircuitOpenException while Gemini is failing
+     */
+    public String getBackgroundAnswer(Long recipeId, String question, String recipeBlock) throws Exception {
+        if (!isConfigured()) {
+            throw new IllegalStateException("Gemini API key is not configured");
+        }
+        try {
+            return requestAnswer(question, promptService.buildSystemInstruction(recipeBlock, null), List.of(),
+                    AiQuotaScheduler.Priority.BACKGROUND, AiTelemetryService.BACKGROUND_USER, recipeId);
+        } catch (Exception e) {
+            telemetry.recordError(AiTelemetryService.BACKGROUND_USER, recipeId, AiTelemetryService.errorClass(e));
+            throw e;
+        }
+    }
+
+    // One upstream generateContent call; failures are thrown so they are never cached
+    private String requestAnswer(String userMessage, String systemInstruction, List<AiConversationService.Turn> history,
+                                 AiQuotaScheduler.Priority priority, Long userId, Long recipeId) throws Exception {
+        // Built before taking the breaker permit, so a failure here cannot leave the permit taken
+        Map<String, Object> requestBody = buildRequestBody(userMessage, systemInstruction, history);
+
+        String url = geminiApiUrl + "/models/" + geminiModel + ":generateContent";
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, apiHeaders());
+
+        boolean logBodies = telemetry.sampleBody();
+        if (logBodies) {
+            logger.info("Gemini request body (sampled): {}", objectMapper.writeValueAsString(requestBody));
+        }
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new AiCircuitBreaker.CircuitOpenException();
+        }
+        try {
+            quotaScheduler.acquire(priority);
+        } catch (RejectedExecutionException e) {
+            circuitBreaker.releasePermission();
+            throw e;
+        }
+        logger.debug("Calling Gemini API with URL: {}", url);
+
+        long upstreamStartedAt = System.nanoTime();
+        ResponseEntity<String> response;
+        try {
+            response = restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    request,
+                    String.class
+            );
+        } catch (HttpClientErrorException e) {
+            // A request Gemini rejects as invalid says nothing about its health; throttling does
+            if (e.getStatusCode().value() == 429) {
+                circuitBreaker.onError(System.nanoTime() - upstreamStartedAt);
+            } else {
+                circuitBreaker.onSuccess(System.nanoTime() - upstreamStartedAt);
+            }
+            throw e;
+        } catch (RejectedExecutionException e) {
+            // Our own per-host connection limit, not a Gemini failure
+            circuitBreaker.releasePermission();
+            throw e;
+        } catch (Exception e) {
+            // Server errors, refused connections and connect/read timeouts
+            circuitBreaker.onError(System.nanoTime() - upstreamStartedAt);
+            throw e;
+        }
+        long upstreamLatency = System.nanoTime() - upstreamStartedAt;
+        circuitBreaker.onSuccess(upstreamLatency);
+
+        if (logBodies) {
+            logger.info("Gemini response body (sampled): {}", response.getBody());
+        }
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            logger.error("Gemini API returned error status: {}", response.getStatusCode());
+            throw new IllegalStateException("Gemini API returned " + response.getStatusCode());
+        }
+
+        JsonNode jsonResponse = objectMapper.readTree(response.getBody());
+        
+        if (!jsonResponse.has("candidates") || jsonResponse.get("candidates").size() == 0) {
+            logger.error("Gemini API response has no candidates. Full response: {}", response.getBody());
+            throw new IllegalStateException("AI did not return a response");
+        }
+        
+        String aiResponse = jsonResponse
+                .path("candidates")
+                .get(0)
+                .path("content")
+                .path("parts")
+                .get(0)
+                .path("text")
+                .asText();
+
+        telemetry.recordUpstream(userId, recipeId, upstreamLatency, jsonResponse.path("usageMetadata"));
+        return aiResponse;
+    }
+
+    /**
+     * Streams the answer as Server-Sent Events: one "chunk" event per piece of text
+     * Gemini produces, then a "done" event. If the client goes away the upstream
+     * request is aborted instead of being read to the end.
+     *
+     * @throws RejectedExecutionException when the AI bulkhead is full
+     */
+    public SseEmitter streamAiResponse(String userMessage, Long recipeId, Map<String, Object> cookingContext,
+                                       String sessionKey, Long userId) {
+        return streamAiResponse(userMessage, recipeId, cookingContext, sessionKey, userId, new SseEmitter(streamTimeoutMillis));
+    }
+
+    SseEmitter streamAiResponse(String userMessage, Long recipeId, Map<String, Object> cookingContext,
+                                String sessionKey, Long userId, SseEmitter emitter) {
+        AiPromptService.RecipeFacts recipe = promptService.getRecipe(recipeId, cookingContext);
+        String quickAnswer = quickAnswerService.answer(userMessage, recipe, cookingContext);
+        if (quickAnswer != null) {
+            telemetry.record(userId, recipeId, AiTelemetryService.Source.LOCAL);
+            conversationService.recordExchange(sessionKey, userMessage, quickAnswer);
+            return sendWhole(emitter, quickAnswer);
+        }
+
+        if (geminiApiKey == null || geminiApiKey.trim().isEmpty()) {
+            logger.warn("Gemini API key is not configured. Streaming default response.");
+            return sendWhole(emitter, getDefaultResponse(userMessage));
+        }
+
+        List<AiConversationService.Turn> history = conversationService.getHistory(sessionKey);
+        String recipeBlock = recipe != null ? recipe.getBlock() : "";
+        String cacheKey = null;
+        if (history.isEmpty()) {
+            cacheKey = AiResponseCache.keyFor(userMessage, recipeBlock, cookingContext);
+            String cached = responseCache.getIfPresent(cacheKey);
+            if (cached != null) {
+                telemetry.record(userId, recipeId, AiTelemetryService.Source.CACHED);
+                conversationService.recordExchange(sessionKey, userMessage, cached);
+                return sendWhole(emitter, cached);
+            }
+        }
+
+        UpstreamStream stream = new UpstreamStream(emitter, userMessage, sessionKey, userId, recipeId, cacheKey,
+                System.nanoTime());
+        emitter.onCompletion(() -> stream.cancel("completed"));
+        emitter.onTimeout(() -> stream.cancel("timed out"));
+        emitter.onError(e -> stream.cancel("disconnected"));
+
+        // A cached answer is shared with cooks at other timers and stages, so it is asked without them
+        Map<String, Object> promptContext = cacheKey != null ? AiResponseCache.cacheableContext(cookingContext) : cookingContext;
+        Map<String, Object> requestBody = buildRequestBody(userMessage,
+                promptService.buildSystemInstruction(recipeBlock, promptContext), history);
+        long queuedAt = System.nanoTime();
+        try {
+            // A stream holds its bulkhead slot until the answer is complete
+            stream.task = aiExecutor.submit(() -> {
+                if (System.nanoTime() - queuedAt > queueTimeoutNanos) {
+                    rejectedCalls.increment();
+                    telemetry.recordError(userId, recipeId, "rejected");
+                    stream.fail("The AI assistant is busy. Please try again.");
+                    return;
+                }
+                relay(stream, requestBody);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCalls.increment();
+            telemetry.recordError(userId, recipeId, AiTelemetryService.errorClass(e));
+            throw e;
+        }
+        return emitter;
+    }
+
+    private void relay(UpstreamStream stream, Map<String, Object> requestBody) {
+        activeStreams.incrementAndGet();
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                telemetry.record(stream.userId, stream.recipeId, AiTelemetryService.Source.FALLBACK);
+                stream.send(chunkEvent(getFallbackResponse()));
+                stream.send(SseEmitter.event().name("done").data(""));
+                stream.complete();
+                return;
+            }
+            stream.holdsPermit = true;
+            quotaScheduler.acquire(AiQuotaScheduler.Priority.INTERACTIVE);
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(geminiApiUrl + "/models/" + geminiModel + ":streamGenerateContent?alt=sse"))
+                    // Deadline for the response headers; the emitter timeout bounds the whole stream
+                    .timeout(Duration.ofMillis(readTimeoutMillis))
+                    .header("Content-Type", "application/json")
+                    .header("x-goog-api-key", geminiApiKey)
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(requestBody)))
+                    .build();
+
+            stream.upstreamStartedAt = System.nanoTime();
+            HttpResponse<InputStream> response = outboundHttp.openStream(request);
+            stream.upstreamLatency = System.nanoTime() - stream.upstreamStartedAt;
+            stream.body = response.body();
+            // Throttling and server errors count against Gemini; a rejected request says nothing about its health
+            boolean upstreamFailed = response.statusCode() == 429 || response.statusCode() >= 500;
+            if (stream.cancelled) {
+                reportUpstream(stream, upstreamFailed, stream.upstreamLatency);
+                stream.closeBody();
+                return;
+            }
+
+            if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                reportUpstream(stream, upstreamFailed, stream.upstreamLatency);
+                String error;
+                try (InputStream body = response.body()) {
+                    error = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                }
+                logger.error("Gemini streaming API returned error status: {} - Response: {}", response.statusCode(), error);
+                telemetry.recordError(stream.userId, stream.recipeId, AiTelemetryService.errorClass(response.statusCode()));
+                stream.fail("Error communicating with AI: " + response.statusCode());
+                return;
+            }
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                String line;
+                while (!stream.cancelled && (line = reader.readLine()) != null) {
+                    // Gemini sends one JSON chunk per "data:" line; blank lines separate events
+                    if (!line.startsWith("data:")) {
+                        continue;
+                    }
+                    JsonNode chunk = objectMapper.readTree(line.substring(5).trim());
+                    if (chunk.has("usageMetadata")) {
+                        // Running totals; the last chunk carries the ones for the whole answer
+                        stream.usage = chunk.get("usageMetadata");
+                    }
+                    String text = extractText(chunk);
+                    if (text.isEmpty()) {
+                        continue;
+                    }
+                    if (!stream.firstTokenSent) {
+                        stream.firstTokenSent = true;
+                        firstTokenTimer.record(System.nanoTime() - stream.startedAt, TimeUnit.NANOSECONDS);
+                    }
+                    stream.answer.append(text);
+                    stream.send(chunkEvent(text));
+                }
+            }
+
+            // Latency up to the response headers, so long answers do not count as slow calls; also when the client left
+            reportUpstream(stream, false, stream.upstreamLatency);
+            if (!stream.cancelled) {
+                telemetry.recordUpstream(stream.userId, stream.recipeId, stream.upstreamLatency, stream.usage);
+                // Stored before "done" so a follow-up sent right after it already sees this exchange
+                String answer = stream.answer.toString();
+                if (stream.cacheKey != null) {
+                    responseCache.put(stream.cacheKey, answer);
+                }
+                conversationService.recordExchange(stream.sessionKey, stream.question, answer);
+                stream.send(SseEmitter.event().name("done").data(""));
+                streamDurationTimer.record(System.nanoTime() - stream.startedAt, TimeUnit.NANOSECONDS);
+                stream.complete();
+            }
+        } catch (Exception e) {
+            if (stream.cancelled) {
+                logger.debug("AI stream stopped after client left: {}", e.getMessage());
+                if (stream.body != null) {
+                    // Gemini had answered; only reading the rest was cut short
+                    reportUpstream(stream, false, stream.upstreamLatency);
+                }
+                return;
+            }
+            telemetry.recordError(stream.userId, stream.recipeId, AiTelemetryService.errorClass(e));
+            if (e instanceof RejectedExecutionException) {
+                // Shed by the quota or the connection limit before reaching Gemini
+                stream.fail("The AI assistant is busy. Please try again.");
+                return;
+            }
+            if (stream.upstreamStartedAt != 0) {
+                reportUpstream(stream, true, System.nanoTime() - stream.upstreamStartedAt);
+            }
+            logger.error("Error streaming from Gemini API: {}", e.getMessage(), e);
+            stream.fail("Error communicating with AI: " + e.getMessage());
+        } finally {
+            // Gives the connection slot back on every path, and the breaker permit if the call got no answer
+            stream.closeBody();
+            if (stream.holdsPermit) {
+                stream.holdsPermit = false;
+                circuitBreaker.releasePermission();
+            }
+            activeStreams.decrementAndGet();
+        }
+    }
+
+    // Once per stream, so a read failure after an error status is not counted twice
+    private void reportUpstream(UpstreamStream stream, boolean failed, long latencyNanos) {
+        if (!stream.holdsPermit) {
+            return;
+        }
+        stream.holdsPermit = false;
+        if (failed) {
+            circuitBreaker.onError(latencyNanos);
+        } else {
+            circuitBreaker.onSuccess(latencyNanos);
+        }
+    }
+
+    // The key goes in a header so it never shows up in URLs, logs or proxies
+    private HttpHeaders apiHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Content-Type", "application/json");
+        headers.set("x-goog-api-key", geminiApiKey);
+        return headers;
+    }
+
+    private static SseEmitter sendWhole(SseEmitter emitter, String text) {
+        try {
+            emitter.send(chunkEvent(text));
+            emitter.send(SseEmitter.event().name("done").data(""));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    private static String extractText(JsonNode chunk) {
+        JsonNode parts = chunk.path("candidates").path(0).path("content").path("parts");
+        StringBuilder text = new StringBuilder();
+        for (JsonNode part : parts) {
+            text.append(part.path("text").asText(""));
+        }
+        return text.toString();
+    }
+
+    private static SseEmitter.SseEventBuilder chunkEvent(String text) {
+        // JSON keeps newlines inside the answer from breaking the SSE framing
+        return SseEmitter.event().name("chunk").data(new AiResponse(text), MediaType.APPLICATION_JSON);
+    }
+
+    int getActiveStreamCount() {
+        return activeStreams.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        aiExecutor.shutdownNow();
+    }
+
+    private Map<String, Object> buildRequestBody(String userMessage, String systemInstruction,
+                                                 List<AiConversationService.Turn> history) {
+        Map<String, Object> requestBody = new HashMap<>();
+
+        List<Map<String, Object>> contents = new ArrayList<>();
+        for (AiConversationService.Turn turn : history) {
+            contents.add(Map.of("role", turn.getRole(), "parts", List.of(Map.of("text", turn.getText()))));
+        }
+        Map<String, Object> content = new HashMap<>();
+        content.put("role", AiConversationService.USER);
+        List<Map<String, String>> parts = new ArrayList<>();
+        parts.add(Map.of("text", userMessage));
+        content.put("parts", parts);
+        contents.add(content);
+        
+        requestBody.put("contents", contents);
+        
+        Map<String, Object> systemInstructionMap = new HashMap<>();
+        systemInstructionMap.put("parts", List.of(Map.of("text", systemInstruction)));
+        requestBody.put("systemInstruction", systemInstructionMap);
+        
+        Map<String, Object> generationConfig = new HashMap<>();
+        generationConfig.put("temperature", 0.7);
+        generationConfig.put("maxOutputTokens", 1000);
+        requestBody.put("generationConfig", generationConfig);
+
+        return requestBody;
+    }
+
+    private String getFallbackResponse() {
+        return "The AI assistant is temporarily unavailable. " +
+                "Your recipe, its ingredients and steps are still available on screen. " +
+                "Please ask again in a minute.";
+    }
+
     private String getDefaultResponse(String userMessage) {
         return "Hello! I'm your cooking assistant. " +
                 "Currently, the AI functionality is not configured with a Google Gemini API key. " +
@@ -298,4 +665,87 @@ public class AiService {
                 "I can help you with recipes, cooking tips, techniques, and much more, once the API key is configured! " +
                 "Gemini API has a FREE tier with up to 60 requests per minute!";
     }
+
+    private final class UpstreamStream {
+        private final SseEmitter emitter;
+        private final String question;
+        private final String sessionKey;
+        private final Long userId;
+        private final Long recipeId;
+        private final String cacheKey;
+        private final long startedAt;
+        private final StringBuilder answer = new StringBuilder();
+        private volatile boolean cancelled;
+        private volatile boolean finished;
+        private volatile InputStream body;
+        private volatile Future<?> task;
+        private boolean firstTokenSent;
+        private long upstreamStartedAt;
+        private long upstreamLatency;
+        // A circuit breaker permit whose outcome is not reported yet
+        private boolean holdsPermit;
+        private JsonNode usage;
+
+        private UpstreamStream(SseEmitter emitter, String question, String sessionKey, Long userId, Long recipeId,
+                               String cacheKey, long startedAt) {
+            this.emitter = emitter;
+            this.question = question;
+            this.sessionKey = sessionKey;
+            this.userId = userId;
+            this.recipeId = recipeId;
+            this.cacheKey = cacheKey;
+            this.startedAt = startedAt;
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            try {
+                emitter.send(event);
+            } catch (IOException e) {
+                // A failed write means the client is gone; stop reading from Gemini
+                cancel("disconnected");
+                throw e;
+            }
+        }
+
+        private void complete() {
+            finished = true;
+            emitter.complete();
+        }
+
+        private void fail(String message) {
+            try {
+                send(SseEmitter.event().name("error").data(new AiResponse(message), MediaType.APPLICATION_JSON));
+                complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void cancel(String reason) {
+            if (cancelled || finished) {
+                return;
+            }
+            cancelled = true;
+            Future<?> running = task;
+            if (running == null || running.isDone()) {
+                return;
+            }
+            cancelledStreams.increment();
+            logger.debug("Client {}, aborting Gemini stream", reason);
+            // Closing the body releases the upstream connection; the interrupt covers a pending connect
+            closeBody();
+            running.cancel(true);
+        }
+
+        private void closeBody() {
+            InputStream current = body;
+            if (current != null) {
+                try {
+                    current.close();
+                } catch (IOException ignored) {
+                    // Nothing left to release
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,310 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.entity.AiUsageDaily;
+import com.chefmate.backend.repository.AiUsageDailyRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Usage telemetry for the AI assistant.
+ *
+ * Every chat request is counted once by how it was answered (locally, from the cache,
+ * by Gemini, by the fallback, or not at all), failures by error class, and every Gemini
+ * call by the tokens Gemini reports in usageMetadata and what they cost at the configured
+ * per-token prices. The same numbers are summed per user, recipe and day in memory and
+ * added to ai_usage_daily in one batch every flush interval.
+ *
+ * Full request and response bodies are only logged when log-bodies is switched on, and
+ * then only for a sample of the calls.
+ */
+@Service
+public class AiTelemetryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiTelemetryService.class);
+
+    // Work done for no user in particular, such as FAQ precompute, is accounted under this id
+    public static final long BACKGROUND_USER = 0L;
+
+    // Questions not about a stored recipe are accounted under this recipe id
+    public static final long NO_RECIPE = 0L;
+
+    public enum Source { LOCAL, CACHED, UPSTREAM, FALLBACK, ERROR }
+
+    private final AiUsageDailyRepository usageRepository;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Usage> usages = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("ai-usage-flusher").daemon(true).factory());
+
+    private final boolean logBodies;
+    private final double bodySampleRate;
+    private final double promptPricePerMillion;
+    private final double responsePricePerMillion;
+    private final Map<Source, Counter> requests = new EnumMap<>(Source.class);
+    private final DistributionSummary promptTokens;
+    private final DistributionSummary responseTokens;
+    private final Counter cost;
+
+    public AiTelemetryService(
+            MeterRegistry meterRegistry,
+            AiUsageDailyRepository usageRepository,
+            @Value("${app.ai.telemetry.flush-interval-seconds:60}") long flushIntervalSeconds,
+            @Value("${app.ai.telemetry.log-bodies:false}") boolean logBodies,
+            @Value("${app.ai.telemetry.body-sample-rate:0.01}") double bodySampleRate,
+            @Value("${app.ai.telemetry.prompt-price-per-million-tokens:0.30}") double promptPricePerMillion,
+            @Value("${app.ai.telemetry.response-price-per-million-tokens:2.50}") double responsePricePerMillion) {
+        this.meterRegistry = meterRegistry;
+        this.usageRepository = usageRepository;
+        this.logBodies = logBodies;
+        this.bodySampleRate = bodySampleRate;
+        this.promptPricePerMillion = promptPricePerMillion;
+        this.responsePricePerMillion = responsePricePerMillion;
+
+        for (Source source : Source.values()) {
+            requests.put(source, Counter.builder("chefmate.ai.requests")
+                    .description("AI requests by how they were answered")
+                    .tag("source", source.name())
+                    .register(meterRegistry));
+        }
+        this.promptTokens = DistributionSummary.builder("chefmate.ai.tokens")
+                .description("Tokens per Gemini call, as reported in usageMetadata")
+                .baseUnit("tokens")
+                .tag("type", "prompt")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.responseTokens = DistributionSummary.builder("chefmate.ai.tokens")
+                .description("Tokens per Gemini call, as reported in usageMetadata")
+                .baseUnit("tokens")
+                .tag("type", "response")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.cost = Counter.builder("chefmate.ai.cost")
+                .description("What the Gemini calls cost at the configured token prices")
+                .baseUnit("usd")
+                .register(meterRegistry);
+
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Counts a request answered without Gemini: LOCAL, CACHED or FALLBACK.
+     */
+    public void record(Long userId, Long recipeId, Source source) {
+        requests.get(source).increment();
+        Usage usage = usageFor(userId, recipeId);
+        usage.requests.increment();
+        switch (source) {
+            case LOCAL -> usage.localAnswers.increment();
+            case CACHED -> usage.cachedAnswers.increment();
+            case FALLBACK -> usage.fallbacks.increment();
+            default -> { }
+        }
+    }
+
+    /**
+     * Counts a request answered by Gemini, with the call's latency and token usage.
+     *
+     * @param usageMetadata the usageMetadata object of the (last) response, may be null
+     */
+    public void recordUpstream(Long userId, Long recipeId, long latencyNanos, JsonNode usageMetadata) {
+        requests.get(Source.UPSTREAM).increment();
+        Usage usage = usageFor(userId, recipeId);
+        usage.requests.increment();
+        usage.upstreamCalls.increment();
+        usage.upstreamNanos.add(latencyNanos);
+        if (usageMetadata != null && !usageMetadata.isMissingNode()) {
+            long prompt = usageMetadata.path("promptTokenCount").asLong(0);
+            // Thinking tokens are billed as output, so they count towards the response
+            long response = usageMetadata.path("candidatesTokenCount").asLong(0)
+                    + usageMetadata.path("thoughtsTokenCount").asLong(0);
+            promptTokens.record(prompt);
+            responseTokens.record(response);
+            usage.promptTokens.add(prompt);
+            usage.responseTokens.add(response);
+            // Prices are per million tokens, so this is the cost in millionths of a dollar
+            long costMicroUsd = Math.round(prompt * promptPricePerMillion + response * responsePricePerMillion);
+            cost.increment(costMicroUsd / 1_000_000.0);
+            usage.costMicroUsd.add(costMicroUsd);
+        }
+    }
+
+    /**
+     * Counts a request that failed, under one of the classes from {@link #errorClass}.
+     */
+    public void recordError(Long userId, Long recipeId, String errorClass) {
+        requests.get(Source.ERROR).increment();
+        meterRegistry.counter("chefmate.ai.errors", "class", errorClass).increment();
+        Usage usage = usageFor(userId, recipeId);
+        usage.requests.increment();
+        usage.errors.increment();
+    }
+
+    /**
+     * @return whether this call's bodies should be logged; false unless log-bodies is on
+     */
+    public boolean sampleBody() {
+        return logBodies && ThreadLocalRandom.current().nextDouble() < bodySampleRate;
+    }
+
+    // A small fixed set of classes, so the error counter stays low-cardinality
+    public static String errorClass(Throwable error) {
+        if (error instanceof RejectedExecutionException) {
+            return "rejected";
+        }
+        if (error instanceof HttpStatusCodeException statusError) {
+            return errorClass(statusError.getStatusCode().value());
+        }
+        if (error instanceof ResourceAccessException || error instanceof IOException) {
+            // RestTemplate wraps the client's IOException, which may wrap the timeout itself
+            for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+                if (cause instanceof HttpTimeoutException || cause instanceof SocketTimeoutException
+                        || cause instanceof TimeoutException) {
+                    return "timeout";
+                }
+            }
+            return "io";
+        }
+        if (error instanceof IllegalStateException) {
+            return "bad_response";
+        }
+        return "other";
+    }
+
+    public static String errorClass(int status) {
+        if (status == 429) {
+            return "throttled";
+        }
+        return status >= 500 ? "server_error" : "client_error";
+    }
+
+    /**
+     * Adds what was counted since the last flush to ai_usage_daily. On failure the
+     * counts are kept and go out with the next flush.
+     */
+    void flush() {
+        LocalDate today = LocalDate.now();
+        List<AiUsageDaily> deltas = new ArrayList<>();
+        Iterator<Usage> entries = usages.values().iterator();
+        while (entries.hasNext()) {
+            Usage usage = entries.next();
+            AiUsageDaily delta = usage.drain();
+            if (delta != null) {
+                deltas.add(delta);
+            }
+            if (usage.date.isBefore(today)) {
+                // A day is only written to until shortly after midnight
+                entries.remove();
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            usageRepository.addAll(deltas);
+        } catch (RuntimeException e) {
+            logger.warn("Could not store AI usage, keeping it for the next flush: {}", e.getMessage());
+            for (AiUsageDaily delta : deltas) {
+                usageFor(delta.getUserId(), delta.getRecipeId(), delta.getUsageDate()).add(delta);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flush();
+    }
+
+    private Usage usageFor(Long userId, Long recipeId) {
+        return usageFor(userId != null ? userId : BACKGROUND_USER, recipeId != null ? recipeId : NO_RECIPE, LocalDate.now());
+    }
+
+    private Usage usageFor(long userId, long recipeId, LocalDate date) {
+        return usages.computeIfAbsent(userId + "/" + recipeId + "@" + date, key -> new Usage(userId, recipeId, date));
+    }
+
+    private static final class Usage {
+        private final long userId;
+        private final long recipeId;
+        private final LocalDate date;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder localAnswers = new LongAdder();
+        private final LongAdder cachedAnswers = new LongAdder();
+        private final LongAdder upstreamCalls = new LongAdder();
+        private final LongAdder fallbacks = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder promptTokens = new LongAdder();
+        private final LongAdder responseTokens = new LongAdder();
+        private final LongAdder upstreamNanos = new LongAdder();
+        private final LongAdder costMicroUsd = new LongAdder();
+
+        private Usage(long userId, long recipeId, LocalDate date) {
+            this.userId = userId;
+            this.recipeId = recipeId;
+            this.date = date;
+        }
+
+        // Null when nothing happened since the last drain
+        private AiUsageDaily drain() {
+            long requestCount = requests.sumThenReset();
+            if (requestCount == 0) {
+                return null;
+            }
+            AiUsageDaily delta = new AiUsageDaily();
+            delta.setUserId(userId);
+            delta.setRecipeId(recipeId);
+            delta.setUsageDate(date);
+            delta.setRequests(requestCount);
+            delta.setLocalAnswers(localAnswers.sumThenReset());
+            delta.setCachedAnswers(cachedAnswers.sumThenReset());
+            delta.setUpstreamCalls(upstreamCalls.sumThenReset());
+            delta.setFallbacks(fallbacks.sumThenReset());
+            delta.setErrors(errors.sumThenReset());
+            delta.setPromptTokens(promptTokens.sumThenReset());
+            delta.setResponseTokens(responseTokens.sumThenReset());
+            delta.setUpstreamMillis(TimeUnit.NANOSECONDS.toMillis(upstreamNanos.sumThenReset()));
+            delta.setCostMicroUsd(costMicroUsd.sumThenReset());
+            return delta;
+        }
+
+        private void add(AiUsageDaily delta) {
+            requests.add(delta.getRequests());
+            localAnswers.add(delta.getLocalAnswers());
+            cachedAnswers.add(delta.getCachedAnswers());
+            upstreamCalls.add(delta.getUpstreamCalls());
+            fallbacks.add(delta.getFallbacks());
+            errors.add(delta.getErrors());
+            promptTokens.add(delta.getPromptTokens());
+            responseTokens.add(delta.getResponseTokens());
+            upstreamNanos.add(TimeUnit.MILLISECONDS.toNanos(delta.getUpstreamMillis()));
+            costMicroUsd.add(delta.getCostMicroUsd());
+        }
+    }
+}
@@ -90,15 +90,12 @@ public class DatabaseCleanupService {
             result.setCommentsDeleted(executeDelete("comments"));
             result.setRecipeLikesDeleted(executeDelete("recipe_likes"));
             result.setRecipeImagesDeleted(executeDelete("recipe_images"));
+            executeDelete("shopping_list_item_tombstones");
+            executeDelete("shopping_list_mutations");
             result.setShoppingListItemsDeleted(executeDelete("shopping_list_items"));
             result.setShoppingListsDeleted(executeDelete("shopping_lists"));
             result.setPasswordResetTokensDeleted(executeDelete("password_reset_tokens"));
             
-            // Delete collection tables
-            result.setRecipeImagesDeleted(result.getRecipeImagesDeleted() + executeDelete("recipe_image_urls"));
-            executeDelete("recipe_ingredients");
-            executeDelete("recipe_steps");
-            
             result.setRecipesDeleted(executeDelete("recipes"));
             result.setUsersDeleted(executeDelete("users"));
         } finally {
@@ -157,10 +154,7 @@ public class DatabaseCleanupService {
         result.setRecipesDeleted(recipesCount);
         logger.info("Deleted {} recipes", recipesCount);
 
-        // 9. Delete collection tables explicitly (in case they're not cascade deleted)
-        deleteCollectionTables();
-
-        // 10. Delete Users (base table)
+        // 9. Delete Users (base table)
         long usersCount = userRepository.count();
         userRepository.deleteAll();
         result.setUsersDeleted(usersCount);
@@ -178,19 +172,6 @@ public class DatabaseCleanupService {
         }
     }
 
-    @Transactional
-    private void deleteCollectionTables() {
-        try {
-            // Delete from collection tables (these are created by @ElementCollection)
-            entityManager.createNativeQuery("DELETE FROM recipe_image_urls").executeUpdate();
-            entityManager.createNativeQuery("DELETE FROM recipe_ingredients").executeUpdate();
-            entityManager.createNativeQuery("DELETE FROM recipe_steps").executeUpdate();
-            logger.info("Deleted data from collection tables (recipe_image_urls, recipe_ingredients, recipe_steps)");
-        } catch (Exception e) {
-            logger.warn("Could not delete collection tables (they may not exist or may be empty): {}", e.getMessage());
-        }
-    }
-
     // Statistics methods
     public long getUserCount() {
         return userRepository.count();
@@ -1,26 +1,52 @@
 package com.chefmate.backend.service;
 
 import com.chefmate.backend.config.FileStorageProperties;
+import com.chefmate.backend.entity.StoredFile;
+import com.chefmate.backend.repository.StoredFileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
 
+/**
+ * Uploads are stored once per content: the SHA-256 is computed while the upload is copied
+ * to a temporary file, and the file is kept under its digest (plus the original extension).
+ * Uploading content that is already stored adds a reference in stored_files and drops
+ * the temporary copy; deleting drops a reference and removes the file, and its resized
+ * variants, with the last one.
+ */
 @Service
 public class FileStorageService {
 
     private final Path fileStorageLocation;
+    private final StoredFileRepository storedFileRepository;
+    private final Counter deduplicated;
 
-    public FileStorageService(FileStorageProperties fileStorageProperties) {
+    public FileStorageService(FileStorageProperties fileStorageProperties,
+                              StoredFileRepository storedFileRepository,
+                              MeterRegistry meterRegistry) {
+        this.storedFileRepository = storedFileRepository;
+        this.deduplicated = Counter.builder("chefmate.uploads.deduplicated")
+                .description("Uploads whose content was already stored and was not written again")
+                .register(meterRegistry);
         this.fileStorageLocation = Paths.get(fileStorageProperties.getUploadDir())
                 .toAbsolutePath().normalize();
 
@@ -32,20 +58,37 @@ public class FileStorageService {
     }
 
     public String storeFile(MultipartFile file) {
-        String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
-        String fileName = UUID.randomUUID().toString() + "_" + originalFileName;
+        String originalFileName = StringUtils.cleanPath(String.valueOf(file.getOriginalFilename()));
+        Path tempFile = null;
 
         try {
-            if (fileName.contains("..")) {
-                throw new RuntimeException("Sorry! Filename contains invalid path sequence " + fileName);
+            tempFile = Files.createTempFile(this.fileStorageLocation, "upload-", ".tmp");
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), sha256)) {
+                size = Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
             }
+            String digest = HexFormat.of().formatHex(sha256.digest());
 
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            // Same content uploaded under another extension keeps the name it was first stored under
+            StoredFile storedFile = storedFileRepository.acquire(digest, digest + extension(originalFileName), size);
+            Path targetLocation = this.fileStorageLocation.resolve(storedFile.getFileName());
+            if (Files.exists(targetLocation)) {
+                deduplicated.increment();
+            } else {
+                try {
+                    Files.move(tempFile, targetLocation, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException ex) {
+                    storedFileRepository.release(storedFile.getFileName());
+                    throw ex;
+                }
+            }
 
-            return fileName;
-        } catch (IOException ex) {
-            throw new RuntimeException("Could not store file " + fileName + ". Please try again!", ex);
+            return storedFile.getFileName();
+        } catch (IOException | NoSuchAlgorithmException ex) {
+            throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
+        } finally {
+            deleteTempFile(tempFile);
         }
     }
 
@@ -64,12 +107,59 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * Drops one reference to the file; the file itself is only deleted with the last one.
+     * Files stored before content addressing have no references and are deleted directly.
+     */
+    @Transactional
     public void deleteFile(String fileName) {
         try {
             Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Files.deleteIfExists(filePath);
+            if (!filePath.startsWith(this.fileStorageLocation)) {
+                throw new RuntimeException("Sorry! Filename contains invalid path sequence " + fileName);
+            }
+            Integer referencesLeft = storedFileRepository.release(fileName);
+            if (referencesLeft == null || referencesLeft == 0) {
+                Files.deleteIfExists(filePath);
+                deleteVariants(filePath.getFileName().toString());
+            }
         } catch (IOException ex) {
             throw new RuntimeException("Could not delete file " + fileName, ex);
         }
     }
-}
\ No newline at end of file
+
+    // Only a short alphanumeric extension is kept, so the client's name cannot leak into the path
+    static String extension(String fileName) {
+        String extension = StringUtils.getFilenameExtension(fileName);
+        if (extension == null || extension.length() > 10 || !extension.matches("[A-Za-z0-9]+")) {
+            return "";
+        }
+        return "." + extension.toLowerCase(Locale.ROOT);
+    }
+
+    // The resized copies ImageVariantService wrote under uploads/variants/
+    private void deleteVariants(String fileName) throws IOException {
+        Path variantDir = this.fileStorageLocation.resolve(ImageVariantService.VARIANTS_DIR);
+        if (!Files.isDirectory(variantDir)) {
+            return;
+        }
+        String baseName = ImageVariantService.baseName(fileName);
+        try (DirectoryStream<Path> variants = Files.newDirectoryStream(variantDir,
+                variant -> ImageVariantService.isVariantOf(baseName, variant.getFileName().toString()))) {
+            for (Path variant : variants) {
+                Files.deleteIfExists(variant);
+            }
+        }
+    }
+
+    private void deleteTempFile(Path tempFile) {
+        if (tempFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException ignored) {
+            // Left behind under a random name that no recipe or profile points to
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.config.StartupTimingReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Whether Gemini answers with the configured key, checked once in the background after
+ * startup by listing the available models, plus the circuit breaker's current state.
+ *
+ * Reported as "gemini" on /actuator/health. It never reports DOWN: the AI assistant has
+ * local fallbacks, so an unreachable Gemini must not take the instance out of service.
+ */
+@Component
+public class GeminiHealthIndicator implements HealthIndicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiHealthIndicator.class);
+
+    private final AiService aiService;
+    private final AiCircuitBreaker circuitBreaker;
+    private final StartupTimingReport startupTimingReport;
+
+    private volatile List<String> models;
+    private volatile String error;
+    private volatile Duration checkDuration;
+
+    public GeminiHealthIndicator(AiService aiService, AiCircuitBreaker circuitBreaker,
+                                 StartupTimingReport startupTimingReport) {
+        this.aiService = aiService;
+        this.circuitBreaker = circuitBreaker;
+        this.startupTimingReport = startupTimingReport;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void startCheck() {
+        if (aiService.isConfigured()) {
+            Thread.ofVirtual().name("gemini-check").start(this::check);
+        }
+    }
+
+    void check() {
+        long startedAt = System.nanoTime();
+        try {
+            models = aiService.listModels();
+            error = null;
+            logger.info("Gemini reachable, {} models available", models.size());
+        } catch (Exception e) {
+            error = e.getMessage();
+            logger.warn("Could not list Gemini models: {}", e.getMessage());
+        }
+        checkDuration = Duration.ofNanos(System.nanoTime() - startedAt);
+        startupTimingReport.recordCheck("gemini", checkDuration, error == null);
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health;
+        if (!aiService.isConfigured()) {
+            health = Health.unknown().withDetail("state", "no API key");
+        } else if (checkDuration == null) {
+            health = Health.unknown().withDetail("state", "checking");
+        } else if (error != null) {
+            health = Health.unknown().withDetail("state", "unreachable").withDetail("error", error);
+        } else {
+            health = Health.up()
+                    .withDetail("modelAvailable", models.stream().anyMatch(name -> name.endsWith("/" + aiService.getModel())))
+                    .withDetail("models", models.size());
+        }
+        return health.withDetail("model", String.valueOf(aiService.getModel()))
+                .withDetail("circuitBreaker", circuitBreaker.getState().name())
+                .build();
+    }
+}
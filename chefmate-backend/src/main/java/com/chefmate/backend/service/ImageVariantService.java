@@ -0,0 +1,314 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.config.FileStorageProperties;
+import com.chefmate.backend.repository.RecipeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resized copies of uploaded recipe photos, so the feed can load a thumbnail instead of
+ * the full upload.
+ *
+ * Each upload is decoded once, subsampled while reading so the decoded image is not much
+ * wider than the widest variant, and then scaled down step by step to every configured
+ * width. Variants are written as JPEG next to the uploads (uploads/variants/) and recorded
+ * on the recipe's image_variants column, keyed by the original image URL and the width.
+ *
+ * The work runs on a small bounded pool after the recipe is saved; until a photo's
+ * variants are recorded, clients keep using the original. Decoded pixels across all
+ * workers are limited by a shared budget, so a burst of large photos waits instead of
+ * running the heap out.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+
+    static final String UPLOADS_URL_PREFIX = "/uploads/";
+    static final String VARIANTS_DIR = "variants";
+
+    private final RecipeRepository recipeRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path uploadDir;
+    private final Path variantDir;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore decodeBudget;
+
+    private final int[] widths;
+    private final int maxDecodePixels;
+    private final float quality;
+    private final Counter generated;
+    private final Counter failed;
+    private final Counter rejected;
+    private final Timer processTimer;
+
+    public ImageVariantService(
+            RecipeRepository recipeRepository,
+            FileStorageProperties fileStorageProperties,
+            MeterRegistry meterRegistry,
+            @Value("${app.images.variant-widths:200,600,1200}") int[] widths,
+            @Value("${app.images.quality:0.8}") float quality,
+            @Value("${app.images.threads:2}") int threads,
+            @Value("${app.images.queue-capacity:100}") int queueCapacity,
+            @Value("${app.images.max-decode-pixels:24000000}") int maxDecodePixels) {
+        this.recipeRepository = recipeRepository;
+        this.uploadDir = Paths.get(fileStorageProperties.getUploadDir()).toAbsolutePath().normalize();
+        this.variantDir = uploadDir.resolve(VARIANTS_DIR);
+        this.widths = Arrays.stream(widths).sorted().toArray();
+        this.quality = quality;
+        this.maxDecodePixels = maxDecodePixels;
+        this.decodeBudget = new Semaphore(maxDecodePixels, true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("image-variants-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        try {
+            Files.createDirectories(variantDir);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not create the directory where image variants will be stored.", ex);
+        }
+
+        this.generated = Counter.builder("chefmate.images.variants.generated")
+                .description("Uploaded photos resized into all variant widths")
+                .register(meterRegistry);
+        this.failed = Counter.builder("chefmate.images.variants.failed")
+                .description("Uploaded photos that could not be decoded or resized")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("chefmate.images.variants.rejected")
+                .description("Uploaded photos not resized because the variant queue was full")
+                .register(meterRegistry);
+        this.processTimer = Timer.builder("chefmate.images.variants.duration")
+                .description("Time to decode one uploaded photo and write its variants")
+                .register(meterRegistry);
+        meterRegistry.gauge("chefmate.images.variants.queued", executor, pool -> pool.getQueue().size());
+    }
+
+    /**
+     * Queues variant generation for the recipe's uploaded images. URLs that are not local
+     * uploads, or whose variants were already generated, are skipped.
+     */
+    public void submit(Long recipeId, List<String> imageUrls) {
+        if (recipeId == null || imageUrls == null) {
+            return;
+        }
+        for (String imageUrl : imageUrls) {
+            if (imageUrl == null || !imageUrl.startsWith(UPLOADS_URL_PREFIX)) {
+                continue;
+            }
+            try {
+                executor.execute(() -> process(recipeId, imageUrl));
+            } catch (RejectedExecutionException e) {
+                // The original is still served; the photo just has no smaller sizes
+                rejected.increment();
+                logger.warn("Image variant queue full, serving {} without variants", imageUrl);
+            }
+        }
+    }
+
+    void process(Long recipeId, String imageUrl) {
+        long start = System.nanoTime();
+        try {
+            Map<String, String> variants = generate(imageUrl.substring(UPLOADS_URL_PREFIX.length()));
+            if (variants.isEmpty()) {
+                return;
+            }
+            recipeRepository.saveImageVariants(recipeId, imageUrl, objectMapper.writeValueAsString(variants));
+            generated.increment();
+        } catch (JsonProcessingException | RuntimeException e) {
+            failed.increment();
+            logger.warn("Could not record image variants for {}: {}", imageUrl, e.getMessage());
+        } catch (IOException e) {
+            failed.increment();
+            logger.warn("Could not generate image variants for {}: {}", imageUrl, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            processTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Writes the variants of an uploaded file, reusing ones already on disk.
+     *
+     * @return variant URL by width, only for widths narrower than the original; empty for
+     *         files that are not images
+     */
+    Map<String, String> generate(String fileName) throws IOException, InterruptedException {
+        Path source = uploadDir.resolve(fileName).normalize();
+        if (!source.startsWith(uploadDir) || !Files.isRegularFile(source)) {
+            throw new IOException("Upload not found: " + fileName);
+        }
+        String baseName = baseName(source.getFileName().toString());
+
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return Map.of();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Only the header is read here, the pixels are decoded below
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+
+                Map<String, String> variants = new LinkedHashMap<>();
+                int widest = 0;
+                for (int width : widths) {
+                    if (width < sourceWidth) {
+                        variants.put(String.valueOf(width), variantUrl(baseName, width));
+                        widest = width;
+                    }
+                }
+                if (widest == 0 || allExist(baseName, variants)) {
+                    return variants;
+                }
+
+                int subsampling = subsampling(sourceWidth, sourceHeight, widest, maxDecodePixels);
+                int decodedPixels = (int) Math.min(maxDecodePixels,
+                        (long) ceilDiv(sourceWidth, subsampling) * ceilDiv(sourceHeight, subsampling));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+                decodeBudget.acquire(decodedPixels);
+                try {
+                    BufferedImage image = reader.read(0, param);
+                    // Widest first, each step scaled from the previous one
+                    for (int i = widths.length - 1; i >= 0; i--) {
+                        if (widths[i] >= sourceWidth) {
+                            continue;
+                        }
+                        image = scale(image, widths[i]);
+                        write(image, variantDir.resolve(variantFileName(baseName, widths[i])));
+                    }
+                } finally {
+                    decodeBudget.release(decodedPixels);
+                }
+                return variants;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * The largest subsampling step that still decodes at least targetWidth columns, raised
+     * further if the decoded image would exceed maxPixels.
+     */
+    static int subsampling(int sourceWidth, int sourceHeight, int targetWidth, int maxPixels) {
+        int step = Math.max(1, sourceWidth / targetWidth);
+        while ((long) ceilDiv(sourceWidth, step) * ceilDiv(sourceHeight, step) > maxPixels) {
+            step++;
+        }
+        return step;
+    }
+
+    static String variantFileName(String baseName, int width) {
+        return baseName + "_w" + width + ".jpg";
+    }
+
+    // Any width, including ones no longer configured
+    static boolean isVariantOf(String baseName, String variantFileName) {
+        String prefix = baseName + "_w";
+        return variantFileName.startsWith(prefix) && variantFileName.endsWith(".jpg")
+                && variantFileName.substring(prefix.length(), variantFileName.length() - 4).matches("[0-9]+");
+    }
+
+    private String variantUrl(String baseName, int width) {
+        return UPLOADS_URL_PREFIX + VARIANTS_DIR + "/" + variantFileName(baseName, width);
+    }
+
+    private boolean allExist(String baseName, Map<String, String> variants) {
+        for (String width : variants.keySet()) {
+            if (!Files.exists(variantDir.resolve(variantFileName(baseName, Integer.parseInt(width))))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Always opaque RGB: JPEG has no alpha, transparent areas become white
+    private static BufferedImage scale(BufferedImage image, int width) {
+        int height = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    // Written to a temporary file first, so a half-written variant is never served
+    private void write(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        Path temp = Files.createTempFile(variantDir, "variant-", ".tmp");
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static String baseName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,166 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.entity.Recipe;
+import com.chefmate.backend.entity.ShoppingList;
+import com.chefmate.backend.entity.ShoppingListItem;
+import com.chefmate.backend.utils.IngredientParser;
+import com.chefmate.backend.utils.ParsedIngredient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns recipe ingredient lines into shopping list rows, summing quantities of
+ * the same ingredient in the same unit instead of adding duplicate lines.
+ */
+@Service
+public class IngredientAggregationService {
+
+    private final Map<Long, CachedIngredients> parseCache = new ConcurrentHashMap<>();
+    private final int maxCachedRecipes;
+
+    public IngredientAggregationService(@Value("${app.ingredients.parse-cache-size:1000}") int maxCachedRecipes) {
+        this.maxCachedRecipes = maxCachedRecipes;
+    }
+
+    /**
+     * Parses a recipe's ingredients, reusing the previous result while the recipe is unchanged.
+     */
+    public List<ParsedIngredient> parseRecipeIngredients(Recipe recipe) {
+        if (recipe.getId() == null) {
+            return parseAll(recipe.getIngredients());
+        }
+
+        CachedIngredients cached = parseCache.get(recipe.getId());
+        if (cached != null && Objects.equals(cached.updatedAt, recipe.getUpdatedAt())) {
+            return cached.ingredients;
+        }
+
+        List<ParsedIngredient> parsed = parseAll(recipe.getIngredients());
+        if (parseCache.size() >= maxCachedRecipes) {
+            // Cheap bounded eviction; an evicted recipe is simply parsed again next time
+            Iterator<Long> keys = parseCache.keySet().iterator();
+            if (keys.hasNext()) {
+                parseCache.remove(keys.next());
+            }
+        }
+        parseCache.put(recipe.getId(), new CachedIngredients(recipe.getUpdatedAt(), parsed));
+        return parsed;
+    }
+
+    /**
+     * Merges ingredients into a list's rows. Unpurchased rows with the same normalized
+     * name and unit have their quantities summed; anything else becomes a new row.
+     *
+     * @param items the list's current rows; new rows are appended to it
+     * @return the rows that were created or changed and need to be saved
+     */
+    public List<ShoppingListItem> mergeIntoList(ShoppingList shoppingList,
+                                                List<ShoppingListItem> items,
+                                                List<ParsedIngredient> ingredients) {
+        Map<String, ShoppingListItem> openItemsByKey = new HashMap<>();
+        for (ShoppingListItem item : items) {
+            if (!Boolean.TRUE.equals(item.getPurchased()) && item.getName() != null) {
+                openItemsByKey.putIfAbsent(mergeKey(item), item);
+            }
+        }
+
+        Set<ShoppingListItem> changed = new LinkedHashSet<>();
+        for (ParsedIngredient ingredient : ingredients) {
+            if (ingredient.getName().isEmpty()) {
+                continue;
+            }
+
+            ShoppingListItem existing = openItemsByKey.get(ingredient.getMergeKey());
+            if (existing == null) {
+                addItem(shoppingList, items, openItemsByKey, changed, ingredient);
+                continue;
+            }
+            if (!ingredient.hasQuantity()) {
+                continue; // Already on the list, and there is no amount to add
+            }
+
+            String existingText = existing.getQuantity();
+            double existingQuantity = IngredientParser.parseQuantity(existingText)
+                    * IngredientParser.unitFactor(existing.getUnit());
+            if (existingText == null || existingText.isBlank()) {
+                applyQuantity(existing, ingredient.getQuantity(), ingredient.getUnit());
+                changed.add(existing);
+            } else if (!Double.isNaN(existingQuantity)) {
+                applyQuantity(existing, existingQuantity + ingredient.getQuantity(), ingredient.getUnit());
+                changed.add(existing);
+            } else {
+                // An amount that cannot be added to ("a handful"): both go on the list, and
+                // later lines of the same ingredient are summed into the new row
+                addItem(shoppingList, items, openItemsByKey, changed, ingredient);
+            }
+        }
+        return new ArrayList<>(changed);
+    }
+
+    private static void addItem(ShoppingList shoppingList, List<ShoppingListItem> items,
+                                Map<String, ShoppingListItem> openItemsByKey, Set<ShoppingListItem> changed,
+                                ParsedIngredient ingredient) {
+        ShoppingListItem item = new ShoppingListItem();
+        item.setName(ingredient.getName());
+        applyQuantity(item, ingredient.getQuantity(), ingredient.getUnit());
+        item.setPurchased(false);
+        item.setShoppingList(shoppingList);
+        item.setRecipe(null); // Don't store recipe reference
+        items.add(item);
+        openItemsByKey.put(ingredient.getMergeKey(), item);
+        changed.add(item);
+    }
+
+    private static String mergeKey(ShoppingListItem item) {
+        return IngredientParser.normalizeName(item.getName()) + '|' + IngredientParser.normalizeUnit(item.getUnit());
+    }
+
+    // Quantities are summed in base units and shown in the larger unit once they get big
+    private static void applyQuantity(ShoppingListItem item, double quantity, String unit) {
+        if (Double.isNaN(quantity)) {
+            item.setQuantity("");
+            item.setUnit(unit);
+        } else if ("g".equals(unit) && quantity >= 1000) {
+            item.setQuantity(IngredientParser.formatQuantity(quantity / 1000));
+            item.setUnit("kg");
+        } else if ("ml".equals(unit) && quantity >= 1000) {
+            item.setQuantity(IngredientParser.formatQuantity(quantity / 1000));
+            item.setUnit("l");
+        } else {
+            item.setQuantity(IngredientParser.formatQuantity(quantity));
+            item.setUnit(unit);
+        }
+    }
+
+    private static List<ParsedIngredient> parseAll(List<String> lines) {
+        if (lines == null || lines.isEmpty()) {
+            return List.of();
+        }
+        List<ParsedIngredient> parsed = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            parsed.add(IngredientParser.parse(line));
+        }
+        return List.copyOf(parsed);
+    }
+
+    private static final class CachedIngredients {
+        private final LocalDateTime updatedAt;
+        private final List<ParsedIngredient> ingredients;
+
+        private CachedIngredients(LocalDateTime updatedAt, List<ParsedIngredient> ingredients) {
+            this.updatedAt = updatedAt;
+            this.ingredients = ingredients;
+        }
+    }
+}
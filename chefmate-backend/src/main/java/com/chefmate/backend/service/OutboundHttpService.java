@@ -0,0 +1,249 @@
+package com.chefmate.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import javax.net.ssl.SSLSession;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The one HTTP client for calls to external services (Gemini today).
+ *
+ * A single JDK HttpClient is shared, so connections are pooled and kept alive between
+ * calls, and HTTPS hosts that support HTTP/2 get one multiplexed connection instead of
+ * a handshake per call. On top of that each host gets a limit on concurrent exchanges,
+ * and every exchange is timed per host and status.
+ */
+@Service
+public class OutboundHttpService {
+
+    private final HttpClient httpClient;
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+    private final int maxPerHost;
+    private final long acquireTimeoutMillis;
+    private final MeterRegistry meterRegistry;
+
+    public OutboundHttpService(
+            MeterRegistry meterRegistry,
+            @Value("${app.http-client.connect-timeout-ms:5000}") long connectTimeoutMillis,
+            @Value("${app.http-client.max-per-host:32}") int maxPerHost,
+            @Value("${app.http-client.acquire-timeout-ms:5000}") long acquireTimeoutMillis) {
+        this.meterRegistry = meterRegistry;
+        this.maxPerHost = maxPerHost;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * A RestTemplate on the shared client; the read timeout is per template so each
+     * integration can pick its own deadline.
+     */
+    public RestTemplate restTemplate(long readTimeoutMillis) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMillis));
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(limitAndMeasure());
+        return restTemplate;
+    }
+
+    /**
+     * Sends the request and hands back the body unread. The host slot is held until the
+     * body is closed, so callers must close it.
+     *
+     * @throws RejectedExecutionException when the host limit stays exhausted for acquire-timeout
+     */
+    public HttpResponse<InputStream> openStream(HttpRequest request) throws IOException, InterruptedException {
+        Host host = acquire(request.uri());
+        long startedAt = System.nanoTime();
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            host.record(startedAt, "IO_ERROR");
+            host.release();
+            throw e;
+        }
+        host.record(startedAt, String.valueOf(response.statusCode()));
+        return new StreamResponse(response, new FilterInputStream(response.body()) {
+            private final AtomicBoolean closed = new AtomicBoolean();
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (closed.compareAndSet(false, true)) {
+                        host.release();
+                    }
+                }
+            }
+        });
+    }
+
+    int getInFlight(String host) {
+        Host state = hosts.get(host);
+        return state == null ? 0 : maxPerHost - state.permits.availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        httpClient.shutdownNow();
+    }
+
+    private ClientHttpRequestInterceptor limitAndMeasure() {
+        return (request, body, execution) -> {
+            Host host = acquire(request.getURI());
+            long startedAt = System.nanoTime();
+            ClientHttpResponse response;
+            try {
+                response = execution.execute(request, body);
+            } catch (IOException | RuntimeException e) {
+                host.record(startedAt, "IO_ERROR");
+                host.release();
+                throw e;
+            }
+            host.record(startedAt, String.valueOf(response.getStatusCode().value()));
+            return new ReleasingResponse(response, host);
+        };
+    }
+
+    private Host acquire(URI uri) {
+        String name = uri.getHost() != null ? uri.getHost() : "unknown";
+        Host host = hosts.computeIfAbsent(name, Host::new);
+        try {
+            if (!host.permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                meterRegistry.counter("chefmate.http.client.rejected", "host", name).increment();
+                throw new RejectedExecutionException("Too many concurrent requests to " + name);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a connection to " + name);
+        }
+        return host;
+    }
+
+    private final class Host {
+        private final String name;
+        private final Semaphore permits = new Semaphore(maxPerHost, true);
+
+        private Host(String name) {
+            this.name = name;
+            Tags tags = Tags.of("host", name);
+            meterRegistry.gauge("chefmate.http.client.inflight", tags, permits,
+                    semaphore -> maxPerHost - semaphore.availablePermits());
+            meterRegistry.gauge("chefmate.http.client.waiting", tags, permits, Semaphore::getQueueLength);
+        }
+
+        private void record(long startedAt, String status) {
+            Timer.builder("chefmate.http.client.requests")
+                    .description("Outbound HTTP exchanges, up to the response headers")
+                    .tags("host", name, "status", status)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+
+        private void release() {
+            permits.release();
+        }
+    }
+
+    // Gives the host slot back once RestTemplate has read and closed the body
+    private static final class ReleasingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final Host host;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private ReleasingResponse(ClientHttpResponse delegate, Host host) {
+            this.delegate = delegate;
+            this.host = host;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException { return delegate.getStatusCode(); }
+
+        @Override
+        public String getStatusText() throws IOException { return delegate.getStatusText(); }
+
+        @Override
+        public HttpHeaders getHeaders() { return delegate.getHeaders(); }
+
+        @Override
+        public InputStream getBody() throws IOException { return delegate.getBody(); }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (closed.compareAndSet(false, true)) {
+                    host.release();
+                }
+            }
+        }
+    }
+
+    // Same response, with a body that gives the host slot back when closed
+    private static final class StreamResponse implements HttpResponse<InputStream> {
+        private final HttpResponse<InputStream> delegate;
+        private final InputStream body;
+
+        private StreamResponse(HttpResponse<InputStream> delegate, InputStream body) {
+            this.delegate = delegate;
+            this.body = body;
+        }
+
+        @Override
+        public int statusCode() { return delegate.statusCode(); }
+
+        @Override
+        public HttpRequest request() { return delegate.request(); }
+
+        @Override
+        public Optional<HttpResponse<InputStream>> previousResponse() { return delegate.previousResponse(); }
+
+        @Override
+        public java.net.http.HttpHeaders headers() { return delegate.headers(); }
+
+        @Override
+        public InputStream body() { return body; }
+
+        @Override
+        public Optional<SSLSession> sslSession() { return delegate.sslSession(); }
+
+        @Override
+        public URI uri() { return delegate.uri(); }
+
+        @Override
+        public HttpClient.Version version() { return delegate.version(); }
+    }
+}
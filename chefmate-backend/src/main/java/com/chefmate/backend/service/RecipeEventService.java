@@ -0,0 +1,229 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.dto.RecipeEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Per-recipe registry of SSE subscribers.
+ *
+ * Broadcasting only enqueues into each connection's bounded buffer; the actual
+ * socket writes happen on virtual threads, so a slow client never stalls the
+ * request that produced the event. A client whose buffer overflows is dropped
+ * and is expected to reconnect and reload the comments.
+ *
+ * Open streams are capped per user and per recipe, so one client cannot hold
+ * an unbounded number of connections and buffers.
+ */
+@Service
+public class RecipeEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeEventService.class);
+
+    private final Map<Long, Set<Subscriber>> subscribersByRecipe = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> subscriptionsByUser = new ConcurrentHashMap<>();
+    private final ExecutorService senderExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("recipe-events-heartbeat").daemon(true).factory());
+
+    private final int bufferSize;
+    private final int maxPerUser;
+    private final int maxPerRecipe;
+    private Supplier<SseEmitter> emitterFactory;
+
+    public RecipeEventService(
+            @Value("${app.events.buffer-size:32}") int bufferSize,
+            @Value("${app.events.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${app.events.heartbeat-seconds:20}") long heartbeatSeconds,
+            @Value("${app.events.max-per-user:5}") int maxPerUser,
+            @Value("${app.events.max-per-recipe:1000}") int maxPerRecipe) {
+        this.bufferSize = bufferSize;
+        this.maxPerUser = maxPerUser;
+        this.maxPerRecipe = maxPerRecipe;
+        this.emitterFactory = () -> new SseEmitter(timeoutMillis);
+        heartbeatScheduler.scheduleAtFixedRate(this::sendHeartbeats,
+                heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @throws RejectedExecutionException when the user or the recipe already has the maximum
+     *                                    number of open streams
+     */
+    public SseEmitter subscribe(Long recipeId, Long userId) {
+        SseEmitter emitter = emitterFactory.get();
+        Subscriber subscriber = new Subscriber(recipeId, userId, emitter, bufferSize);
+
+        reserveUserSlot(userId);
+        boolean[] added = new boolean[1];
+        subscribersByRecipe.compute(recipeId, (id, subscribers) -> {
+            if (subscribers == null) {
+                subscribers = ConcurrentHashMap.newKeySet();
+            }
+            if (subscribers.size() < maxPerRecipe) {
+                added[0] = subscribers.add(subscriber);
+            }
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        if (!added[0]) {
+            releaseUserSlot(userId);
+            throw new RejectedExecutionException("Too many event subscribers for recipe " + recipeId);
+        }
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        // Tell the client the stream is live so it knows when to stop polling
+        subscriber.offer(SseEmitter.event().name("connected").data(recipeId));
+        schedule(subscriber);
+
+        logger.debug("New event subscriber for recipe {} ({} total)", recipeId, getSubscriberCount(recipeId));
+        return emitter;
+    }
+
+    // Fired only after the writing transaction commits, so rolled back changes are never pushed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeEvent(RecipeEvent event) {
+        broadcast(event);
+    }
+
+    public void broadcast(RecipeEvent event) {
+        Set<Subscriber> subscribers = subscribersByRecipe.get(event.getRecipeId());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            SseEmitter.SseEventBuilder sseEvent = SseEmitter.event()
+                    .name(event.getType())
+                    .data(event, MediaType.APPLICATION_JSON);
+            if (subscriber.offer(sseEvent)) {
+                schedule(subscriber);
+            } else {
+                logger.debug("Dropping slow event subscriber for recipe {}", event.getRecipeId());
+                unsubscribe(subscriber);
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    public int getSubscriberCount(Long recipeId) {
+        Set<Subscriber> subscribers = subscribersByRecipe.get(recipeId);
+        return subscribers != null ? subscribers.size() : 0;
+    }
+
+    void sendHeartbeats() {
+        subscribersByRecipe.values().forEach(subscribers -> subscribers.forEach(subscriber -> {
+            // A full buffer already has pending writes that will detect a dead connection
+            if (subscriber.offer(SseEmitter.event().comment("heartbeat"))) {
+                schedule(subscriber);
+            }
+        }));
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senderExecutor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder next;
+            while ((next = subscriber.buffer.poll()) != null) {
+                try {
+                    subscriber.emitter.send(next);
+                } catch (Exception e) {
+                    logger.debug("Event subscriber for recipe {} disconnected: {}", subscriber.recipeId, e.getMessage());
+                    subscriber.buffer.clear();
+                    unsubscribe(subscriber);
+                    subscriber.emitter.completeWithError(e);
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // Re-check so an event offered between the last poll and the reset is not stranded
+        } while (!subscriber.buffer.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    // Called again by every callback of a connection that ends; only the first call releases its slots
+    private void unsubscribe(Subscriber subscriber) {
+        boolean[] removed = new boolean[1];
+        subscribersByRecipe.computeIfPresent(subscriber.recipeId, (id, subscribers) -> {
+            removed[0] = subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        if (removed[0]) {
+            releaseUserSlot(subscriber.userId);
+        }
+    }
+
+    private void reserveUserSlot(Long userId) {
+        boolean[] reserved = new boolean[1];
+        subscriptionsByUser.compute(userId, (id, count) -> {
+            int open = count != null ? count : 0;
+            if (open >= maxPerUser) {
+                return count;
+            }
+            reserved[0] = true;
+            return open + 1;
+        });
+        if (!reserved[0]) {
+            throw new RejectedExecutionException("Too many event subscriptions for user " + userId);
+        }
+    }
+
+    private void releaseUserSlot(Long userId) {
+        subscriptionsByUser.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    void setEmitterFactory(Supplier<SseEmitter> emitterFactory) {
+        this.emitterFactory = emitterFactory;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatScheduler.shutdownNow();
+        senderExecutor.shutdownNow();
+        subscribersByRecipe.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter.complete()));
+        subscribersByRecipe.clear();
+        subscriptionsByUser.clear();
+    }
+
+    private static final class Subscriber {
+        private final Long recipeId;
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+
+        private Subscriber(Long recipeId, Long userId, SseEmitter emitter, int bufferSize) {
+            this.recipeId = recipeId;
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private boolean offer(SseEmitter.SseEventBuilder event) {
+            return buffer.offer(event);
+        }
+    }
+}
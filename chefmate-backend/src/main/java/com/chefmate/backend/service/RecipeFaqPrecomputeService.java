@@ -0,0 +1,139 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.repository.RecipeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Fills the recipe FAQ table during off-peak hours.
+ *
+ * Every run walks the most popular recipes and asks Gemini the FAQ questions that have
+ * no answer yet for the recipe's current version, one call at a time and at BACKGROUND
+ * quota priority. Each answer is stored as soon as it arrives, so a run that is stopped
+ * (restart, peak hours starting, quota needed by users, Gemini down) simply continues
+ * where it left off next time.
+ */
+@Service
+public class RecipeFaqPrecomputeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeFaqPrecomputeService.class);
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeFaqService recipeFaqService;
+    private final AiPromptService promptService;
+    private final AiService aiService;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("recipe-faq-precompute").daemon(true).factory());
+
+    private final int popularRecipes;
+    private final LocalTime offPeakStart;
+    private final LocalTime offPeakEnd;
+    private final Counter computed;
+    private Supplier<LocalTime> clock = LocalTime::now;
+
+    public RecipeFaqPrecomputeService(
+            RecipeRepository recipeRepository,
+            RecipeFaqService recipeFaqService,
+            AiPromptService promptService,
+            AiService aiService,
+            MeterRegistry meterRegistry,
+            @Value("${app.ai.faq.enabled:true}") boolean enabled,
+            @Value("${app.ai.faq.popular-recipes:50}") int popularRecipes,
+            @Value("${app.ai.faq.off-peak-start-hour:2}") int offPeakStartHour,
+            @Value("${app.ai.faq.off-peak-end-hour:6}") int offPeakEndHour,
+            @Value("${app.ai.faq.run-interval-minutes:15}") long runIntervalMinutes) {
+        this.recipeRepository = recipeRepository;
+        this.recipeFaqService = recipeFaqService;
+        this.promptService = promptService;
+        this.aiService = aiService;
+        this.popularRecipes = popularRecipes;
+        this.offPeakStart = LocalTime.of(offPeakStartHour, 0);
+        this.offPeakEnd = LocalTime.of(offPeakEndHour, 0);
+
+        this.computed = Counter.builder("chefmate.ai.faq.computed")
+                .description("Recipe FAQ answers precomputed with Gemini")
+                .register(meterRegistry);
+
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::runIfOffPeak, runIntervalMinutes, runIntervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    void runIfOffPeak() {
+        if (!isOffPeak() || !aiService.isConfigured()) {
+            return;
+        }
+        try {
+            int stored = precompute();
+            if (stored > 0) {
+                logger.info("Precomputed {} recipe FAQ answers", stored);
+            }
+        } catch (Exception e) {
+            // Keep the schedule alive; the next run starts over from what is stored
+            logger.warn("Recipe FAQ precompute run failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of answers stored in this run
+     */
+    int precompute() throws Exception {
+        int stored = 0;
+        List<Long> recipeIds = recipeRepository.findPopularIds(PageRequest.of(0, popularRecipes));
+        for (Long recipeId : recipeIds) {
+            AiPromptService.RecipeFacts recipe = promptService.getRecipe(recipeId, null);
+            if (recipe == null) {
+                continue;
+            }
+            for (RecipeFaqService.Question question : recipeFaqService.getMissingQuestions(recipeId, recipe.getVersion())) {
+                if (!isOffPeak()) {
+                    return stored;
+                }
+                String answer;
+                try {
+                    answer = aiService.getBackgroundAnswer(recipeId, question.getPrompt(), recipe.getBlock());
+                } catch (RejectedExecutionException | AiCircuitBreaker.CircuitOpenException e) {
+                    // Users need the quota, or Gemini is failing: stop and let the next run resume
+                    logger.debug("Recipe FAQ precompute paused: {}", e.getMessage());
+                    return stored;
+                }
+                recipeFaqService.saveAnswer(recipeId, recipe.getVersion(), question, answer);
+                computed.increment();
+                stored++;
+            }
+        }
+        return stored;
+    }
+
+    // The window may wrap around midnight (e.g. 23:00-05:00)
+    boolean isOffPeak() {
+        LocalTime now = clock.get();
+        if (offPeakStart.isBefore(offPeakEnd)) {
+            return !now.isBefore(offPeakStart) && now.isBefore(offPeakEnd);
+        }
+        return !now.isBefore(offPeakStart) || now.isBefore(offPeakEnd);
+    }
+
+    void setClock(Supplier<LocalTime> clock) {
+        this.clock = clock;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
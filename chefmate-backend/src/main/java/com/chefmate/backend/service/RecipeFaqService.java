@@ -0,0 +1,168 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.dto.RecipeFaqResponse;
+import com.chefmate.backend.entity.RecipeFaq;
+import com.chefmate.backend.repository.RecipeFaqRepository;
+import com.chefmate.backend.repository.RecipeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Precomputed answers to a fixed set of FAQ questions per recipe version.
+ *
+ * The answers are written by {@link RecipeFaqPrecomputeService}. They are served from
+ * GET /api/recipes/{id}/faq, and chat questions that match one of them are answered
+ * from here instead of Gemini. Answers are read once per recipe version and kept in memory.
+ */
+@Service
+public class RecipeFaqService {
+
+    public enum Question {
+        SUBSTITUTIONS("What ingredient substitutions work in this recipe?",
+                "Which ingredients in this recipe can be substituted, and with what? "
+                        + "Cover common allergies and pantry swaps. Keep it to a short list.",
+                AiQuickAnswerService.question(
+                        "(what|which) (ingredients )?can i (substitute|swap|replace)",
+                        "(what are )?(some |the |any )?(ingredient )?(substitutions|substitutes|swaps)( for (it|this|this recipe))?",
+                        "can i (substitute|swap|replace) (anything|any ingredients)")),
+        STORAGE("How do I store leftovers?",
+                "How should leftovers of this recipe be stored, and how long do they keep in the fridge? "
+                        + "Include how to reheat them if that applies.",
+                AiQuickAnswerService.question(
+                        "how (do|should) i store (it|this|the leftovers|leftovers)",
+                        "how long (does|will) (it|this) keep( in the fridge)?",
+                        "how long do (the )?leftovers (last|keep)",
+                        "(how to )?store (it|this|leftovers)")),
+        MAKE_AHEAD("Can I make this ahead of time?",
+                "Can this recipe be made ahead of time? Which parts can be prepared in advance, "
+                        + "and how far ahead?",
+                AiQuickAnswerService.question(
+                        "can i (make|prepare|prep) (it|this)( recipe)? (ahead|in advance|the day before)( of time)?",
+                        "(is|can) (it|this) (be )?(made|prepared) (ahead|in advance)( of time)?",
+                        "make ahead")),
+        FREEZING("Can I freeze it?",
+                "Can this dish be frozen? If so, how should it be frozen, how long does it keep, "
+                        + "and how should it be thawed?",
+                AiQuickAnswerService.question(
+                        "can i freeze (it|this|the leftovers|leftovers)",
+                        "(does|will) (it|this) freeze( well)?",
+                        "can (it|this) be frozen"));
+
+        private final String title;
+        private final String prompt;
+        private final Pattern pattern;
+
+        Question(String title, String prompt, Pattern pattern) {
+            this.title = title;
+            this.prompt = prompt;
+            this.pattern = pattern;
+        }
+
+        public String getTitle() { return title; }
+        public String getPrompt() { return prompt; }
+
+        static Question match(String message) {
+            String question = AiResponseCache.normalizeMessage(message);
+            for (Question candidate : values()) {
+                if (candidate.pattern.matcher(question).matches()) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final RecipeFaqRepository recipeFaqRepository;
+    private final RecipeRepository recipeRepository;
+    private final RecipeVersionCache<Map<Question, String>> faqs;
+
+    public RecipeFaqService(RecipeFaqRepository recipeFaqRepository, RecipeRepository recipeRepository,
+                            @Value("${app.ai.faq.cache-size:1000}") int maxCachedRecipes) {
+        this.recipeFaqRepository = recipeFaqRepository;
+        this.recipeRepository = recipeRepository;
+        this.faqs = new RecipeVersionCache<>(maxCachedRecipes);
+    }
+
+    /**
+     * @return the answers for the current version of the recipe, possibly none yet;
+     *         empty when the recipe does not exist
+     */
+    public Optional<List<RecipeFaqResponse>> getFaq(Long recipeId) {
+        Optional<LocalDateTime> version = recipeRepository.findUpdatedAtById(recipeId);
+        if (version.isEmpty()) {
+            return Optional.empty();
+        }
+        List<RecipeFaqResponse> faq = new ArrayList<>();
+        answersFor(recipeId, version.get()).forEach((question, answer) ->
+                faq.add(new RecipeFaqResponse(question.getTitle(), answer)));
+        return Optional.of(faq);
+    }
+
+    /**
+     * @return the precomputed answer when the chat question is one of the FAQ questions, else null
+     */
+    public String findAnswer(AiPromptService.RecipeFacts recipe, String message) {
+        if (recipe == null || recipe.getId() == null) {
+            return null;
+        }
+        Question question = Question.match(message);
+        if (question == null) {
+            return null;
+        }
+        return answersFor(recipe.getId(), recipe.getVersion()).get(question);
+    }
+
+    /**
+     * @return the questions that have no answer yet for this recipe version
+     */
+    public List<Question> getMissingQuestions(Long recipeId, LocalDateTime version) {
+        Map<Question, String> answers = answersFor(recipeId, version);
+        List<Question> missing = new ArrayList<>();
+        for (Question question : Question.values()) {
+            if (!answers.containsKey(question)) {
+                missing.add(question);
+            }
+        }
+        return missing;
+    }
+
+    @Transactional
+    public void saveAnswer(Long recipeId, LocalDateTime version, Question question, String answer) {
+        recipeFaqRepository.deleteOtherVersions(recipeId, version);
+        RecipeFaq faq = new RecipeFaq();
+        faq.setRecipe(recipeRepository.getReferenceById(recipeId));
+        faq.setRecipeVersion(version);
+        faq.setQuestion(question.name());
+        faq.setAnswer(answer);
+        recipeFaqRepository.save(faq);
+        faqs.remove(recipeId);
+    }
+
+    private Map<Question, String> answersFor(Long recipeId, LocalDateTime version) {
+        Map<Question, String> cached = faqs.get(recipeId, version);
+        if (cached != null) {
+            return cached;
+        }
+        Map<Question, String> answers = new EnumMap<>(Question.class);
+        for (RecipeFaq faq : recipeFaqRepository.findByRecipeIdAndRecipeVersion(recipeId, version)) {
+            try {
+                answers.put(Question.valueOf(faq.getQuestion()), faq.getAnswer());
+            } catch (IllegalArgumentException e) {
+                // A question that has since been dropped from the set
+            }
+        }
+        answers = Collections.unmodifiableMap(answers);
+        faqs.put(recipeId, version, answers);
+        return answers;
+    }
+}
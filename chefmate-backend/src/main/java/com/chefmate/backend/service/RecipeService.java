@@ -1,6 +1,7 @@
 package com.chefmate.backend.service;
 
 import com.chefmate.backend.dto.CommentResponse;
+import com.chefmate.backend.dto.RecipeEvent;
 import com.chefmate.backend.dto.RecipeRequest;
 import com.chefmate.backend.dto.RecipeResponse;
 import com.chefmate.backend.entity.Comment;
@@ -12,14 +13,18 @@ import com.chefmate.backend.repository.CommentRepository;
 import com.chefmate.backend.repository.RecipeLikeRepository;
 import com.chefmate.backend.repository.RecipeRepository;
 import com.chefmate.backend.repository.UserRepository;
+import com.chefmate.backend.utils.IngredientParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -34,17 +39,20 @@ public class RecipeService {
     private final RecipeLikeRepository recipeLikeRepository;
     private final CommentRepository commentRepository;
     private final CommentLikeRepository commentLikeRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public RecipeService(RecipeRepository recipeRepository,
                          UserRepository userRepository,
                          RecipeLikeRepository recipeLikeRepository,
                          CommentRepository commentRepository,
-                         CommentLikeRepository commentLikeRepository) {
+                         CommentLikeRepository commentLikeRepository,
+                         ApplicationEventPublisher eventPublisher) {
         this.recipeRepository = recipeRepository;
         this.userRepository = userRepository;
         this.recipeLikeRepository = recipeLikeRepository;
         this.commentRepository = commentRepository;
         this.commentLikeRepository = commentLikeRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -157,6 +165,10 @@ public class RecipeService {
                 .collect(Collectors.toList());
     }
 
+    public boolean recipeExists(Long id) {
+        return recipeRepository.existsById(id);
+    }
+
     public RecipeResponse getRecipeById(Long id, Long currentUserId) {
         Recipe recipe = recipeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Recipe not found with ID: " + id));
@@ -204,8 +216,8 @@ public class RecipeService {
             }
         }
         
-        recipe.setIngredients(request.getIngredients() != null ? request.getIngredients() : new ArrayList<>());
-        recipe.setSteps(request.getSteps() != null ? request.getSteps() : new ArrayList<>());
+        recipe.setIngredients(request.getIngredients() != null ? new ArrayList<>(request.getIngredients()) : new ArrayList<>());
+        recipe.setSteps(request.getSteps() != null ? new ArrayList<>(request.getSteps()) : new ArrayList<>());
         recipe.setUpdatedAt(LocalDateTime.now());
 
         Recipe updatedRecipe = recipeRepository.save(recipe);
@@ -241,18 +253,29 @@ public class RecipeService {
             }
         }
         
-        recipe.setIngredients(request.getIngredients() != null ? request.getIngredients() : new ArrayList<>());
-        recipe.setSteps(request.getSteps() != null ? request.getSteps() : new ArrayList<>());
+        recipe.setIngredients(request.getIngredients() != null ? new ArrayList<>(request.getIngredients()) : new ArrayList<>());
+        recipe.setSteps(request.getSteps() != null ? new ArrayList<>(request.getSteps()) : new ArrayList<>());
         
         // Update images
+        List<String> removedImageUrls = new ArrayList<>();
         if (imageUrls != null && !imageUrls.isEmpty()) {
-            recipe.setImageUrls(imageUrls);
+            if (recipe.getImageUrls() != null) {
+                for (String imageUrl : recipe.getImageUrls()) {
+                    if (!imageUrls.contains(imageUrl)) {
+                        removedImageUrls.add(imageUrl);
+                    }
+                }
+            }
+            recipe.setImageUrls(new ArrayList<>(imageUrls));
             recipe.setImageUrl(imageUrls.get(0)); // Set first image for backward compatibility
         }
         
         recipe.setUpdatedAt(LocalDateTime.now());
 
         Recipe updatedRecipe = recipeRepository.save(recipe);
+        for (String imageUrl : removedImageUrls) {
+            recipeRepository.removeImageVariants(id, imageUrl);
+        }
         return convertToResponse(updatedRecipe, userId);
     }
 
@@ -277,7 +300,16 @@ public class RecipeService {
     }
 
     public List<RecipeResponse> searchRecipes(String query, String difficulty, Integer maxTime, Long currentUserId) {
-        List<Recipe> recipes = recipeRepository.findAll();
+        return searchRecipes(query, difficulty, maxTime, null, currentUserId);
+    }
+
+    public List<RecipeResponse> searchRecipes(String query, String difficulty, Integer maxTime, String ingredient, Long currentUserId) {
+        // An ingredient narrows the candidates through the GIN index before the in-memory filters;
+        // "eggs" and "2 eggs" both look for the name "egg"
+        String ingredientName = ingredient != null ? IngredientParser.parse(ingredient).getNormalizedName() : "";
+        List<Recipe> recipes = !ingredientName.isEmpty()
+                ? recipeRepository.findByIngredient(ingredientName)
+                : recipeRepository.findAll();
         
         return recipes.stream()
                 .filter(recipe -> {
@@ -335,6 +367,8 @@ public class RecipeService {
         Integer currentLikes = recipe.getLikesCount() != null ? recipe.getLikesCount() : 0;
         recipe.setLikesCount(currentLikes + 1);
         recipeRepository.save(recipe);
+
+        eventPublisher.publishEvent(RecipeEvent.likeCountChanged(recipeId, null, recipe.getLikesCount()));
     }
 
     @Transactional
@@ -349,6 +383,8 @@ public class RecipeService {
                     Integer currentLikes = recipe.getLikesCount() != null ? recipe.getLikesCount() : 0;
                     recipe.setLikesCount(Math.max(0, currentLikes - 1));
                     recipeRepository.save(recipe);
+
+                    eventPublisher.publishEvent(RecipeEvent.likeCountChanged(recipeId, null, recipe.getLikesCount()));
                 });
     }
 
@@ -439,42 +475,19 @@ public class RecipeService {
         }
     }
 
-    private CommentResponse convertCommentToResponse(Comment comment, Long currentUserId) {
+    // A freshly inserted comment has no replies or likes, so there is nothing to look up
+    private CommentResponse convertNewCommentToResponse(Comment comment, Long parentCommentId) {
         CommentResponse response = new CommentResponse();
         response.setId(comment.getId());
         response.setContent(comment.getContent());
         response.setUserId(comment.getUser().getId());
         response.setUsername(comment.getUser().getUsername());
         response.setCreatedAt(comment.getCreatedAt());
-        
-        // Set parent comment ID if it's a reply
-        if (comment.getParentComment() != null) {
-            response.setParentCommentId(comment.getParentComment().getId());
-        }
-        
-        // Get replies
-        List<Comment> replies = commentRepository.findByParentCommentIdOrderByCreatedAtAsc(comment.getId());
-        List<CommentResponse> replyResponses = replies.stream()
-                .map(reply -> convertCommentToResponse(reply, currentUserId))
-                .collect(Collectors.toList());
-        response.setReplies(replyResponses);
-        
-        // Get likes count
-        int likesCount = commentLikeRepository.findByCommentId(comment.getId()).size();
-        response.setLikesCount(likesCount);
-        
-        // Check if current user liked this comment
-        if (currentUserId != null) {
-            boolean isLiked = commentLikeRepository.existsByCommentIdAndUserId(comment.getId(), currentUserId);
-            response.setIsLiked(isLiked);
-        } else {
-            response.setIsLiked(false);
-        }
-        
-        // Set user profile image URL
-        String profileImageUrl = comment.getUser().getProfileImageUrl();
-        response.setUserProfileImageUrl(profileImageUrl != null ? profileImageUrl : null);
-        
+        response.setParentCommentId(parentCommentId);
+        response.setReplies(new ArrayList<>());
+        response.setLikesCount(0);
+        response.setIsLiked(false);
+        response.setUserProfileImageUrl(comment.getUser().getProfileImageUrl());
         return response;
     }
     
@@ -581,38 +594,43 @@ public class RecipeService {
 
     @Transactional
     public CommentResponse addComment(Long recipeId, String content, Long userId, Long parentCommentId) {
-        Recipe recipe = recipeRepository.findById(recipeId)
-                .orElseThrow(() -> new RuntimeException("Recipe not found"));
-        
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // Reference proxies avoid a SELECT per association; a missing recipe, user or parent
+        // surfaces as a foreign key violation on insert instead
+        Recipe recipe = recipeRepository.getReferenceById(recipeId);
+        User user = userRepository.getReferenceById(userId);
 
         Comment comment = new Comment(content, recipe, user);
         
         // If it's a reply, set parent comment
         if (parentCommentId != null) {
-            Comment parentComment = commentRepository.findById(parentCommentId)
-                    .orElseThrow(() -> new RuntimeException("Parent comment not found"));
-            comment.setParentComment(parentComment);
+            comment.setParentComment(commentRepository.getReferenceById(parentCommentId));
             logger.debug("Creating reply to comment {} for recipe {}", parentCommentId, recipeId);
         } else {
             logger.debug("Creating top-level comment for recipe {}", recipeId);
         }
         
-        // Use saveAndFlush to ensure the comment is immediately persisted to the database
-        // This is important so that when we reload comments, the new reply is included
-        Comment savedComment = commentRepository.saveAndFlush(comment);
+        // Use saveAndFlush so the INSERT (and any constraint violation) happens inside this call
+        Comment savedComment;
+        try {
+            savedComment = commentRepository.saveAndFlush(comment);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException(parentCommentId != null
+                    ? "Recipe, user or parent comment not found"
+                    : "Recipe or user not found", e);
+        }
         logger.debug("Saved comment with ID {} {}", savedComment.getId(), 
                     parentCommentId != null ? "(reply to " + parentCommentId + ")" : "(top-level)");
-        return convertCommentToResponse(savedComment, userId);
+        CommentResponse response = convertNewCommentToResponse(savedComment, parentCommentId);
+
+        eventPublisher.publishEvent(RecipeEvent.commentAdded(recipeId, response));
+        return response;
     }
 
     @Transactional
     public CommentResponse replyToComment(Long commentId, String content, Long userId) {
-        Comment parentComment = commentRepository.findById(commentId)
+        Long recipeId = commentRepository.findRecipeIdByCommentId(commentId)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
         
-        Long recipeId = parentComment.getRecipe().getId();
         return addComment(recipeId, content, userId, commentId);
     }
 
@@ -630,12 +648,23 @@ public class RecipeService {
 
         com.chefmate.backend.entity.CommentLike like = new com.chefmate.backend.entity.CommentLike(comment, user);
         commentLikeRepository.save(like);
+
+        publishCommentLikeCount(comment);
     }
 
     @Transactional
     public void unlikeComment(Long commentId, Long userId) {
         commentLikeRepository.findByCommentIdAndUserId(commentId, userId)
-                .ifPresent(like -> commentLikeRepository.delete(like));
+                .ifPresent(like -> {
+                    commentLikeRepository.delete(like);
+                    publishCommentLikeCount(like.getComment());
+                });
+    }
+
+    private void publishCommentLikeCount(Comment comment) {
+        commentLikeRepository.flush();
+        int likesCount = (int) commentLikeRepository.countByCommentId(comment.getId());
+        eventPublisher.publishEvent(RecipeEvent.likeCountChanged(comment.getRecipe().getId(), comment.getId(), likesCount));
     }
 
     @Transactional
@@ -648,16 +677,20 @@ public class RecipeService {
             throw new RuntimeException("You are not authorized to delete this comment");
         }
 
+        Long recipeId = comment.getRecipe().getId();
         deleteCommentInternal(commentId, "user");
+        eventPublisher.publishEvent(RecipeEvent.commentDeleted(recipeId, commentId));
     }
 
     @Transactional
     public void deleteCommentAsAdmin(Long commentId) {
         // Admins can delete any comment regardless of owner
-        commentRepository.findById(commentId)
+        Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
 
+        Long recipeId = comment.getRecipe().getId();
         deleteCommentInternal(commentId, "admin");
+        eventPublisher.publishEvent(RecipeEvent.commentDeleted(recipeId, commentId));
     }
 
     private void deleteCommentInternal(Long commentId, String actor) {
@@ -720,6 +753,17 @@ public class RecipeService {
         } else {
             response.setImageUrls(new ArrayList<>());
         }
+        // Variants of images that were since removed from the recipe are left out
+        Map<String, Map<String, String>> imageVariants = new LinkedHashMap<>();
+        if (recipe.getImageVariants() != null) {
+            for (String imageUrl : response.getImageUrls()) {
+                Map<String, String> variants = recipe.getImageVariants().get(imageUrl);
+                if (variants != null) {
+                    imageVariants.put(imageUrl, variants);
+                }
+            }
+        }
+        response.setImageVariants(imageVariants);
         response.setIngredients(recipe.getIngredients());
         response.setSteps(recipe.getSteps());
         response.setUserId(recipe.getUser().getId());
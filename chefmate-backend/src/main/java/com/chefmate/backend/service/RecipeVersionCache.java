@@ -0,0 +1,59 @@
+package com.chefmate.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Values derived from a recipe, each kept for the recipe version it was built from.
+ *
+ * Holds at most maxRecipes recipes. Eviction is cheap and bounded rather than LRU; an
+ * evicted recipe is simply built again the next time it is asked for.
+ */
+public final class RecipeVersionCache<V> {
+
+    private final Map<Long, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxRecipes;
+
+    public RecipeVersionCache(int maxRecipes) {
+        this.maxRecipes = maxRecipes;
+    }
+
+    /**
+     * @return the value cached for exactly this version of the recipe, else null
+     */
+    public V get(Long recipeId, LocalDateTime version) {
+        Entry<V> entry = entries.get(recipeId);
+        return entry != null && Objects.equals(entry.version, version) ? entry.value : null;
+    }
+
+    public void put(Long recipeId, LocalDateTime version, V value) {
+        if (entries.size() >= maxRecipes && !entries.containsKey(recipeId)) {
+            Iterator<Long> keys = entries.keySet().iterator();
+            if (keys.hasNext()) {
+                entries.remove(keys.next());
+            }
+        }
+        entries.put(recipeId, new Entry<>(version, value));
+    }
+
+    public void remove(Long recipeId) {
+        entries.remove(recipeId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry<V> {
+        private final LocalDateTime version;
+        private final V value;
+
+        private Entry(LocalDateTime version, V value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.chefmate.backend.service;
 
+import com.chefmate.backend.dto.ShoppingListChangesResponse;
+import com.chefmate.backend.dto.ShoppingListItemOperation;
 import com.chefmate.backend.dto.ShoppingListItemResponse;
 import com.chefmate.backend.dto.ShoppingListRequest;
 import com.chefmate.backend.dto.ShoppingListResponse;
 import com.chefmate.backend.entity.Recipe;
 import com.chefmate.backend.entity.ShoppingList;
 import com.chefmate.backend.entity.ShoppingListItem;
+import com.chefmate.backend.entity.ShoppingListMutation;
 import com.chefmate.backend.entity.User;
+import com.chefmate.backend.utils.ParsedIngredient;
 import com.chefmate.backend.repository.RecipeRepository;
+import com.chefmate.backend.repository.ShoppingListItemBatchRepository;
 import com.chefmate.backend.repository.ShoppingListItemRepository;
+import com.chefmate.backend.repository.ShoppingListItemTombstoneRepository;
+import com.chefmate.backend.repository.ShoppingListMutationRepository;
 import com.chefmate.backend.repository.ShoppingListRepository;
 import com.chefmate.backend.repository.UserRepository;
 import org.springframework.stereotype.Service;
@@ -16,7 +23,14 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,17 +40,29 @@ public class ShoppingListService {
     private final UserRepository userRepository;
     private final ShoppingListItemRepository shoppingListItemRepository;
     private final RecipeRepository recipeRepository;
+    private final IngredientAggregationService ingredientAggregationService;
+    private final ShoppingListItemBatchRepository shoppingListItemBatchRepository;
+    private final ShoppingListItemTombstoneRepository shoppingListItemTombstoneRepository;
+    private final ShoppingListMutationRepository shoppingListMutationRepository;
 
     public ShoppingListService(
             ShoppingListRepository shoppingListRepository,
             UserRepository userRepository,
             ShoppingListItemRepository shoppingListItemRepository,
-            RecipeRepository recipeRepository
+            RecipeRepository recipeRepository,
+            IngredientAggregationService ingredientAggregationService,
+            ShoppingListItemBatchRepository shoppingListItemBatchRepository,
+            ShoppingListItemTombstoneRepository shoppingListItemTombstoneRepository,
+            ShoppingListMutationRepository shoppingListMutationRepository
     ) {
         this.shoppingListRepository = shoppingListRepository;
         this.userRepository = userRepository;
         this.shoppingListItemRepository = shoppingListItemRepository;
         this.recipeRepository = recipeRepository;
+        this.ingredientAggregationService = ingredientAggregationService;
+        this.shoppingListItemBatchRepository = shoppingListItemBatchRepository;
+        this.shoppingListItemTombstoneRepository = shoppingListItemTombstoneRepository;
+        this.shoppingListMutationRepository = shoppingListMutationRepository;
     }
 
     @Transactional
@@ -59,6 +85,7 @@ public class ShoppingListService {
             response.setUsername(savedList.getUser().getUsername());
             response.setCreatedAt(savedList.getCreatedAt());
             response.setCompleted(savedList.getCompleted());
+            response.setVersion(savedList.getVersion());
             response.setItems(new ArrayList<>());
 
             return response;
@@ -69,49 +96,71 @@ public class ShoppingListService {
 
     @Transactional
     public ShoppingListResponse createFromRecipe(Long recipeId, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
         Recipe recipe = recipeRepository.findById(recipeId)
                 .orElseThrow(() -> new RuntimeException("Recipe not found"));
 
-        // Find existing active (not completed) shopping list for the user
-        // Use the same method as getMyShoppingList to ensure consistency
-        List<ShoppingList> activeLists = shoppingListRepository.findByUserIdAndCompletedOrderByCreatedAtDesc(userId, false);
-        ShoppingList shoppingList;
-        
-        if (activeLists.isEmpty()) {
-            // Create new shopping list if none exists
-            shoppingList = new ShoppingList();
-            shoppingList.setName("My Shopping List");
-            shoppingList.setUser(user);
-            shoppingList.setCreatedAt(LocalDateTime.now());
-            shoppingList.setCompleted(false);
-            shoppingList = shoppingListRepository.save(shoppingList);
-        } else {
-            // Use the most recent active list (first in sorted list)
-            shoppingList = activeLists.get(0);
-        }
+        ShoppingList shoppingList = findOrCreateActiveList(userId);
+        List<ShoppingListItem> items = new ArrayList<>(shoppingListItemRepository.findByShoppingListId(shoppingList.getId()));
 
-        // Add ingredients to the shopping list
-        List<ShoppingListItem> items = new ArrayList<>();
-        if (recipe.getIngredients() != null) {
-            for (String ingredient : recipe.getIngredients()) {
-                ShoppingListItem item = new ShoppingListItem();
-                item.setName(ingredient);
-                item.setQuantity("");
-                item.setUnit("");
-                item.setPurchased(false);
-                item.setShoppingList(shoppingList);
-                item.setRecipe(null); // Don't store recipe reference
-                items.add(item);
+        // Merge ingredients into existing rows ("2 eggs" + "3 eggs" = "5 eggs") instead of duplicating them
+        List<ShoppingListItem> changedItems = ingredientAggregationService.mergeIntoList(
+                shoppingList, items, ingredientAggregationService.parseRecipeIngredients(recipe));
+        stampVersion(shoppingList, changedItems);
+        shoppingListItemRepository.saveAll(changedItems);
+
+        return convertToResponse(shoppingList, items);
+    }
+
+    /**
+     * Adds the ingredients of several recipes (e.g. a week's meal plan) to the user's active list.
+     *
+     * Cost does not grow with the number of recipes: one query loads every recipe (ingredients
+     * live on the recipe row), the merge happens in memory, and the changed rows are written
+     * as JDBC batches.
+     */
+    @Transactional
+    public ShoppingListResponse createFromRecipes(List<Long> recipeIds, Long userId) {
+        Map<Long, Recipe> recipesById = recipeRepository.findAllById(new LinkedHashSet<>(recipeIds)).stream()
+                .collect(Collectors.toMap(Recipe::getId, Function.identity()));
+
+        List<ParsedIngredient> ingredients = new ArrayList<>();
+        for (Long recipeId : recipeIds) {
+            Recipe recipe = recipesById.get(recipeId);
+            if (recipe == null) {
+                throw new RuntimeException("Recipe not found: " + recipeId);
             }
+            ingredients.addAll(ingredientAggregationService.parseRecipeIngredients(recipe));
         }
-        shoppingListItemRepository.saveAll(items);
 
-        return convertToResponse(shoppingList);
+        ShoppingList shoppingList = findOrCreateActiveList(userId);
+        // Loaded read-only so Hibernate does not flush the merged rows a second time
+        List<ShoppingListItem> items = new ArrayList<>(shoppingListItemRepository.findReadOnlyByShoppingListId(shoppingList.getId()));
+
+        List<ShoppingListItem> changedItems = ingredientAggregationService.mergeIntoList(shoppingList, items, ingredients);
+        stampVersion(shoppingList, changedItems);
+        saveReadOnlyItems(changedItems);
+
+        return convertToResponse(shoppingList, items);
     }
 
+    // Most recent active (not completed) list, the same one getMyShoppingList returns, created if missing
+    private ShoppingList findOrCreateActiveList(Long userId) {
+        List<ShoppingList> activeLists = shoppingListRepository.findByUserIdAndCompletedOrderByCreatedAtDesc(userId, false);
+        if (!activeLists.isEmpty()) {
+            return activeLists.get(0);
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        ShoppingList shoppingList = new ShoppingList();
+        shoppingList.setName("My Shopping List");
+        shoppingList.setUser(user);
+        shoppingList.setCreatedAt(LocalDateTime.now());
+        shoppingList.setCompleted(false);
+        return shoppingListRepository.save(shoppingList);
+    }
+
+    @Transactional
     public ShoppingListResponse getMyShoppingList(Long userId) {
         List<ShoppingList> activeLists = shoppingListRepository.findByUserIdAndCompletedOrderByCreatedAtDesc(userId, false);
         
@@ -130,13 +179,26 @@ public class ShoppingListService {
         return convertToResponse(activeLists.get(0));
     }
 
+    @Transactional(readOnly = true)
     public List<ShoppingListResponse> getUserShoppingLists(Long userId) {
-        List<ShoppingList> lists = shoppingListRepository.findByUserId(userId);
+        // Two queries regardless of list count: the lists (with their owner), then all of their items
+        List<ShoppingList> lists = shoppingListRepository.findByUserIdWithUserOrderByCreatedAtDesc(userId);
+        if (lists.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> listIds = lists.stream()
+                .map(ShoppingList::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ShoppingListItem>> itemsByList = shoppingListItemRepository.findByShoppingListIds(listIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getShoppingList().getId()));
+
         return lists.stream()
-                .map(this::convertToResponse)
+                .map(list -> convertToResponse(list, itemsByList.getOrDefault(list.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public ShoppingListResponse getShoppingListById(Long listId, Long userId) {
         ShoppingList shoppingList = shoppingListRepository.findById(listId)
                 .orElseThrow(() -> new RuntimeException("Shopping list not found"));
@@ -159,6 +221,7 @@ public class ShoppingListService {
 
         shoppingList.setName(request.getName());
         ShoppingList updatedList = shoppingListRepository.save(shoppingList);
+        stampVersion(updatedList, List.of());
 
         return convertToResponse(updatedList);
     }
@@ -187,6 +250,7 @@ public class ShoppingListService {
 
         shoppingList.setCompleted(completed);
         ShoppingList updatedList = shoppingListRepository.save(shoppingList);
+        stampVersion(updatedList, List.of());
 
         return convertToResponse(updatedList);
     }
@@ -207,6 +271,7 @@ public class ShoppingListService {
         if (itemUpdate.getQuantity() != null) item.setQuantity(itemUpdate.getQuantity());
         if (itemUpdate.getUnit() != null) item.setUnit(itemUpdate.getUnit());
         if (itemUpdate.getPurchased() != null) item.setPurchased(itemUpdate.getPurchased());
+        stampVersion(shoppingList, List.of(item));
 
         ShoppingListItem updatedItem = shoppingListItemRepository.save(item);
         return convertItemToResponse(updatedItem);
@@ -228,11 +293,155 @@ public class ShoppingListService {
         item.setPurchased(false);
         item.setShoppingList(shoppingList);
         item.setRecipe(null); // Don't store recipe reference for manually added items
+        stampVersion(shoppingList, List.of(item));
 
         ShoppingListItem savedItem = shoppingListItemRepository.save(item);
         return convertItemToResponse(savedItem);
     }
 
+    /**
+     * Applies a batch of item operations in one transaction, e.g. everything ticked off
+     * while offline in the store. Ownership is checked once and all writes go out as
+     * JDBC batches; an invalid operation rolls back the whole request.
+     */
+    @Transactional
+    public ShoppingListResponse applyItemOperations(Long listId, List<ShoppingListItemOperation> operations, Long userId) {
+        ShoppingList shoppingList = shoppingListRepository.findById(listId)
+                .orElseThrow(() -> new RuntimeException("Shopping list not found"));
+
+        if (!shoppingList.getUser().getId().equals(userId)) {
+            throw new RuntimeException("Not authorized to modify this list");
+        }
+        operations.forEach(ShoppingListService::validateOperation);
+
+        // Taking the new version first locks the list row, so concurrent batches for the same
+        // list apply one after another and a replayed batch sees the mutations recorded by the first
+        long version = nextVersion(shoppingList);
+        Set<String> appliedMutationIds = findAppliedMutationIds(listId, operations);
+
+        // Read-only: the changes below are written by the batch repository, not flushed by Hibernate
+        Map<Long, ShoppingListItem> itemsById = new LinkedHashMap<>();
+        for (ShoppingListItem item : shoppingListItemRepository.findReadOnlyByShoppingListId(listId)) {
+            itemsById.put(item.getId(), item);
+        }
+
+        List<ShoppingListItem> added = new ArrayList<>();
+        Set<ShoppingListItem> changed = new LinkedHashSet<>();
+        List<Long> deletedIds = new ArrayList<>();
+        List<ShoppingListMutation> mutations = new ArrayList<>();
+
+        for (ShoppingListItemOperation operation : operations) {
+            String mutationId = operation.getMutationId();
+            if (mutationId != null && !appliedMutationIds.add(mutationId)) {
+                continue; // Already applied by an earlier attempt of this batch
+            }
+            if (mutationId != null) {
+                mutations.add(new ShoppingListMutation(shoppingList, mutationId, version));
+            }
+
+            String op = operation.getOp().toLowerCase();
+            if (ShoppingListItemOperation.ADD.equals(op)) {
+                ShoppingListItem item = new ShoppingListItem();
+                item.setName(operation.getName());
+                item.setQuantity(operation.getQuantity() != null ? operation.getQuantity() : "");
+                item.setUnit(operation.getUnit() != null ? operation.getUnit() : "");
+                item.setPurchased(Boolean.TRUE.equals(operation.getPurchased()));
+                item.setShoppingList(shoppingList);
+                item.setRecipe(null);
+                added.add(item);
+                continue;
+            }
+
+            ShoppingListItem item = itemsById.get(operation.getItemId());
+            if (item == null) {
+                // Deleted here or on another device while this client was offline: nothing left to change
+                if (ShoppingListItemOperation.DELETE.equals(op)
+                        || shoppingListItemTombstoneRepository.existsByShoppingListIdAndItemId(listId, operation.getItemId())) {
+                    continue;
+                }
+                throw new RuntimeException("Item not found");
+            }
+            switch (op) {
+                case ShoppingListItemOperation.UPDATE -> {
+                    if (operation.getName() != null) item.setName(operation.getName());
+                    if (operation.getQuantity() != null) item.setQuantity(operation.getQuantity());
+                    if (operation.getUnit() != null) item.setUnit(operation.getUnit());
+                    if (operation.getPurchased() != null) item.setPurchased(operation.getPurchased());
+                    changed.add(item);
+                }
+                case ShoppingListItemOperation.PURCHASED -> {
+                    item.setPurchased(operation.getPurchased() == null || operation.getPurchased());
+                    changed.add(item);
+                }
+                case ShoppingListItemOperation.DELETE -> {
+                    itemsById.remove(item.getId());
+                    changed.remove(item);
+                    deletedIds.add(item.getId());
+                }
+                default -> throw new IllegalStateException("Unknown operation: " + op);
+            }
+        }
+
+        List<ShoppingListItem> toSave = new ArrayList<>(changed);
+        toSave.addAll(added);
+        toSave.forEach(item -> item.setVersion(version));
+        shoppingListItemBatchRepository.deleteAllById(listId, deletedIds, version);
+        saveReadOnlyItems(toSave);
+        if (!mutations.isEmpty()) {
+            shoppingListMutationRepository.saveAll(mutations);
+        }
+
+        List<ShoppingListItem> items = new ArrayList<>(itemsById.values());
+        items.addAll(added);
+        return convertToResponse(shoppingList, items);
+    }
+
+    // Malformed operations are rejected before any item is looked up, so they are a bad request
+    // rather than "Item not found"
+    private static void validateOperation(ShoppingListItemOperation operation) {
+        String op = operation.getOp() != null ? operation.getOp().toLowerCase() : "";
+        switch (op) {
+            case ShoppingListItemOperation.ADD -> {
+                if (operation.getName() == null || operation.getName().isBlank()) {
+                    throw new IllegalArgumentException("Item name is required");
+                }
+            }
+            case ShoppingListItemOperation.UPDATE, ShoppingListItemOperation.PURCHASED, ShoppingListItemOperation.DELETE -> {
+                if (operation.getItemId() == null) {
+                    throw new IllegalArgumentException("Item id is required");
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown operation: " + operation.getOp());
+        }
+    }
+
+    /**
+     * Items changed and deleted after version {@code since}, for clients that already hold
+     * an earlier copy of the list. {@code since = 0} returns every item with a version.
+     */
+    @Transactional(readOnly = true)
+    public ShoppingListChangesResponse getChanges(Long listId, Long since, Long userId) {
+        ShoppingList shoppingList = shoppingListRepository.findById(listId)
+                .orElseThrow(() -> new RuntimeException("Shopping list not found"));
+
+        if (!shoppingList.getUser().getId().equals(userId)) {
+            throw new RuntimeException("Not authorized to access this shopping list");
+        }
+
+        // The version is read before the changes: a writer committing in between is then
+        // reported again on the next poll rather than skipped
+        ShoppingListChangesResponse response = new ShoppingListChangesResponse();
+        response.setId(shoppingList.getId());
+        response.setName(shoppingList.getName());
+        response.setCompleted(shoppingList.getCompleted());
+        response.setVersion(shoppingList.getVersion() != null ? shoppingList.getVersion() : 0L);
+        response.setItems(shoppingListItemRepository.findChangedSince(listId, since).stream()
+                .map(this::convertItemToResponse)
+                .collect(Collectors.toList()));
+        response.setDeletedItemIds(shoppingListItemTombstoneRepository.findItemIdsDeletedSince(listId, since));
+        return response;
+    }
+
     @Transactional
     public void deleteShoppingListItem(Long listId, Long itemId, Long userId) {
         ShoppingList shoppingList = shoppingListRepository.findById(listId)
@@ -242,21 +451,67 @@ public class ShoppingListService {
             throw new RuntimeException("Not authorized to modify this list");
         }
 
+        // Ownership of the list says nothing about the item: it has to be on this list too
         ShoppingListItem item = shoppingListItemRepository.findById(itemId)
-                .orElseThrow(() -> new RuntimeException("Item not found"));
+                .filter(found -> found.getShoppingList().getId().equals(shoppingList.getId()))
+                .orElseThrow(() -> new NoSuchElementException("Item not found"));
+
+        // Deleted through the batch repository so that a tombstone is left for syncing clients
+        long version = stampVersion(shoppingList, List.of());
+        shoppingListItemBatchRepository.deleteAllById(shoppingList.getId(), List.of(item.getId()), version);
+    }
+
+    private long nextVersion(ShoppingList shoppingList) {
+        Long version = shoppingListItemBatchRepository.nextListVersion(shoppingList.getId());
+        long next = version != null ? version : 0L;
+        shoppingList.setVersion(next);
+        return next;
+    }
 
-        shoppingListItemRepository.delete(item);
+    // Moves the list to a new version and records it on the items about to be written
+    private long stampVersion(ShoppingList shoppingList, List<ShoppingListItem> items) {
+        long version = nextVersion(shoppingList);
+        items.forEach(item -> item.setVersion(version));
+        return version;
+    }
+
+    // For items loaded with findReadOnlyByShoppingListId: new rows are persisted through Hibernate,
+    // which batches the inserts, and changed rows go out as one JDBC update batch
+    private void saveReadOnlyItems(List<ShoppingListItem> items) {
+        List<ShoppingListItem> inserts = new ArrayList<>();
+        List<ShoppingListItem> updates = new ArrayList<>();
+        for (ShoppingListItem item : items) {
+            (item.getId() == null ? inserts : updates).add(item);
+        }
+        if (!inserts.isEmpty()) {
+            shoppingListItemRepository.saveAll(inserts);
+        }
+        shoppingListItemBatchRepository.updateAll(updates);
+    }
+
+    private Set<String> findAppliedMutationIds(Long listId, List<ShoppingListItemOperation> operations) {
+        List<String> mutationIds = operations.stream()
+                .map(ShoppingListItemOperation::getMutationId)
+                .filter(id -> id != null)
+                .collect(Collectors.toList());
+        if (mutationIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(shoppingListMutationRepository.findAppliedMutationIds(listId, mutationIds));
     }
 
     private ShoppingListResponse convertToResponse(ShoppingList shoppingList) {
+        return convertToResponse(shoppingList, shoppingListItemRepository.findByShoppingListId(shoppingList.getId()));
+    }
+
+    private ShoppingListResponse convertToResponse(ShoppingList shoppingList, List<ShoppingListItem> items) {
         ShoppingListResponse response = new ShoppingListResponse();
         response.setId(shoppingList.getId());
         response.setName(shoppingList.getName());
         response.setUsername(shoppingList.getUser().getUsername());
         response.setCreatedAt(shoppingList.getCreatedAt());
         response.setCompleted(shoppingList.getCompleted());
-
-        List<ShoppingListItem> items = shoppingListItemRepository.findByShoppingListId(shoppingList.getId());
+        response.setVersion(shoppingList.getVersion());
         response.setItems(items.stream()
                 .map(this::convertItemToResponse)
                 .collect(Collectors.toList()));
@@ -271,6 +526,7 @@ public class ShoppingListService {
         response.setQuantity(item.getQuantity());
         response.setUnit(item.getUnit());
         response.setPurchased(item.getPurchased());
+        response.setVersion(item.getVersion());
         
         // Don't include recipe information in response
         response.setRecipeId(null);
@@ -0,0 +1,398 @@
+package com.chefmate.backend.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Splits ingredient lines such as "1 1/2 cups of flour" or "200g butter, softened"
+ * into quantity, unit and name.
+ *
+ * The parser is a single hand-written left-to-right scan with no regular
+ * expressions, so it allocates little more than the resulting strings.
+ */
+public final class IngredientParser {
+
+    private static final Map<String, UnitAlias> UNIT_ALIASES = new HashMap<>();
+    private static final int MAX_UNIT_LENGTH = 12;
+
+    static {
+        // Metric units are folded into their base unit so that "500 g" and "1 kg" can be summed
+        register("g", 1, "g", "gr", "gram", "grams", "gramme", "grammes");
+        register("g", 1000, "kg", "kgs", "kilo", "kilos", "kilogram", "kilograms");
+        register("g", 0.001, "mg", "milligram", "milligrams");
+        register("ml", 1, "ml", "millilitre", "millilitres", "milliliter", "milliliters");
+        register("ml", 10, "cl", "centilitre", "centilitres", "centiliter", "centiliters");
+        register("ml", 100, "dl", "decilitre", "decilitres", "deciliter", "deciliters");
+        register("ml", 1000, "l", "litre", "litres", "liter", "liters");
+        register("tsp", 1, "tsp", "tsps", "teaspoon", "teaspoons");
+        register("tbsp", 1, "tbsp", "tbsps", "tbs", "tablespoon", "tablespoons", "tbl");
+        register("cup", 1, "cup", "cups");
+        register("oz", 1, "oz", "ounce", "ounces");
+        register("lb", 1, "lb", "lbs", "pound", "pounds");
+        register("pinch", 1, "pinch", "pinches");
+        register("clove", 1, "clove", "cloves");
+        register("can", 1, "can", "cans", "tin", "tins");
+        register("slice", 1, "slice", "slices");
+        register("bunch", 1, "bunch", "bunches");
+        register("pack", 1, "pack", "packs", "package", "packages", "packet", "packets");
+        register("piece", 1, "piece", "pieces", "pc", "pcs");
+    }
+
+    private IngredientParser() {}
+
+    private static void register(String canonical, double factor, String... aliases) {
+        UnitAlias alias = new UnitAlias(canonical, factor);
+        for (String name : aliases) {
+            UNIT_ALIASES.put(name, alias);
+        }
+    }
+
+    public static ParsedIngredient parse(String raw) {
+        if (raw == null) {
+            return new ParsedIngredient(Double.NaN, "", "", "");
+        }
+
+        String text = raw.strip();
+        Scanner scanner = new Scanner(text);
+        double quantity = readQuantity(scanner);
+        String unit = "";
+
+        if (!Double.isNaN(quantity)) {
+            int beforeUnit = scanner.pos;
+            scanner.skipSpaces();
+            UnitAlias alias = readUnit(scanner);
+            if (alias != null) {
+                unit = alias.canonical;
+                quantity *= alias.factor;
+            } else {
+                scanner.pos = beforeUnit;
+            }
+            scanner.skipSpaces();
+            scanner.skipWord("of");
+        }
+
+        String name = text.substring(scanner.pos).strip();
+        if (name.isEmpty()) {
+            // Nothing after the quantity ("3 cloves"): the whole line is the name
+            return new ParsedIngredient(Double.NaN, "", text, normalizeName(text));
+        }
+        return new ParsedIngredient(quantity, unit, name, normalizeName(name));
+    }
+
+    /**
+     * Parses a stored quantity string ("1.5", "1/2", "2-3").
+     *
+     * @return the amount, or NaN when the text is not a plain quantity
+     */
+    public static double parseQuantity(String text) {
+        if (text == null) {
+            return Double.NaN;
+        }
+        String trimmed = text.strip();
+        Scanner scanner = new Scanner(trimmed);
+        double quantity = readQuantity(scanner);
+        scanner.skipSpaces();
+        return scanner.pos == trimmed.length() ? quantity : Double.NaN;
+    }
+
+    /**
+     * @return the canonical unit for a stored unit string, or the lower-cased input if unknown
+     */
+    public static String normalizeUnit(String unit) {
+        if (unit == null || unit.isBlank()) {
+            return "";
+        }
+        String key = unit.strip().toLowerCase(Locale.ROOT);
+        if (key.endsWith(".")) {
+            key = key.substring(0, key.length() - 1);
+        }
+        UnitAlias alias = UNIT_ALIASES.get(key);
+        return alias != null ? alias.canonical : key;
+    }
+
+    /**
+     * @return the factor converting the given stored unit into its canonical unit
+     */
+    public static double unitFactor(String unit) {
+        if (unit == null || unit.isBlank()) {
+            return 1;
+        }
+        String key = unit.strip().toLowerCase(Locale.ROOT);
+        if (key.endsWith(".")) {
+            key = key.substring(0, key.length() - 1);
+        }
+        UnitAlias alias = UNIT_ALIASES.get(key);
+        return alias != null ? alias.factor : 1;
+    }
+
+    public static String formatQuantity(double quantity) {
+        if (Double.isNaN(quantity)) {
+            return "";
+        }
+        if (quantity == Math.rint(quantity) && Math.abs(quantity) < 1e15) {
+            return Long.toString((long) quantity);
+        }
+        return BigDecimal.valueOf(quantity)
+                .setScale(2, RoundingMode.HALF_UP)
+                .stripTrailingZeros()
+                .toPlainString();
+    }
+
+    /**
+     * Lower-cases the name, drops trailing preparation notes ("eggs, beaten") and
+     * punctuation, collapses whitespace and singularizes the last word.
+     */
+    public static String normalizeName(String name) {
+        int end = name.length();
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == ',' || c == '(' || c == ';') {
+                end = i;
+                break;
+            }
+        }
+
+        StringBuilder normalized = new StringBuilder(end);
+        boolean pendingSpace = false;
+        for (int i = 0; i < end; i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(Character.toLowerCase(c));
+            } else if (Character.isWhitespace(c) || c == '-') {
+                pendingSpace = true;
+            }
+        }
+        singularizeLastWord(normalized);
+        return normalized.toString();
+    }
+
+    private static void singularizeLastWord(StringBuilder word) {
+        int len = word.length();
+        if (len < 4) {
+            return;
+        }
+        if (endsWith(word, "ies")) {
+            word.setLength(len - 3);
+            word.append('y');
+        } else if (endsWith(word, "oes") || endsWith(word, "ches") || endsWith(word, "shes")
+                || endsWith(word, "sses") || endsWith(word, "xes")) {
+            word.setLength(len - 2);
+        } else if (word.charAt(len - 1) == 's' && word.charAt(len - 2) != 's'
+                && word.charAt(len - 2) != 'u' && word.charAt(len - 2) != 'i') {
+            word.setLength(len - 1);
+        }
+    }
+
+    private static boolean endsWith(StringBuilder sb, String suffix) {
+        int offset = sb.length() - suffix.length();
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (sb.charAt(offset + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double readQuantity(Scanner scanner) {
+        if (!scanner.readNumber()) {
+            return Double.NaN;
+        }
+        double quantity = scanner.value;
+
+        // Mixed number: "1 1/2" or "1 ½"
+        int save = scanner.pos;
+        scanner.skipSpaces();
+        if (scanner.pos > save && quantity == Math.rint(quantity) && scanner.readNumber() && scanner.lastWasFraction) {
+            quantity += scanner.value;
+        } else {
+            scanner.pos = save;
+        }
+
+        // Range: "2-3", "2 - 3", "2 to 3". Shopping needs the upper bound
+        save = scanner.pos;
+        scanner.skipSpaces();
+        if (scanner.skipChar('-') || scanner.skipChar('–') || scanner.skipWord("to")) {
+            scanner.skipSpaces();
+            if (scanner.readNumber()) {
+                quantity = Math.max(quantity, scanner.value);
+                return quantity;
+            }
+        }
+        scanner.pos = save;
+        return quantity;
+    }
+
+    private static UnitAlias readUnit(Scanner scanner) {
+        String text = scanner.text;
+        int start = scanner.pos;
+        int end = start;
+        while (end < text.length() && Character.isLetter(text.charAt(end)) && end - start <= MAX_UNIT_LENGTH) {
+            end++;
+        }
+        if (end == start || end - start > MAX_UNIT_LENGTH) {
+            return null;
+        }
+
+        // The unit must be a whole word: "200 grapes" is not grams
+        int next = end;
+        if (next < text.length() && text.charAt(next) == '.') {
+            next++;
+        }
+        if (next < text.length() && !Character.isWhitespace(text.charAt(next)) && text.charAt(next) != ',') {
+            return null;
+        }
+
+        UnitAlias alias = UNIT_ALIASES.get(text.substring(start, end).toLowerCase(Locale.ROOT));
+        if (alias == null) {
+            return null;
+        }
+        // A one-letter alias ("g", "l") followed by nothing else is more likely the name
+        if (end - start == 1 && next >= text.length()) {
+            return null;
+        }
+        scanner.pos = next;
+        return alias;
+    }
+
+    private static double unicodeFraction(char c) {
+        switch (c) {
+            case '½': return 0.5;
+            case '¼': return 0.25;
+            case '¾': return 0.75;
+            case '⅓': return 1.0 / 3;
+            case '⅔': return 2.0 / 3;
+            case '⅛': return 0.125;
+            case '⅜': return 0.375;
+            case '⅝': return 0.625;
+            case '⅞': return 0.875;
+            case '⅕': return 0.2;
+            default: return Double.NaN;
+        }
+    }
+
+    private static final class UnitAlias {
+        private final String canonical;
+        private final double factor;
+
+        private UnitAlias(String canonical, double factor) {
+            this.canonical = canonical;
+            this.factor = factor;
+        }
+    }
+
+    private static final class Scanner {
+        private final String text;
+        private int pos;
+        private double value;
+        private boolean lastWasFraction;
+
+        private Scanner(String text) {
+            this.text = text;
+        }
+
+        private void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private boolean skipChar(char c) {
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean skipWord(String word) {
+            int end = pos + word.length();
+            if (end < text.length() && text.regionMatches(true, pos, word, 0, word.length())
+                    && Character.isWhitespace(text.charAt(end))) {
+                pos = end + 1;
+                skipSpaces();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Reads "2", "1.5", "1,5", "1/2", "½" or "1½" at the current position.
+         */
+        private boolean readNumber() {
+            int start = pos;
+            lastWasFraction = false;
+
+            if (pos < text.length()) {
+                double fraction = unicodeFraction(text.charAt(pos));
+                if (!Double.isNaN(fraction)) {
+                    pos++;
+                    value = fraction;
+                    lastWasFraction = true;
+                    return true;
+                }
+            }
+
+            long whole = 0;
+            int digits = 0;
+            while (pos < text.length() && isAsciiDigit(text.charAt(pos))) {
+                whole = whole * 10 + (text.charAt(pos) - '0');
+                pos++;
+                digits++;
+            }
+            if (digits == 0 || digits > 9) {
+                pos = start;
+                return false;
+            }
+            double result = whole;
+
+            if (pos + 1 < text.length() && (text.charAt(pos) == '.' || text.charAt(pos) == ',')
+                    && isAsciiDigit(text.charAt(pos + 1))) {
+                pos++;
+                double scale = 0.1;
+                while (pos < text.length() && isAsciiDigit(text.charAt(pos))) {
+                    result += (text.charAt(pos) - '0') * scale;
+                    scale /= 10;
+                    pos++;
+                }
+            } else if (pos + 1 < text.length() && text.charAt(pos) == '/' && isAsciiDigit(text.charAt(pos + 1))) {
+                pos++;
+                long denominator = 0;
+                int denominatorDigits = 0;
+                while (pos < text.length() && isAsciiDigit(text.charAt(pos)) && denominatorDigits < 9) {
+                    denominator = denominator * 10 + (text.charAt(pos) - '0');
+                    pos++;
+                    denominatorDigits++;
+                }
+                if (denominator == 0) {
+                    pos = start;
+                    return false;
+                }
+                result = (double) whole / denominator;
+                lastWasFraction = true;
+            } else if (pos < text.length()) {
+                double fraction = unicodeFraction(text.charAt(pos));
+                if (!Double.isNaN(fraction)) {
+                    result += fraction;
+                    pos++;
+                }
+            }
+
+            value = result;
+            return true;
+        }
+
+        private static boolean isAsciiDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+    }
+}
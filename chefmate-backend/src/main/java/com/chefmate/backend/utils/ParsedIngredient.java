@@ -0,0 +1,46 @@
+package com.chefmate.backend.utils;
+
+/**
+ * Result of splitting a free-text ingredient line into quantity, unit and name.
+ * Quantities are held in the unit's base form (kg becomes g, l becomes ml).
+ */
+public final class ParsedIngredient {
+
+    private final double quantity;
+    private final String unit;
+    private final String name;
+    private final String normalizedName;
+
+    public ParsedIngredient(double quantity, String unit, String name, String normalizedName) {
+        this.quantity = quantity;
+        this.unit = unit;
+        this.name = name;
+        this.normalizedName = normalizedName;
+    }
+
+    /**
+     * @return the amount, or NaN when the line had no leading quantity ("salt to taste")
+     */
+    public double getQuantity() { return quantity; }
+    public boolean hasQuantity() { return !Double.isNaN(quantity); }
+
+    /**
+     * @return canonical unit symbol, or an empty string for counted items ("2 eggs")
+     */
+    public String getUnit() { return unit; }
+    public String getName() { return name; }
+    public String getNormalizedName() { return normalizedName; }
+
+    /**
+     * Items with the same key describe the same thing in the same unit and can be summed.
+     */
+    public String getMergeKey() {
+        return normalizedName + '|' + unit;
+    }
+
+    @Override
+    public String toString() {
+        return (hasQuantity() ? IngredientParser.formatQuantity(quantity) + " " : "")
+                + (unit.isEmpty() ? "" : unit + " ") + name;
+    }
+}
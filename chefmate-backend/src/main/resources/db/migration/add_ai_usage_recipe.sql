@@ -0,0 +1,9 @@
+-- AI usage per user, recipe and day, with its cost (ai_usage_daily).
+-- DatabaseMigrationConfig does the same on startup; rows from before keep their totals under recipe 0.
+
+ALTER TABLE ai_usage_daily ADD COLUMN IF NOT EXISTS recipe_id BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE ai_usage_daily ADD COLUMN IF NOT EXISTS cost_micro_usd BIGINT NOT NULL DEFAULT 0;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_ai_usage_daily_user_recipe_date
+    ON ai_usage_daily (user_id, recipe_id, usage_date);
+ALTER TABLE ai_usage_daily DROP CONSTRAINT IF EXISTS uk_ai_usage_daily_user_date;
@@ -0,0 +1,12 @@
+-- Pooled sequence ids (allocationSize = 50) for entities that are inserted in bulk.
+-- DatabaseMigrationConfig does the same on startup; setval only ever moves a sequence forward.
+
+CREATE SEQUENCE IF NOT EXISTS shopping_list_items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS recipe_likes_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comment_likes_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('shopping_list_items_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM shopping_list_items), (SELECT last_value FROM shopping_list_items_seq), 1));
+SELECT setval('comments_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM comments), (SELECT last_value FROM comments_seq), 1));
+SELECT setval('recipe_likes_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM recipe_likes), (SELECT last_value FROM recipe_likes_seq), 1));
+SELECT setval('comment_likes_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM comment_likes), (SELECT last_value FROM comment_likes_seq), 1));
@@ -0,0 +1,8 @@
+-- Normalized ingredient names on recipes, for searching "eggs" and finding "2 eggs, beaten".
+-- The names come from IngredientParser, so the application fills them: every save writes them, and
+-- DatabaseMigrationConfig fills the ones still NULL on startup in id ranges of 500 recipes.
+
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS ingredient_names JSONB;
+
+-- Containment search: WHERE ingredient_names @> '["egg"]'
+CREATE INDEX IF NOT EXISTS idx_recipes_ingredient_names_gin ON recipes USING GIN (ingredient_names jsonb_path_ops);
@@ -0,0 +1,8 @@
+-- Indexes backing the batched shopping list loading
+-- (lists by owner and state, then items by list id)
+
+CREATE INDEX IF NOT EXISTS idx_shopping_lists_user_completed_created
+    ON shopping_lists (user_id, completed, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_shopping_list_items_list
+    ON shopping_list_items (shopping_list_id);
@@ -0,0 +1,33 @@
+-- Delta sync for shopping lists (GET /api/shopping-lists/{id}/changes?since=v)
+
+ALTER TABLE shopping_lists ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0;
+ALTER TABLE shopping_list_items ADD COLUMN IF NOT EXISTS version BIGINT;
+
+-- Existing items at version 1, and their lists at least there, so a client syncing from 0 fetches them
+UPDATE shopping_lists SET version = 1 WHERE COALESCE(version, 0) < 1
+    AND id IN (SELECT shopping_list_id FROM shopping_list_items WHERE version IS NULL);
+UPDATE shopping_list_items SET version = 1 WHERE version IS NULL;
+
+-- Items changed since a version, per list; supersedes the single-column index
+CREATE INDEX IF NOT EXISTS idx_shopping_list_items_list_version
+    ON shopping_list_items (shopping_list_id, version);
+DROP INDEX IF EXISTS idx_shopping_list_items_list;
+
+CREATE TABLE IF NOT EXISTS shopping_list_item_tombstones (
+    id BIGSERIAL PRIMARY KEY,
+    shopping_list_id BIGINT NOT NULL REFERENCES shopping_lists (id) ON DELETE CASCADE,
+    item_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    deleted_at TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_shopping_list_item_tombstones_list_version
+    ON shopping_list_item_tombstones (shopping_list_id, version);
+
+CREATE TABLE IF NOT EXISTS shopping_list_mutations (
+    id BIGSERIAL PRIMARY KEY,
+    shopping_list_id BIGINT NOT NULL REFERENCES shopping_lists (id) ON DELETE CASCADE,
+    mutation_id VARCHAR(64) NOT NULL,
+    version BIGINT NOT NULL,
+    applied_at TIMESTAMP,
+    UNIQUE (shopping_list_id, mutation_id)
+);
@@ -0,0 +1,10 @@
+-- Drops the element collection tables replaced by the JSONB columns on recipes (move_recipe_lists_to_jsonb.sql).
+-- Run with the release after the one that added the JSONB columns, once no instance of the older release is
+-- left: until then those instances still read and write these tables.
+
+DROP TABLE IF EXISTS recipe_ingredients;
+DROP TABLE IF EXISTS recipe_steps;
+DROP TABLE IF EXISTS recipe_image_urls;
+
+-- Ingredient search moved to recipes.ingredient_names (add_recipe_ingredient_names.sql)
+DROP INDEX IF EXISTS idx_recipes_ingredients_gin;
@@ -0,0 +1,20 @@
+-- Ingredients, steps and image URLs as JSONB columns on recipes instead of element collection tables.
+-- DatabaseMigrationConfig runs the same conversion on startup in id ranges of 500 recipes.
+-- The old tables stay until drop_recipe_list_tables.sql, in the release after this one.
+-- Element collection rows were always replaced as a whole, so their stored order is the list order.
+
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS ingredients JSONB;
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS steps JSONB;
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS image_urls JSONB;
+
+UPDATE recipes r SET ingredients = COALESCE((SELECT jsonb_agg(l.ingredient ORDER BY l.ctid)
+                                             FROM recipe_ingredients l WHERE l.recipe_id = r.id), '[]'::jsonb)
+WHERE r.ingredients IS NULL;
+
+UPDATE recipes r SET steps = COALESCE((SELECT jsonb_agg(l.step ORDER BY l.ctid)
+                                       FROM recipe_steps l WHERE l.recipe_id = r.id), '[]'::jsonb)
+WHERE r.steps IS NULL;
+
+UPDATE recipes r SET image_urls = COALESCE((SELECT jsonb_agg(l.image_url ORDER BY l.ctid)
+                                            FROM recipe_image_urls l WHERE l.recipe_id = r.id), '[]'::jsonb)
+WHERE r.image_urls IS NULL;
@@ -0,0 +1,120 @@
+package com.chefmate.backend.benchmark;
+
+import com.chefmate.backend.repository.AiUsageDailyRepository;
+import com.chefmate.backend.repository.RecipeRepository;
+import com.chefmate.backend.service.AiCircuitBreaker;
+import com.chefmate.backend.service.AiConversationService;
+import com.chefmate.backend.service.AiPromptService;
+import com.chefmate.backend.service.AiQuickAnswerService;
+import com.chefmate.backend.service.AiQuotaScheduler;
+import com.chefmate.backend.service.AiResponseCache;
+import com.chefmate.backend.service.AiService;
+import com.chefmate.backend.service.AiTelemetryService;
+import com.chefmate.backend.service.OutboundHttpService;
+import com.chefmate.backend.service.RecipeFaqService;
+import com.chefmate.backend.stub.GeminiStubServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Latency of the AI chat path under concurrent load, against the Gemini stub with a
+ * long-tailed upstream latency instead of the real API. Shows what the bulkhead, the
+ * quota scheduler, the pooled client and the answer cache add on top of Gemini.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=AiChatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class AiChatBenchmark {
+
+    @Param({"200"})
+    private long upstreamMedianMillis;
+
+    @Param({"0.0", "0.05"})
+    private double upstreamErrorRate;
+
+    // Share of questions asked before, which the answer cache serves
+    @Param({"0", "50"})
+    private int repeatPercent;
+
+    private final AtomicLong questions = new AtomicLong();
+    private GeminiStubServer stub;
+    private OutboundHttpService outboundHttp;
+    private AiTelemetryService telemetry;
+    private AiService aiService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stub = new GeminiStubServer()
+                .latency(GeminiStubServer.LatencyDistribution.logNormal(upstreamMedianMillis, upstreamMedianMillis * 5))
+                .errorRate(503, upstreamErrorRate)
+                .responseWords(40, 200);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        outboundHttp = new OutboundHttpService(meterRegistry, 5000, 64, 5000);
+        telemetry = new AiTelemetryService(meterRegistry, mock(AiUsageDailyRepository.class), 3600, false, 0, 0.30, 2.50);
+        // Quota and breaker far from their limits, so the numbers are about the call path itself
+        aiService = new AiService(meterRegistry, new AiResponseCache(meterRegistry, 10000, 3600),
+                new AiPromptService(mock(RecipeRepository.class), 100),
+                new AiQuickAnswerService(meterRegistry, mock(RecipeFaqService.class)),
+                new AiConversationService(meterRegistry, 100, 1000, 30),
+                new AiQuotaScheduler(meterRegistry, 1_000_000, 1000, 1000, 30000),
+                new AiCircuitBreaker(meterRegistry, 100, 100, 90, 30000, 100, 1000),
+                outboundHttp, telemetry, 30000, 30000, 64, 256, 30000);
+        ReflectionTestUtils.setField(aiService, "geminiApiKey", "benchmark-key");
+        ReflectionTestUtils.setField(aiService, "geminiApiUrl", stub.getUrl());
+        ReflectionTestUtils.setField(aiService, "geminiModel", "gemini-2.5-flash");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        aiService.shutdown();
+        telemetry.shutdown();
+        outboundHttp.shutdown();
+        stub.close();
+    }
+
+    @Benchmark
+    public String chat() throws Exception {
+        long asked = questions.incrementAndGet();
+        long question = ThreadLocalRandom.current().nextInt(100) < repeatPercent && asked > 100
+                ? ThreadLocalRandom.current().nextLong(100) : asked;
+        return aiService.getAiResponseAsync("How do I make dish number " + question + "?", null, null, null, 1L)
+                .get(60, TimeUnit.SECONDS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AiChatBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
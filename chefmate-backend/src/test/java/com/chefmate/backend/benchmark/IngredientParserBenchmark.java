@@ -0,0 +1,91 @@
+package com.chefmate.backend.benchmark;
+
+import com.chefmate.backend.entity.ShoppingList;
+import com.chefmate.backend.entity.ShoppingListItem;
+import com.chefmate.backend.service.IngredientAggregationService;
+import com.chefmate.backend.utils.IngredientParser;
+import com.chefmate.backend.utils.ParsedIngredient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and merging throughput over a synthetic corpus of ingredient lines.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=IngredientParserBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngredientParserBenchmark {
+
+    private static final String[] QUANTITIES = {"1", "2", "1/2", "1 1/2", "½", "2-3", "200", "0.5", "1,5", ""};
+    private static final String[] UNITS = {"g", "kg", "ml", "l", "cups", "tbsp", "tsp", "cloves", "pinch", ""};
+    private static final String[] NAMES = {
+            "flour", "eggs", "butter, softened", "whole milk", "sugar", "salt", "garlic",
+            "olive oil", "tomatoes (chopped)", "onions", "black pepper", "chicken breasts",
+            "potatoes", "fresh parsley", "cheese, grated", "carrots", "rice", "lemon juice"
+    };
+
+    @Param({"10000"})
+    private int corpusSize;
+
+    private List<String> lines;
+    private List<ParsedIngredient> parsed;
+    private IngredientAggregationService aggregationService;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        lines = new ArrayList<>(corpusSize);
+        for (int i = 0; i < corpusSize; i++) {
+            String quantity = QUANTITIES[random.nextInt(QUANTITIES.length)];
+            String unit = quantity.isEmpty() ? "" : UNITS[random.nextInt(UNITS.length)];
+            String name = NAMES[random.nextInt(NAMES.length)];
+            lines.add(String.join(" ", quantity, unit, name).strip());
+        }
+        parsed = new ArrayList<>(corpusSize);
+        for (String line : lines) {
+            parsed.add(IngredientParser.parse(line));
+        }
+        aggregationService = new IngredientAggregationService(1000);
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(IngredientParser.parse(line));
+        }
+    }
+
+    @Benchmark
+    public List<ShoppingListItem> merge() {
+        return aggregationService.mergeIntoList(new ShoppingList(), new ArrayList<>(), parsed);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(IngredientParserBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,146 @@
+package com.chefmate.backend.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows/sec for the two ways Hibernate can insert shopping list items:
+ * IDENTITY ids (one INSERT ... RETURNING round trip per row, what we had before)
+ * and pooled sequence ids (one sequence call per 50 rows, inserts sent as a JDBC batch).
+ *
+ * Needs a PostgreSQL database; uses a scratch table and the same DB_URL, DB_USERNAME
+ * and DB_PASSWORD variables as the application. Run with:
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=InsertBatchingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBatchingBenchmark {
+
+    private static final int ROWS = 500;
+    private static final int ALLOCATION_SIZE = 50;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", env("DB_USERNAME", "postgres"));
+        properties.setProperty("password", env("DB_PASSWORD", ""));
+        properties.setProperty("reWriteBatchedInserts", "true"); // as configured for the application's pool
+        connection = DriverManager.getConnection(env("DB_URL", "jdbc:postgresql://localhost:5432/chefmate_db"), properties);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS benchmark_list_items");
+            statement.execute("DROP SEQUENCE IF EXISTS benchmark_list_items_seq");
+            statement.execute("CREATE TABLE benchmark_list_items (" +
+                    "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                    "name VARCHAR(255), quantity VARCHAR(255), unit VARCHAR(255), purchased BOOLEAN)");
+            statement.execute("CREATE SEQUENCE benchmark_list_items_seq START WITH 1000000000 INCREMENT BY " + ALLOCATION_SIZE);
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS benchmark_list_items");
+            statement.execute("DROP SEQUENCE IF EXISTS benchmark_list_items_seq");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long identityRowByRow() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO benchmark_list_items (name, quantity, unit, purchased) VALUES (?, ?, ?, ?) RETURNING id")) {
+            for (int i = 0; i < ROWS; i++) {
+                bindRow(insert, 1, i);
+                try (ResultSet keys = insert.executeQuery()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long sequenceBatched() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement nextBlock = connection.prepareStatement("SELECT nextval('benchmark_list_items_seq')");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO benchmark_list_items (id, name, quantity, unit, purchased) VALUES (?, ?, ?, ?, ?)")) {
+            long nextId = 0;
+            long blockEnd = -1;
+            for (int i = 0; i < ROWS; i++) {
+                if (nextId > blockEnd) {
+                    // Same as Hibernate's pooled optimizer: value v covers ids (v - allocationSize .. v]
+                    try (ResultSet block = nextBlock.executeQuery()) {
+                        block.next();
+                        blockEnd = block.getLong(1);
+                    }
+                    nextId = blockEnd - ALLOCATION_SIZE + 1;
+                }
+                lastId = nextId++;
+                insert.setLong(1, lastId);
+                bindRow(insert, 2, i);
+                insert.addBatch();
+                if ((i + 1) % ALLOCATION_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    private static void bindRow(PreparedStatement statement, int firstIndex, int row) throws SQLException {
+        statement.setString(firstIndex, "item " + row);
+        statement.setString(firstIndex + 1, Integer.toString(row % 5 + 1));
+        statement.setString(firstIndex + 2, "g");
+        statement.setBoolean(firstIndex + 3, false);
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InsertBatchingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,102 @@
+package com.chefmate.backend.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class DatabaseMigrationConfigTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DatabaseMigrationConfig migrationConfig;
+
+    @BeforeEach
+    void setUp() {
+        // Every table and column exists except ai_usage_daily.recipe_id, and every table is empty
+        jdbcTemplate = mock(JdbcTemplate.class, invocation -> {
+            if (!invocation.getMethod().getName().equals("queryForObject")) {
+                return null;
+            }
+            if (invocation.getArgument(1) == Long.class) {
+                return 0L;
+            }
+            return Arrays.asList(invocation.getArguments()).contains("recipe_id") ? 0 : 1;
+        });
+        migrationConfig = new DatabaseMigrationConfig();
+        ReflectionTestUtils.setField(migrationConfig, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(migrationConfig, "startupTimingReport", new StartupTimingReport(10));
+    }
+
+    @Test
+    void testMigrateDatabase_RunsOnTheCallingThread() {
+        // Act
+        migrationConfig.migrateDatabase();
+
+        // Assert: done by the time startup moves on, not left to a background thread
+        verify(jdbcTemplate).execute("CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50");
+        verify(jdbcTemplate).queryForObject(contains("setval('comments_seq'"), eq(Long.class));
+        verify(jdbcTemplate).execute("ALTER TABLE recipes ADD COLUMN IF NOT EXISTS ingredients JSONB");
+    }
+
+    @Test
+    void testMigrateDatabase_KeepsLegacyTablesForOlderInstances() {
+        // Act: every legacy table exists and no recipe is left to convert
+        migrationConfig.migrateDatabase();
+
+        // Assert
+        verify(jdbcTemplate).execute("ALTER TABLE recipes ADD COLUMN IF NOT EXISTS steps JSONB");
+        verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+    }
+
+    @Test
+    void testMigrateDatabase_AddsIndexedIngredientNames() {
+        // Act
+        migrationConfig.migrateDatabase();
+
+        // Assert
+        verify(jdbcTemplate).execute("ALTER TABLE recipes ADD COLUMN IF NOT EXISTS ingredient_names JSONB");
+        verify(jdbcTemplate).execute(contains("GIN (ingredient_names jsonb_path_ops)"));
+        verify(jdbcTemplate, never()).execute(contains("GIN (ingredients jsonb_path_ops)"));
+    }
+
+    @Test
+    void testMigrateDatabase_VersionsShoppingListItemsFromBeforeSync() {
+        // Act
+        migrationConfig.migrateDatabase();
+
+        // Assert: the lists first, while their unversioned items can still be found
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).update(startsWith("UPDATE shopping_lists SET version = 1"));
+        inOrder.verify(jdbcTemplate).update("UPDATE shopping_list_items SET version = 1 WHERE version IS NULL");
+    }
+
+    @Test
+    void testHealth_OutOfServiceUntilSchemaIsChecked() {
+        // Arrange
+        HealthIndicator health = migrationConfig.databaseMigrationHealthIndicator();
+        migrationConfig.migrateDatabase();
+
+        // Act
+        Health beforeCheck = health.health();
+        migrationConfig.checkSchema();
+        Health afterCheck = health.health();
+
+        // Assert
+        assertEquals(Status.OUT_OF_SERVICE, beforeCheck.getStatus());
+        assertEquals(Status.UP, afterCheck.getStatus());
+        assertEquals(List.of("ai_usage_daily.recipe_id"), afterCheck.getDetails().get("missingColumns"));
+        assertNull(afterCheck.getDetails().get("failedSteps"));
+    }
+}
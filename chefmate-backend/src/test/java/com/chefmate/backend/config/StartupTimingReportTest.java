@@ -0,0 +1,53 @@
+package com.chefmate.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupTimingReportTest {
+
+    @Test
+    void testSlowestBeans_RanksByOwnTime() throws InterruptedException {
+        // Arrange: "service" is slow only because it creates the slow "client" first
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        startup.startRecording();
+        StartupStep service = startup.start("spring.beans.instantiate").tag("beanName", "service");
+        StartupStep client = startup.start("spring.beans.instantiate").tag("beanName", "client");
+        Thread.sleep(60);
+        client.end();
+        Thread.sleep(5);
+        service.end();
+        StartupStep other = startup.start("spring.context.refresh");
+        other.end();
+
+        // Act
+        List<StartupTimingReport.BeanTiming> slowest = StartupTimingReport.slowestBeans(startup.getBufferedTimeline(), 10);
+
+        // Assert
+        assertEquals(2, slowest.size());
+        assertEquals("client", slowest.get(0).getBeanName());
+        assertEquals("service", slowest.get(1).getBeanName());
+        assertTrue(slowest.get(1).getOwnTime().toMillis() < 60);
+        assertTrue(slowest.get(1).getTotalTime().toMillis() >= 65);
+    }
+
+    @Test
+    void testSlowestBeans_LimitsReport() {
+        // Arrange
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        startup.startRecording();
+        for (int i = 0; i < 5; i++) {
+            startup.start("spring.beans.instantiate").tag("beanName", "bean" + i).end();
+        }
+
+        // Act
+        List<StartupTimingReport.BeanTiming> slowest = StartupTimingReport.slowestBeans(startup.getBufferedTimeline(), 3);
+
+        // Assert
+        assertEquals(3, slowest.size());
+    }
+}
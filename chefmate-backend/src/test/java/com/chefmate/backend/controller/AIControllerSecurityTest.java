@@ -0,0 +1,123 @@
+package com.chefmate.backend.controller;
+
+import com.chefmate.backend.config.SecurityConfig;
+import com.chefmate.backend.filter.JwtAuthenticationFilter;
+import com.chefmate.backend.service.AiConversationService;
+import com.chefmate.backend.service.AiRateLimiter;
+import com.chefmate.backend.service.AiService;
+import com.chefmate.backend.service.CustomUserDetailsService;
+import com.chefmate.backend.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The AI endpoints answer asynchronously, so the response is written on a second
+ * (ASYNC) dispatch. These tests run the real security filter chain on both dispatches;
+ * the other controller tests switch the filters off.
+ *
+ * The context is limited to the controller and the security setup, without the
+ * application class and its JPA repositories.
+ */
+@WebMvcTest(controllers = AIController.class)
+@ContextConfiguration(classes = {AIController.class, SecurityConfig.class, JwtAuthenticationFilter.class})
+class AIControllerSecurityTest {
+
+    private static final String TOKEN = "Bearer valid-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private CustomUserDetailsService userDetailsService;
+
+    @MockBean
+    private AiService aiService;
+
+    @MockBean
+    private AiConversationService conversationService;
+
+    @MockBean
+    private AiRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        UserDetails user = User.withUsername("chef").password("secret").roles("USER").build();
+        when(jwtService.extractUsername("valid-token")).thenReturn("chef");
+        when(jwtService.extractUserId("valid-token")).thenReturn(1L);
+        when(jwtService.validateToken(eq("valid-token"), any(UserDetails.class))).thenReturn(true);
+        when(userDetailsService.loadUserByUsername("chef")).thenReturn(user);
+        when(rateLimiter.tryAcquire(1L)).thenReturn(true);
+    }
+
+    @Test
+    void testChat_AsyncDispatchIsNotDenied() throws Exception {
+        // Arrange
+        when(aiService.getAiResponseAsync(eq("How hot?"), isNull(), isNull(), isNull(), eq(1L)))
+                .thenReturn(CompletableFuture.completedFuture("200°C"));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/ai/chat")
+                        .header("Authorization", TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"message\":\"How hot?\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.response").value("200°C"));
+    }
+
+    @Test
+    void testStreamChat_AsyncDispatchIsNotDenied() throws Exception {
+        // Arrange
+        SseEmitter emitter = new SseEmitter();
+        emitter.send(SseEmitter.event().name("chunk").data("Preheat the oven"));
+        emitter.complete();
+        when(aiService.streamAiResponse(eq("How hot?"), isNull(), isNull(), isNull(), eq(1L))).thenReturn(emitter);
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/ai/chat/stream")
+                        .header("Authorization", TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"message\":\"How hot?\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("event:chunk")));
+    }
+
+    @Test
+    void testStreamChat_WithoutTokenIsRejected() throws Exception {
+        mockMvc.perform(post("/api/ai/chat/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"message\":\"How hot?\"}"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(aiService);
+    }
+}
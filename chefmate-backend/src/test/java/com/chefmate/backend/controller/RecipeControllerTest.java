@@ -39,6 +39,15 @@ class RecipeControllerTest {
     @MockBean
     private com.chefmate.backend.service.FileStorageService fileStorageService;
 
+    @MockBean
+    private com.chefmate.backend.service.RecipeEventService recipeEventService;
+
+    @MockBean
+    private com.chefmate.backend.service.RecipeFaqService recipeFaqService;
+
+    @MockBean
+    private com.chefmate.backend.service.ImageVariantService imageVariantService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -0,0 +1,91 @@
+package com.chefmate.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiCircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(2000);
+
+    private SimpleMeterRegistry meterRegistry;
+    private AiCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Window of 4, 50% failures or 75% slow calls (over 1s) open it for 100ms
+        circuitBreaker = new AiCircuitBreaker(meterRegistry, 4, 4, 50, 1000, 75, 100);
+    }
+
+    @Test
+    void testStaysClosedBelowMinimumCalls() {
+        // Act
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.onError(FAST);
+        }
+
+        // Assert
+        assertEquals(AiCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void testOpensOnSlowCallRate() {
+        // Act
+        circuitBreaker.onSuccess(FAST);
+        circuitBreaker.onSuccess(SLOW);
+        circuitBreaker.onSuccess(SLOW);
+        circuitBreaker.onSuccess(SLOW);
+
+        // Assert
+        assertEquals(AiCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void testHalfOpenAllowsSingleProbeAndReopensOnFailure() throws Exception {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onError(FAST);
+        }
+        Thread.sleep(150);
+
+        // Act
+        boolean probe = circuitBreaker.tryAcquirePermission();
+        boolean secondCall = circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onError(FAST);
+
+        // Assert
+        assertTrue(probe);
+        assertFalse(secondCall);
+        assertEquals(AiCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.circuit.transitions")
+                .tags("from", "HALF_OPEN", "to", "OPEN").counter().count());
+    }
+
+    @Test
+    void testReleasedProbeLetsNextCallerProbe() throws Exception {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onError(FAST);
+        }
+        Thread.sleep(150);
+        assertTrue(circuitBreaker.tryAcquirePermission());
+
+        // Act
+        circuitBreaker.releasePermission();
+        boolean nextProbe = circuitBreaker.tryAcquirePermission();
+        boolean thirdCall = circuitBreaker.tryAcquirePermission();
+
+        // Assert
+        assertTrue(nextProbe);
+        assertFalse(thirdCall);
+        assertEquals(AiCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+}
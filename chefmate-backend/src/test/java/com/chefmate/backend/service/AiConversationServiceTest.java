@@ -0,0 +1,105 @@
+package com.chefmate.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiConversationServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AiConversationService conversationService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 3 sessions, 40 estimated tokens of history each
+        conversationService = new AiConversationService(meterRegistry, 3, 40, 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        conversationService.shutdown();
+    }
+
+    @Test
+    void testRecordExchange_HistoryKeepsTurnOrder() {
+        conversationService.recordExchange("1:a", "How long?", "Ten minutes.");
+        conversationService.recordExchange("1:a", "At what heat?", "Medium.");
+
+        List<AiConversationService.Turn> history = conversationService.getHistory("1:a");
+
+        assertEquals(4, history.size());
+        assertEquals(AiConversationService.USER, history.get(0).getRole());
+        assertEquals("How long?", history.get(0).getText());
+        assertEquals(AiConversationService.MODEL, history.get(3).getRole());
+        assertEquals("Medium.", history.get(3).getText());
+    }
+
+    @Test
+    void testRecordExchange_OldestExchangesDroppedOverBudget() {
+        String answer = "x".repeat(60); // 15 tokens
+
+        conversationService.recordExchange("1:a", "first question", answer);
+        conversationService.recordExchange("1:a", "second question", answer);
+        conversationService.recordExchange("1:a", "third question", answer);
+
+        List<AiConversationService.Turn> history = conversationService.getHistory("1:a");
+        int tokens = history.stream().mapToInt(AiConversationService.Turn::getTokens).sum();
+        assertTrue(tokens <= 40);
+        assertEquals(AiConversationService.USER, history.get(0).getRole());
+        assertEquals("third question", history.get(history.size() - 2).getText());
+        assertFalse(history.stream().anyMatch(turn -> turn.getText().equals("first question")));
+    }
+
+    @Test
+    void testRecordExchange_LeastRecentlyUsedSessionEvictedAtCapacity() throws InterruptedException {
+        conversationService.recordExchange("1:a", "q", "a");
+        Thread.sleep(2);
+        conversationService.recordExchange("2:b", "q", "a");
+        Thread.sleep(2);
+        conversationService.recordExchange("3:c", "q", "a");
+        Thread.sleep(2);
+        conversationService.getHistory("1:a");
+
+        conversationService.recordExchange("4:d", "q", "a");
+
+        assertEquals(3, conversationService.getSessionCount());
+        assertTrue(conversationService.getHistory("2:b").isEmpty());
+        assertFalse(conversationService.getHistory("1:a").isEmpty());
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.conversation.evicted").counter().count());
+    }
+
+    @Test
+    void testEvictIdle_DropsExpiredSessions() {
+        AiConversationService shortLived = new AiConversationService(meterRegistry, 10, 40, 0);
+        try {
+            shortLived.recordExchange("1:a", "q", "a");
+
+            shortLived.evictIdle();
+
+            assertEquals(0, shortLived.getSessionCount());
+        } finally {
+            shortLived.shutdown();
+        }
+    }
+
+    @Test
+    void testGetHistory_WithoutSessionIsEmpty() {
+        conversationService.recordExchange(null, "q", "a");
+
+        assertTrue(conversationService.getHistory(null).isEmpty());
+        assertEquals(0, conversationService.getSessionCount());
+    }
+
+    @Test
+    void testEstimateTokens() {
+        assertEquals(0, AiConversationService.estimateTokens(""));
+        assertEquals(1, AiConversationService.estimateTokens("abc"));
+        assertEquals(3, AiConversationService.estimateTokens("Preheat oven"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.entity.Recipe;
+import com.chefmate.backend.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AiPromptServiceTest {
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    private AiPromptService promptService;
+    private Recipe recipe;
+
+    @BeforeEach
+    void setUp() {
+        promptService = new AiPromptService(recipeRepository, 10);
+
+        recipe = new Recipe();
+        recipe.setId(1L);
+        recipe.setTitle("Pancakes");
+        recipe.setDescription("Fluffy pancakes");
+        recipe.setDifficulty(Recipe.Difficulty.EASY);
+        recipe.setServings(4);
+        recipe.setIngredients(new ArrayList<>(List.of("2 eggs", "200g flour")));
+        recipe.setSteps(new ArrayList<>(List.of("Mix", "Fry")));
+        recipe.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+    }
+
+    @Test
+    void testGetRecipeBlock_RenderedFromStoredRecipe() {
+        // Arrange
+        when(recipeRepository.findUpdatedAtById(1L)).thenReturn(Optional.of(recipe.getUpdatedAt()));
+        when(recipeRepository.findById(1L)).thenReturn(Optional.of(recipe));
+
+        // Act
+        String block = promptService.getRecipeBlock(1L, Map.of("currentStep", 1));
+
+        // Assert
+        assertTrue(block.contains("Recipe: Pancakes\n"));
+        assertTrue(block.contains("Difficulty: EASY\n"));
+        assertTrue(block.contains("  2. 200g flour\n"));
+        assertTrue(block.contains("  Step 2: Fry\n"));
+    }
+
+    @Test
+    void testGetRecipeBlock_CachedUntilRecipeChanges() {
+        // Arrange
+        LocalDateTime edited = recipe.getUpdatedAt().plusMinutes(5);
+        when(recipeRepository.findUpdatedAtById(1L))
+                .thenReturn(Optional.of(recipe.getUpdatedAt()))
+                .thenReturn(Optional.of(recipe.getUpdatedAt()))
+                .thenReturn(Optional.of(edited));
+        when(recipeRepository.findById(1L)).thenAnswer(invocation -> Optional.of(recipe));
+
+        // Act
+        String first = promptService.getRecipeBlock(1L, null);
+        String second = promptService.getRecipeBlock(1L, null);
+        recipe.setTitle("Buttermilk Pancakes");
+        recipe.setUpdatedAt(edited);
+        String third = promptService.getRecipeBlock(1L, null);
+
+        // Assert
+        assertSame(first, second);
+        assertTrue(third.contains("Recipe: Buttermilk Pancakes\n"));
+        verify(recipeRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void testGetRecipeBlock_WithoutRecipeIdUsesClientFields() {
+        // Arrange
+        Map<String, Object> context = new HashMap<>();
+        context.put("recipeTitle", "Omelette");
+        context.put("recipeIngredients", List.of("3 eggs"));
+
+        // Act
+        String block = promptService.getRecipeBlock(null, context);
+
+        // Assert
+        assertTrue(block.contains("Recipe: Omelette\n"));
+        assertTrue(block.contains("  1. 3 eggs\n"));
+        verifyNoInteractions(recipeRepository);
+    }
+
+    @Test
+    void testBuildSystemInstruction_AddsSessionFields() {
+        // Arrange
+        Map<String, Object> context = new HashMap<>();
+        context.put("currentStep", 2);
+        context.put("totalSteps", 5);
+        context.put("elapsedTimeSeconds", 125);
+        context.put("usedIngredients", List.of("eggs", "flour"));
+
+        // Act
+        String instruction = promptService.buildSystemInstruction("\n\n=== RECIPE INFORMATION ===\nRecipe: Pancakes\n", context);
+
+        // Assert
+        assertTrue(instruction.startsWith("You are a professional cooking assistant."));
+        assertTrue(instruction.contains("Current Step: 2/5\n"));
+        assertTrue(instruction.contains("Elapsed Time: 2:05\n"));
+        assertTrue(instruction.contains("Used Ingredients: eggs, flour\n"));
+        assertTrue(instruction.contains("=== INSTRUCTIONS ==="));
+        assertTrue(instruction.endsWith("still respond in English."));
+    }
+
+    @Test
+    void testBuildSystemInstruction_PlainQuestionHasNoRecipeSections() {
+        String instruction = promptService.buildSystemInstruction("", null);
+
+        assertFalse(instruction.contains("==="));
+    }
+}
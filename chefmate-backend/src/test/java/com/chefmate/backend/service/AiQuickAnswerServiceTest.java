@@ -0,0 +1,110 @@
+package com.chefmate.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AiQuickAnswerServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecipeFaqService recipeFaqService;
+    private AiQuickAnswerService quickAnswerService;
+    private AiPromptService.RecipeFacts recipe;
+    private Map<String, Object> context;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recipeFaqService = mock(RecipeFaqService.class);
+        quickAnswerService = new AiQuickAnswerService(meterRegistry, recipeFaqService);
+        recipe = new AiPromptService.RecipeFacts(null, null, "Pancakes", 10, 15, 25, 4,
+                List.of("2 eggs", "200g flour", "300ml milk"), List.of("Mix", "Rest", "Fry"), "");
+        context = new HashMap<>();
+        context.put("currentStep", 1);
+        context.put("totalSteps", 3);
+    }
+
+    @Test
+    void testMatch_RecognisesPhrasings() {
+        assertEquals(AiQuickAnswerService.Intent.NEXT_STEP, AiQuickAnswerService.match("What's next?"));
+        assertEquals(AiQuickAnswerService.Intent.NEXT_STEP, AiQuickAnswerService.match("ok, next step please"));
+        assertEquals(AiQuickAnswerService.Intent.SERVINGS, AiQuickAnswerService.match("How many people does it serve?"));
+        assertEquals(AiQuickAnswerService.Intent.INGREDIENTS_LEFT, AiQuickAnswerService.match("Which ingredients haven't I used yet?"));
+        assertEquals(AiQuickAnswerService.Intent.COOK_TIME, AiQuickAnswerService.match("How long does it take?"));
+    }
+
+    @Test
+    void testMatch_SpecificQuestionsGoToGemini() {
+        assertNull(AiQuickAnswerService.match("How long do I fry the onions?"));
+        assertNull(AiQuickAnswerService.match("Can I skip the next step?"));
+        assertNull(AiQuickAnswerService.match("What can I use instead of eggs?"));
+    }
+
+    @Test
+    void testAnswer_NextStepFollowsCurrentStep() {
+        // Act
+        String next = quickAnswerService.answer("What's next?", recipe, context);
+        context.put("currentStep", 3);
+        String afterLast = quickAnswerService.answer("What's next?", recipe, context);
+
+        // Assert
+        assertEquals("Step 2 of 3: Rest", next);
+        assertTrue(afterLast.startsWith("You're on the last step"));
+    }
+
+    @Test
+    void testAnswer_IngredientsLeftSkipsUsedOnes() {
+        // Arrange
+        context.put("usedIngredients", List.of("Eggs", "200g flour"));
+
+        // Act
+        String answer = quickAnswerService.answer("What ingredients are left?", recipe, context);
+
+        // Assert
+        assertEquals("Ingredients left:\n- 300ml milk", answer);
+    }
+
+    @Test
+    void testAnswer_ServingsAndTimes() {
+        assertEquals("Pancakes makes 4 servings.", quickAnswerService.answer("How many servings?", recipe, context));
+        assertEquals("Prep time: 10 minutes, Cook time: 15 minutes, Total time: 25 minutes",
+                quickAnswerService.answer("What is the cook time?", recipe, context));
+    }
+
+    @Test
+    void testAnswer_FaqQuestionUsesPrecomputedAnswer() {
+        // Arrange
+        when(recipeFaqService.findAnswer(recipe, "Can I freeze it?")).thenReturn("Yes, for up to 3 months.");
+
+        // Act
+        String answer = quickAnswerService.answer("Can I freeze it?", recipe, context);
+
+        // Assert
+        assertEquals("Yes, for up to 3 months.", answer);
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.quick.answered").tag("intent", "FAQ").counter().count());
+    }
+
+    @Test
+    void testAnswer_MissingDataFallsThroughAndIsCounted() {
+        // Arrange
+        AiPromptService.RecipeFacts noServings = new AiPromptService.RecipeFacts(null, null, "Soup", null, null, null, null,
+                List.of(), List.of(), "");
+
+        // Act
+        String answer = quickAnswerService.answer("How many servings?", noServings, context);
+        quickAnswerService.answer("What's next?", recipe, context);
+
+        // Assert
+        assertNull(answer);
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.quick.passed").counter().count());
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.quick.answered").tag("intent", "NEXT_STEP").counter().count());
+        assertEquals(50.0, quickAnswerService.getLocalPercent());
+    }
+}
@@ -0,0 +1,110 @@
+package com.chefmate.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiQuotaSchedulerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService callers;
+    private AiQuotaScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        callers = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void testAcquire_BurstIsImmediate() {
+        scheduler = new AiQuotaScheduler(meterRegistry, 60, 3, 10, 1000);
+
+        long start = System.nanoTime();
+        scheduler.acquire(AiQuotaScheduler.Priority.INTERACTIVE);
+        scheduler.acquire(AiQuotaScheduler.Priority.INTERACTIVE);
+        scheduler.acquire(AiQuotaScheduler.Priority.INTERACTIVE);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 50);
+        assertEquals(3, meterRegistry.get("chefmate.ai.quota.wait").timer().count());
+    }
+
+    @Test
+    void testAcquire_InteractiveServedBeforeEarlierBackground() throws Exception {
+        // A permit every 100ms after the single burst permit
+        scheduler = new AiQuotaScheduler(meterRegistry, 600, 1, 10, 2000);
+        scheduler.acquire(AiQuotaScheduler.Priority.INTERACTIVE);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<Void> background = CompletableFuture.runAsync(() -> {
+            scheduler.acquire(AiQuotaScheduler.Priority.BACKGROUND);
+            order.add("background");
+        }, callers);
+        waitForQueueDepth(1);
+        CompletableFuture<Void> interactive = CompletableFuture.runAsync(() -> {
+            scheduler.acquire(AiQuotaScheduler.Priority.INTERACTIVE);
+            order.add("interactive");
+        }, callers);
+        waitForQueueDepth(2);
+
+        CompletableFuture.allOf(background, interactive).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("interactive", "background"), order);
+    }
+
+    @Test
+    void testAcquire_FullQueueShedsBackgroundFirst() throws Exception {
+        scheduler = new AiQuotaScheduler(meterRegistry, 60, 1, 1, 2000);
+        scheduler.acquire(AiQuotaScheduler.Priority.INTERACTIVE);
+
+        CompletableFuture<Void> background = CompletableFuture.runAsync(
+                () -> scheduler.acquire(AiQuotaScheduler.Priority.BACKGROUND), callers);
+        waitForQueueDepth(1);
+        CompletableFuture<Void> interactive = CompletableFuture.runAsync(
+                () -> scheduler.acquire(AiQuotaScheduler.Priority.INTERACTIVE), callers);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> background.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertFalse(interactive.isDone());
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.quota.shed").counter().count());
+    }
+
+    @Test
+    void testAcquire_GivesUpAfterMaxWait() {
+        scheduler = new AiQuotaScheduler(meterRegistry, 1, 1, 10, 100);
+        scheduler.acquire(AiQuotaScheduler.Priority.INTERACTIVE);
+
+        assertThrows(RejectedExecutionException.class,
+                () -> scheduler.acquire(AiQuotaScheduler.Priority.INTERACTIVE));
+        assertEquals(0, scheduler.getQueueDepth());
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.quota.timeout").counter().count());
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (scheduler.getQueueDepth() < depth && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(depth, scheduler.getQueueDepth());
+    }
+}
@@ -0,0 +1,106 @@
+package com.chefmate.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiRateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AiRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // One request every 6 seconds, bursts of 3
+        rateLimiter = new AiRateLimiter(meterRegistry, 10, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rateLimiter.shutdown();
+    }
+
+    @Test
+    void testTryAcquire_BurstThenRejected() {
+        assertTrue(rateLimiter.tryAcquire(1L));
+        assertTrue(rateLimiter.tryAcquire(1L));
+        assertTrue(rateLimiter.tryAcquire(1L));
+
+        assertFalse(rateLimiter.tryAcquire(1L));
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.ratelimit.rejected").counter().count());
+    }
+
+    @Test
+    void testTryAcquire_UsersAreIndependent() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(1L);
+        }
+
+        assertFalse(rateLimiter.tryAcquire(1L));
+        assertTrue(rateLimiter.tryAcquire(2L));
+    }
+
+    @Test
+    void testTryAcquire_TokensRefillOverTime() throws InterruptedException {
+        // 6000 per minute: a token every 10ms
+        AiRateLimiter fast = new AiRateLimiter(meterRegistry, 6000, 1);
+        try {
+            assertTrue(fast.tryAcquire(1L));
+            assertFalse(fast.tryAcquire(1L));
+
+            Thread.sleep(30);
+
+            assertTrue(fast.tryAcquire(1L));
+        } finally {
+            fast.shutdown();
+        }
+    }
+
+    @Test
+    void testTryAcquire_ConcurrentCallersNeverExceedBurst() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                attempts.add(() -> rateLimiter.tryAcquire(1L));
+            }
+
+            int granted = 0;
+            for (Future<Boolean> result : callers.invokeAll(attempts)) {
+                if (result.get()) {
+                    granted++;
+                }
+            }
+
+            assertEquals(3, granted);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDropRefilledBuckets() throws InterruptedException {
+        AiRateLimiter fast = new AiRateLimiter(meterRegistry, 6000, 1);
+        try {
+            fast.tryAcquire(1L);
+            Thread.sleep(20);
+
+            fast.dropRefilledBuckets();
+
+            assertEquals(0, fast.getTrackedUserCount());
+        } finally {
+            fast.shutdown();
+        }
+    }
+}
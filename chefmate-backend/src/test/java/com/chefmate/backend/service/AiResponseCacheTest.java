@@ -0,0 +1,143 @@
+package com.chefmate.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiResponseCacheTest {
+
+    private static final String PANCAKES = "\n\n=== RECIPE INFORMATION ===\nRecipe: Pancakes\n";
+    private static final String WAFFLES = "\n\n=== RECIPE INFORMATION ===\nRecipe: Waffles\n";
+
+    private SimpleMeterRegistry meterRegistry;
+    private AiResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AiResponseCache(meterRegistry, 3, 60);
+    }
+
+    @Test
+    void testKeyFor_IgnoresCasePunctuationAndVolatileFields() {
+        Map<String, Object> context = sessionContext(1);
+        context.put("elapsedTimeSeconds", 30);
+        Map<String, Object> later = sessionContext(1);
+        later.put("elapsedTimeSeconds", 95);
+        later.put("stoveSetting", "high");
+
+        assertEquals(
+                AiResponseCache.keyFor("Can I substitute butter?", PANCAKES, context),
+                AiResponseCache.keyFor("  can i  SUBSTITUTE butter ", PANCAKES, later));
+    }
+
+    @Test
+    void testKeyFor_DependsOnRecipeAndStep() {
+        String key = AiResponseCache.keyFor("What now?", PANCAKES, sessionContext(1));
+
+        assertNotEquals(key, AiResponseCache.keyFor("What now?", WAFFLES, sessionContext(1)));
+        assertNotEquals(key, AiResponseCache.keyFor("What now?", PANCAKES, sessionContext(3)));
+    }
+
+    @Test
+    void testCacheableContext_KeepsOnlyKeyedFields() {
+        Map<String, Object> context = sessionContext(2);
+        context.put("elapsedTimeSeconds", 95);
+        context.put("cookingStage", "frying");
+        context.put("currentAction", "flipping");
+
+        assertEquals(sessionContext(2), AiResponseCache.cacheableContext(context));
+        assertNull(AiResponseCache.cacheableContext(null));
+    }
+
+    @Test
+    void testGet_ConcurrentIdenticalQuestionsShareOneCall() throws Exception {
+        // Arrange
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch releaseUpstream = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+
+        try {
+            // Act
+            List<Future<String>> answers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                answers.add(callers.submit(() -> cache.get("key", () -> {
+                    upstreamCalls.incrementAndGet();
+                    releaseUpstream.await(5, TimeUnit.SECONDS);
+                    return "Use margarine.";
+                })));
+            }
+            Thread.sleep(100);
+            releaseUpstream.countDown();
+
+            // Assert
+            for (Future<String> answer : answers) {
+                assertEquals("Use margarine.", answer.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, upstreamCalls.get());
+            assertEquals(7.0, meterRegistry.get("chefmate.ai.cache.saved.calls").counter().count());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testGet_FailuresAreNotCached() throws Exception {
+        assertThrows(IllegalStateException.class, () -> cache.get("key", () -> {
+            throw new IllegalStateException("upstream down");
+        }));
+
+        assertEquals("Recovered", cache.get("key", () -> "Recovered"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testGet_ExpiredAnswerIsLoadedAgain() throws Exception {
+        AiResponseCache shortLived = new AiResponseCache(meterRegistry, 10, 0);
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        shortLived.get("key", () -> "v" + upstreamCalls.incrementAndGet());
+        Thread.sleep(5);
+
+        assertEquals("v2", shortLived.get("key", () -> "v" + upstreamCalls.incrementAndGet()));
+    }
+
+    @Test
+    void testPut_SizeIsBounded() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            cache.put("key" + i, "answer" + i);
+        }
+
+        assertTrue(cache.size() <= 3);
+    }
+
+    @Test
+    void testHitRatio() throws Exception {
+        cache.get("key", () -> "answer");
+        cache.get("key", () -> "answer");
+        cache.get("key", () -> "answer");
+        cache.get("other", () -> "answer");
+
+        assertEquals(0.5, cache.getHitRatio(), 1e-9);
+    }
+
+    private static Map<String, Object> sessionContext(int currentStep) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("currentStep", currentStep);
+        context.put("totalSteps", 4);
+        return context;
+    }
+}
@@ -0,0 +1,177 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.config.StartupTimingReport;
+import com.chefmate.backend.repository.AiUsageDailyRepository;
+import com.chefmate.backend.repository.RecipeRepository;
+import com.chefmate.backend.stub.GeminiStubServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The whole AI call path (bulkhead, quota, circuit breaker, pooled client, telemetry)
+ * against the Gemini stub server, wired the way gemini.api.url wires the real API.
+ */
+class AiServiceIntegrationTest {
+
+    private GeminiStubServer stub;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundHttpService outboundHttp;
+    private AiTelemetryService telemetry;
+    private AiCircuitBreaker circuitBreaker;
+    private AiService aiService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = new GeminiStubServer();
+        meterRegistry = new SimpleMeterRegistry();
+        outboundHttp = new OutboundHttpService(meterRegistry, 1000, 32, 1000);
+        telemetry = new AiTelemetryService(meterRegistry, mock(AiUsageDailyRepository.class), 3600, false, 0, 0.30, 2.50);
+        circuitBreaker = new AiCircuitBreaker(meterRegistry, 10, 5, 50, 10000, 100, 30000);
+        aiService = new AiService(meterRegistry, new AiResponseCache(meterRegistry, 100, 60),
+                new AiPromptService(mock(RecipeRepository.class), 100),
+                new AiQuickAnswerService(meterRegistry, mock(RecipeFaqService.class)),
+                new AiConversationService(meterRegistry, 100, 1000, 30),
+                new AiQuotaScheduler(meterRegistry, 60000, 100, 100, 5000),
+                circuitBreaker,
+                outboundHttp, telemetry, 5000, 500, 16, 32, 10000);
+        ReflectionTestUtils.setField(aiService, "geminiApiKey", "test-key");
+        ReflectionTestUtils.setField(aiService, "geminiApiUrl", stub.getUrl());
+        ReflectionTestUtils.setField(aiService, "geminiModel", "gemini-2.5-flash");
+    }
+
+    @AfterEach
+    void tearDown() {
+        aiService.shutdown();
+        telemetry.shutdown();
+        outboundHttp.shutdown();
+        stub.close();
+    }
+
+    @Test
+    void testHealthReportsModelsFromStub() {
+        // Arrange
+        GeminiHealthIndicator healthIndicator = new GeminiHealthIndicator(aiService, circuitBreaker, new StartupTimingReport(10));
+        assertEquals(Status.UNKNOWN, healthIndicator.health().getStatus());
+
+        // Act
+        healthIndicator.check();
+        Health health = healthIndicator.health();
+
+        // Assert
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(true, health.getDetails().get("modelAvailable"));
+        assertEquals("CLOSED", health.getDetails().get("circuitBreaker"));
+        assertEquals(1, stub.getRequestCount("models"));
+    }
+
+    @Test
+    void testHealthStaysUnknownWhenGeminiIsUnreachable() {
+        // Arrange
+        GeminiHealthIndicator healthIndicator = new GeminiHealthIndicator(aiService, circuitBreaker, new StartupTimingReport(10));
+        stub.close();
+
+        // Act
+        healthIndicator.check();
+
+        // Assert
+        assertEquals(Status.UNKNOWN, healthIndicator.health().getStatus());
+        assertEquals("unreachable", healthIndicator.health().getDetails().get("state"));
+    }
+
+    @Test
+    void testConcurrentQuestionsAreAnsweredWithUsage() throws Exception {
+        // Arrange
+        stub.latency(GeminiStubServer.LatencyDistribution.uniform(20, 60)).responseWords(10, 30);
+        List<CompletableFuture<String>> answers = new CopyOnWriteArrayList<>();
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            answers.add(aiService.getAiResponseAsync("Question " + i, null, null, null, 7L));
+        }
+
+        // Assert
+        for (CompletableFuture<String> answer : answers) {
+            String text = answer.get(10, TimeUnit.SECONDS);
+            assertFalse(text.startsWith("Error"), text);
+            assertTrue(text.split(" ").length >= 10);
+        }
+        assertEquals(20, stub.getRequestCount("generateContent"));
+        assertEquals(20.0, meterRegistry.get("chefmate.ai.requests").tag("source", "UPSTREAM").counter().count());
+        assertEquals(20, meterRegistry.get("chefmate.ai.tokens").tag("type", "response").summary().count());
+    }
+
+    @Test
+    void testStreamDeliversEveryChunk() throws Exception {
+        // Arrange
+        stub.responseWords(12, 12).streamChunks(4);
+        List<String> events = new CopyOnWriteArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        SseEmitter emitter = new SseEmitter(5000L) {
+            @Override
+            public void send(SseEventBuilder builder) {
+                builder.build().stream()
+                        .filter(part -> part.getData() instanceof String text && text.startsWith("event:"))
+                        .forEach(part -> events.add(((String) part.getData()).split("\n")[0]));
+            }
+
+            @Override
+            public void complete() {
+                completed.countDown();
+            }
+        };
+
+        // Act
+        aiService.streamAiResponse("Talk me through it", null, null, null, 7L, emitter);
+
+        // Assert
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("event:chunk", "event:chunk", "event:chunk", "event:chunk", "event:done"), events);
+        assertEquals(1, stub.getRequestCount("streamGenerateContent"));
+    }
+
+    @Test
+    void testUnavailableUpstreamOpensCircuit() {
+        // Arrange
+        stub.errorRate(503, 1.0);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            aiService.getAiResponse("Question " + i, null, null);
+        }
+        String fallback = aiService.getAiResponse("One more", null, null);
+
+        // Assert
+        assertTrue(fallback.startsWith("The AI assistant is temporarily unavailable"));
+        assertEquals(5, stub.getRequestCount("generateContent"));
+        assertEquals(5.0, meterRegistry.get("chefmate.ai.errors").tag("class", "server_error").counter().count());
+    }
+
+    @Test
+    void testSlowUpstreamHitsReadTimeout() {
+        // Arrange
+        stub.latency(GeminiStubServer.LatencyDistribution.fixed(1500));
+
+        // Act
+        String answer = aiService.getAiResponse("Anyone there?", null, null);
+
+        // Assert
+        assertTrue(answer.startsWith("Error communicating with AI"));
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.errors").tag("class", "timeout").counter().count());
+    }
+}
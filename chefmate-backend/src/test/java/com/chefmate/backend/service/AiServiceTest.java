@@ -0,0 +1,560 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.dto.AiResponse;
+import com.chefmate.backend.repository.AiUsageDailyRepository;
+import com.chefmate.backend.repository.RecipeRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Streams against a local stub of the Gemini API instead of the real service.
+ */
+class AiServiceTest {
+
+    private HttpServer stub;
+    private volatile StubHandler stubHandler;
+    private final List<String> receivedApiKeys = new CopyOnWriteArrayList<>();
+    private final List<String> receivedQueries = new CopyOnWriteArrayList<>();
+    private final List<String> receivedBodies = new CopyOnWriteArrayList<>();
+
+    private SimpleMeterRegistry meterRegistry;
+    private AiCircuitBreaker circuitBreaker;
+    private OutboundHttpService outboundHttp;
+    private AiTelemetryService telemetry;
+    private long readTimeoutMillis = 2000;
+    private AiService aiService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/", exchange -> {
+            receivedApiKeys.add(exchange.getRequestHeaders().getFirst("x-goog-api-key"));
+            receivedQueries.add(exchange.getRequestURI().getQuery());
+            receivedBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            try {
+                stubHandler.handle(exchange);
+            } catch (Exception e) {
+                // The client may already be gone
+            } finally {
+                exchange.close();
+            }
+        });
+        stub.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new AiCircuitBreaker(meterRegistry, 10, 10, 50, 10000, 100, 30000);
+        outboundHttp = new OutboundHttpService(meterRegistry, 1000, 16, 1000);
+        telemetry = new AiTelemetryService(meterRegistry, mock(AiUsageDailyRepository.class), 3600, false, 0, 0.30, 2.50);
+        aiService = newService(4, 4, 10000);
+    }
+
+    private AiService newService(int maxConcurrent, int queueCapacity, long queueTimeoutMillis) {
+        AiService service = new AiService(meterRegistry, new AiResponseCache(meterRegistry, 100, 60),
+                new AiPromptService(mock(RecipeRepository.class), 100), new AiQuickAnswerService(meterRegistry, mock(RecipeFaqService.class)),
+                new AiConversationService(meterRegistry, 100, 1000, 30),
+                new AiQuotaScheduler(meterRegistry, 6000, 100, 100, 5000), circuitBreaker,
+                outboundHttp, telemetry, 5000, readTimeoutMillis, maxConcurrent, queueCapacity, queueTimeoutMillis);
+        ReflectionTestUtils.setField(service, "geminiApiKey", "test-key");
+        ReflectionTestUtils.setField(service, "geminiApiUrl", "http://127.0.0.1:" + stub.getAddress().getPort());
+        ReflectionTestUtils.setField(service, "geminiModel", "test-model");
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() {
+        aiService.shutdown();
+        outboundHttp.shutdown();
+        telemetry.shutdown();
+        stub.stop(0);
+    }
+
+    @Test
+    void testStreamAiResponse_RelaysChunksAsTheyArrive() throws Exception {
+        // Arrange
+        stubHandler = exchange -> {
+            OutputStream out = startEventStream(exchange);
+            writeChunk(out, "Preheat ");
+            Thread.sleep(50);
+            writeChunk(out, "the oven\\n");
+            Thread.sleep(50);
+            writeChunk(out, "to 180C.");
+        };
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        // Act
+        aiService.streamAiResponse("How hot?", null, null, null, null, emitter);
+
+        // Assert
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("chunk:Preheat ", "chunk:the oven\n", "chunk:to 180C.", "done:"), emitter.events);
+        assertEquals(1, meterRegistry.get("chefmate.ai.stream.first.token").timer().count());
+        assertEquals(1, meterRegistry.get("chefmate.ai.stream.duration").timer().count());
+        assertEquals(List.of("test-key"), receivedApiKeys);
+        assertEquals(List.of("alt=sse"), receivedQueries);
+    }
+
+    @Test
+    void testStreamAiResponse_CacheableAnswerIsAskedWithoutSessionDetails() throws Exception {
+        // Arrange
+        stubHandler = exchange -> writeChunk(startEventStream(exchange), "Flip it.");
+        Map<String, Object> context = new HashMap<>();
+        context.put("currentStep", 2);
+        context.put("totalSteps", 4);
+        context.put("elapsedTimeSeconds", 95);
+        context.put("stoveSetting", "high");
+        context.put("usedIngredients", List.of("flour"));
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        // Act
+        aiService.streamAiResponse("What now?", null, context, null, null, emitter);
+
+        // Assert
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        String body = receivedBodies.get(0);
+        assertTrue(body.contains("Current Step: 2/4"));
+        assertFalse(body.contains("Stove Setting"));
+        assertFalse(body.contains("Elapsed Time"));
+        assertFalse(body.contains("Used Ingredients"));
+    }
+
+    @Test
+    void testStreamAiResponse_ClientDisconnectAbortsUpstream() throws Exception {
+        // Arrange
+        CountDownLatch releaseStub = new CountDownLatch(1);
+        stubHandler = exchange -> {
+            OutputStream out = startEventStream(exchange);
+            writeChunk(out, "First");
+            // Hold the response open as a slow generation would
+            releaseStub.await(10, TimeUnit.SECONDS);
+            writeChunk(out, "Never delivered");
+        };
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        try {
+            // Act
+            aiService.streamAiResponse("Tell me everything", null, null, null, null, emitter);
+            assertTrue(emitter.firstEvent.await(5, TimeUnit.SECONDS));
+            emitter.completionCallback.run();
+
+            // Assert
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (aiService.getActiveStreamCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, aiService.getActiveStreamCount());
+            assertEquals(1.0, meterRegistry.get("chefmate.ai.stream.cancelled").counter().count());
+            assertEquals(List.of("chunk:First"), emitter.events);
+        } finally {
+            releaseStub.countDown();
+        }
+    }
+
+    @Test
+    void testStreamAiResponse_CancelledHalfOpenProbeFreesTheBreaker() throws Exception {
+        // Arrange
+        useCircuitBreaker(2, 10000, 100);
+        stubHandler = exchange -> exchange.sendResponseHeaders(500, -1);
+        aiService.getAiResponse("Question 1", null, null);
+        aiService.getAiResponse("Question 2", null, null);
+        Thread.sleep(150);
+        CountDownLatch releaseStub = new CountDownLatch(1);
+        stubHandler = exchange -> {
+            // Gemini still thinking, no headers yet
+            releaseStub.await(10, TimeUnit.SECONDS);
+            writeAnswer(exchange, "Too late.");
+        };
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        try {
+            // Act: the probe's client leaves before Gemini answers
+            aiService.streamAiResponse("Still there?", null, null, null, null, emitter);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (receivedQueries.size() < 3 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            emitter.completionCallback.run();
+            while (aiService.getActiveStreamCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            // Assert: the next caller may probe at once instead of after another open-duration
+            assertEquals(0, aiService.getActiveStreamCount());
+            assertEquals(AiCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+            assertTrue(circuitBreaker.tryAcquirePermission());
+        } finally {
+            releaseStub.countDown();
+        }
+    }
+
+    @Test
+    void testStreamAiResponse_UpstreamErrorSendsErrorEvent() throws Exception {
+        // Arrange
+        stubHandler = exchange -> {
+            byte[] body = "{\"error\":{\"code\":429}}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(429, body.length);
+            exchange.getResponseBody().write(body);
+        };
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        // Act
+        aiService.streamAiResponse("Hello", null, null, null, null, emitter);
+
+        // Assert
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("error:Error communicating with AI: 429"), emitter.events);
+        assertEquals(0, meterRegistry.get("chefmate.ai.stream.first.token").timer().count());
+    }
+
+    @Test
+    void testStreamAiResponse_WithoutApiKeyStreamsDefaultResponse() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(aiService, "geminiApiKey", "");
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        // Act
+        aiService.streamAiResponse("Hello", null, null, null, null, emitter);
+
+        // Assert
+        assertTrue(emitter.completed.await(1, TimeUnit.SECONDS));
+        assertEquals(2, emitter.events.size());
+        assertTrue(emitter.events.get(0).startsWith("chunk:Hello! I'm your cooking assistant."));
+        assertTrue(receivedQueries.isEmpty());
+    }
+
+    @Test
+    void testGetAiResponseAsync_RejectsImmediatelyWhenBulkheadIsFull() throws Exception {
+        // Arrange
+        aiService.shutdown();
+        aiService = newService(1, 1, 10000);
+        CountDownLatch releaseStub = new CountDownLatch(1);
+        stubHandler = exchange -> {
+            releaseStub.await(10, TimeUnit.SECONDS);
+            writeAnswer(exchange, "Rest it for 30 minutes.");
+        };
+
+        try {
+            // Act
+            CompletableFuture<String> running = aiService.getAiResponseAsync("How long?", null, null, null, null);
+            CompletableFuture<String> queued = aiService.getAiResponseAsync("How long?", null, null, null, null);
+            long rejectStart = System.nanoTime();
+            assertThrows(RejectedExecutionException.class,
+                    () -> aiService.getAiResponseAsync("How long?", null, null, null, null));
+            long rejectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - rejectStart);
+
+            // Assert
+            assertFalse(running.isDone());
+            assertFalse(queued.isDone());
+            assertTrue(rejectMillis < 100, "rejection took " + rejectMillis + "ms");
+            assertEquals(1.0, meterRegistry.get("chefmate.ai.rejected").counter().count());
+
+            releaseStub.countDown();
+            assertEquals("Rest it for 30 minutes.", running.get(5, TimeUnit.SECONDS));
+            assertEquals("Rest it for 30 minutes.", queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            releaseStub.countDown();
+        }
+    }
+
+    @Test
+    void testGetAiResponseAsync_QueuedTooLongIsRejected() throws Exception {
+        // Arrange
+        aiService.shutdown();
+        aiService = newService(1, 1, 50);
+        stubHandler = exchange -> {
+            Thread.sleep(300);
+            writeAnswer(exchange, "Done.");
+        };
+
+        // Act
+        CompletableFuture<String> running = aiService.getAiResponseAsync("First", null, null, null, null);
+        CompletableFuture<String> queued = aiService.getAiResponseAsync("Second", null, null, null, null);
+
+        // Assert
+        assertEquals("Done.", running.get(5, TimeUnit.SECONDS));
+        ExecutionException error = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertEquals(1, receivedQueries.size());
+    }
+
+    @Test
+    void testGetAiResponse_RepeatedQuestionIsServedFromCache() {
+        // Arrange
+        stubHandler = exchange -> writeAnswer(exchange, "Yes, use margarine.");
+
+        // Act
+        String first = aiService.getAiResponse("Can I substitute butter?", 1L, null);
+        String second = aiService.getAiResponse("can I substitute butter", 1L, null);
+
+        // Assert
+        assertEquals("Yes, use margarine.", first);
+        assertEquals(first, second);
+        assertEquals(1, receivedQueries.size());
+        assertNull(receivedQueries.get(0));
+        assertEquals(List.of("test-key"), receivedApiKeys);
+    }
+
+    @Test
+    void testGetAiResponse_RecordsTokensAndCachedAnswers() {
+        // Arrange
+        stubHandler = exchange -> writeAnswer(exchange, "Yes, use margarine.");
+
+        // Act
+        aiService.getAiResponse("Can I substitute butter?", 1L, null, null, 7L);
+        aiService.getAiResponse("Can I substitute butter?", 1L, null, null, 7L);
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.requests").tag("source", "UPSTREAM").counter().count());
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.requests").tag("source", "CACHED").counter().count());
+        assertEquals(120.0, meterRegistry.get("chefmate.ai.tokens").tag("type", "prompt").summary().totalAmount());
+        assertEquals(30.0, meterRegistry.get("chefmate.ai.tokens").tag("type", "response").summary().totalAmount());
+    }
+
+    @Test
+    void testGetAiResponse_FollowUpSendsEarlierTurns() {
+        // Arrange
+        stubHandler = exchange -> writeAnswer(exchange, "Answer " + receivedBodies.size());
+
+        // Act
+        aiService.getAiResponse("How long do I rest the dough?", 1L, null, "7:session");
+        String followUp = aiService.getAiResponse("And at what temperature?", 1L, null, "7:session");
+
+        // Assert
+        assertEquals("Answer 2", followUp);
+        String body = receivedBodies.get(1);
+        assertTrue(body.indexOf("How long do I rest the dough?") < body.indexOf("Answer 1"));
+        assertTrue(body.indexOf("Answer 1") < body.indexOf("And at what temperature?"));
+        assertTrue(body.contains("\"role\":\"model\""));
+    }
+
+    @Test
+    void testGetAiResponse_StructuredQuestionIsAnsweredLocally() {
+        // Arrange
+        stubHandler = exchange -> writeAnswer(exchange, "From Gemini.");
+        Map<String, Object> context = new HashMap<>();
+        context.put("recipeTitle", "Pancakes");
+        context.put("recipeSteps", List.of("Mix", "Rest 10 minutes", "Fry"));
+        context.put("currentStep", 2);
+
+        // Act
+        String next = aiService.getAiResponse("What's the next step?", null, context);
+        String other = aiService.getAiResponse("Why did my batter go lumpy?", null, context);
+
+        // Assert
+        assertEquals("Step 3 of 3: Fry", next);
+        assertEquals("From Gemini.", other);
+        assertEquals(1, receivedQueries.size());
+        assertEquals(50.0, meterRegistry.get("chefmate.ai.quick.local.percent").gauge().value());
+    }
+
+    @Test
+    void testGetAiResponse_FailingUpstreamOpensCircuitAndFallsBackLocally() {
+        // Arrange
+        useCircuitBreaker(4, 10000, 60000);
+        stubHandler = exchange -> exchange.sendResponseHeaders(503, -1);
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            aiService.getAiResponse("Question " + i, null, null);
+        }
+        long fallbackStart = System.nanoTime();
+        String fallback = aiService.getAiResponse("Question 4", null, null);
+        long fallbackMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - fallbackStart);
+
+        // Assert
+        assertEquals(AiCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertTrue(fallback.startsWith("The AI assistant is temporarily unavailable."));
+        assertTrue(fallbackMillis < 100, "fallback took " + fallbackMillis + "ms");
+        assertEquals(4, receivedQueries.size());
+        assertEquals(4, meterRegistry.get("chefmate.ai.upstream.latency").tag("outcome", "error").timer().count());
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.circuit.transitions").tag("to", "OPEN").counter().count());
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.circuit.fallbacks").counter().count());
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.circuit.state").gauge().value());
+    }
+
+    @Test
+    void testGetAiResponse_SuccessfulProbeClosesCircuit() throws Exception {
+        // Arrange
+        useCircuitBreaker(2, 10000, 100);
+        stubHandler = exchange -> exchange.sendResponseHeaders(500, -1);
+        aiService.getAiResponse("Question 1", null, null);
+        aiService.getAiResponse("Question 2", null, null);
+        assertEquals(AiCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        stubHandler = exchange -> writeAnswer(exchange, "Back again.");
+
+        // Act
+        String whileOpen = aiService.getAiResponse("Question 3", null, null);
+        Thread.sleep(150);
+        String probe = aiService.getAiResponse("Question 3", null, null);
+
+        // Assert
+        assertTrue(whileOpen.startsWith("The AI assistant is temporarily unavailable."));
+        assertEquals("Back again.", probe);
+        assertEquals(AiCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.circuit.transitions")
+                .tags("from", "OPEN", "to", "HALF_OPEN").counter().count());
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.circuit.transitions")
+                .tags("from", "HALF_OPEN", "to", "CLOSED").counter().count());
+        assertEquals(3, receivedQueries.size());
+    }
+
+    @Test
+    void testGetAiResponse_HungUpstreamIsCutOffByReadTimeout() {
+        // Arrange
+        readTimeoutMillis = 200;
+        useCircuitBreaker(10, 150, 30000);
+        CountDownLatch releaseStub = new CountDownLatch(1);
+        stubHandler = exchange -> {
+            releaseStub.await(5, TimeUnit.SECONDS);
+            writeAnswer(exchange, "Too late.");
+        };
+
+        try {
+            // Act
+            long start = System.nanoTime();
+            String answer = aiService.getAiResponse("Anyone there?", null, null);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Assert
+            assertTrue(answer.startsWith("Error communicating with AI"));
+            assertTrue(elapsedMillis < 2000, "call took " + elapsedMillis + "ms");
+            assertEquals(1, meterRegistry.get("chefmate.ai.upstream.latency").tag("outcome", "error").timer().count());
+        } finally {
+            releaseStub.countDown();
+        }
+    }
+
+    @Test
+    void testStreamAiResponse_OpenCircuitStreamsFallback() throws Exception {
+        // Arrange
+        useCircuitBreaker(1, 10000, 60000);
+        stubHandler = exchange -> exchange.sendResponseHeaders(502, -1);
+        aiService.getAiResponse("Hello", null, null);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        // Act
+        aiService.streamAiResponse("Hello again", null, null, null, null, emitter);
+
+        // Assert
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(2, emitter.events.size());
+        assertTrue(emitter.events.get(0).startsWith("chunk:The AI assistant is temporarily unavailable."));
+        assertEquals("done:", emitter.events.get(1));
+        assertEquals(1, receivedQueries.size());
+    }
+
+    // Fresh registry so the state gauge follows the new breaker; trips at a 50% failure rate
+    private void useCircuitBreaker(int windowSize, long slowCallMillis, long openDurationMillis) {
+        aiService.shutdown();
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new AiCircuitBreaker(meterRegistry, windowSize, windowSize, 50, slowCallMillis, 100, openDurationMillis);
+        aiService = newService(4, 4, 10000);
+    }
+
+    private static void writeAnswer(HttpExchange exchange, String text) throws IOException {
+        byte[] body = ("{\"candidates\": [{\"content\": {\"parts\": [{\"text\": \"" + text + "\"}]}}],"
+                + " \"usageMetadata\": {\"promptTokenCount\": 120, \"candidatesTokenCount\": 30}}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static OutputStream startEventStream(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        return exchange.getResponseBody();
+    }
+
+    private static void writeChunk(OutputStream out, String jsonEscapedText) throws IOException {
+        String event = "data: {\"candidates\": [{\"content\": {\"parts\": [{\"text\": \"" + jsonEscapedText
+                + "\"}],\"role\": \"model\"}}]}\r\n\r\n";
+        out.write(event.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    @FunctionalInterface
+    private interface StubHandler {
+        void handle(HttpExchange exchange) throws Exception;
+    }
+
+    /**
+     * Captures what would be written to the client, since there is no servlet response in a unit test.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private static final Pattern EVENT_NAME = Pattern.compile("event:(\\w+)");
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch firstEvent = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile Runnable completionCallback = () -> { };
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            String name = "";
+            String text = "";
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                Object data = part.getData();
+                if (data instanceof AiResponse response) {
+                    text = response.getResponse();
+                } else {
+                    Matcher matcher = EVENT_NAME.matcher(data.toString());
+                    if (matcher.find()) {
+                        name = matcher.group(1);
+                    }
+                }
+            }
+            events.add(name + ":" + text);
+            firstEvent.countDown();
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            completed.countDown();
+        }
+
+        @Override
+        public void onCompletion(Runnable callback) {
+            completionCallback = callback;
+        }
+
+        @Override
+        public void onTimeout(Runnable callback) {
+        }
+
+        @Override
+        public void onError(Consumer<Throwable> callback) {
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.entity.AiUsageDaily;
+import com.chefmate.backend.repository.AiUsageDailyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpTimeoutException;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class AiTelemetryServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AiUsageDailyRepository usageRepository;
+    private AiTelemetryService telemetry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        usageRepository = mock(AiUsageDailyRepository.class);
+        telemetry = new AiTelemetryService(meterRegistry, usageRepository, 3600, false, 1.0, 0.30, 2.50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        telemetry.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_SumsUsagePerUserAndRecipe() throws Exception {
+        // Arrange
+        telemetry.recordUpstream(7L, 3L, TimeUnit.MILLISECONDS.toNanos(800), new ObjectMapper().readTree(
+                "{\"promptTokenCount\": 100, \"candidatesTokenCount\": 40, \"thoughtsTokenCount\": 10}"));
+        telemetry.record(7L, 3L, AiTelemetryService.Source.CACHED);
+        telemetry.record(7L, 3L, AiTelemetryService.Source.LOCAL);
+        telemetry.record(7L, null, AiTelemetryService.Source.LOCAL);
+        telemetry.recordError(8L, 3L, "timeout");
+
+        // Act
+        telemetry.flush();
+
+        // Assert
+        ArgumentCaptor<List<AiUsageDaily>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(usageRepository).addAll(deltas.capture());
+        AiUsageDaily user = deltas.getValue().stream()
+                .filter(d -> d.getUserId() == 7L && d.getRecipeId() == 3L).findFirst().orElseThrow();
+        AiUsageDaily noRecipe = deltas.getValue().stream()
+                .filter(d -> d.getUserId() == 7L && d.getRecipeId() == AiTelemetryService.NO_RECIPE).findFirst().orElseThrow();
+        assertEquals(3, user.getRequests());
+        assertEquals(1, user.getUpstreamCalls());
+        assertEquals(1, user.getCachedAnswers());
+        assertEquals(1, user.getLocalAnswers());
+        assertEquals(100, user.getPromptTokens());
+        assertEquals(50, user.getResponseTokens());
+        assertEquals(800, user.getUpstreamMillis());
+        // 100 prompt tokens at $0.30 and 50 response tokens at $2.50 per million
+        assertEquals(155, user.getCostMicroUsd());
+        assertEquals(1, noRecipe.getLocalAnswers());
+        assertEquals(0, noRecipe.getCostMicroUsd());
+        assertEquals(3, deltas.getValue().size());
+        assertEquals(0.000155, meterRegistry.get("chefmate.ai.cost").counter().count(), 1e-9);
+        assertEquals(1.0, meterRegistry.get("chefmate.ai.errors").tag("class", "timeout").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_FailedWriteIsRetriedWithNextFlush() {
+        // Arrange
+        telemetry.record(7L, null, AiTelemetryService.Source.LOCAL);
+        doThrow(new RuntimeException("database down")).doNothing().when(usageRepository).addAll(anyList());
+
+        // Act
+        telemetry.flush();
+        telemetry.record(7L, null, AiTelemetryService.Source.LOCAL);
+        telemetry.flush();
+        telemetry.flush();
+
+        // Assert: nothing new after the successful flush, so the last one writes nothing
+        ArgumentCaptor<List<AiUsageDaily>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(usageRepository, times(2)).addAll(deltas.capture());
+        assertEquals(2, deltas.getAllValues().get(1).get(0).getLocalAnswers());
+    }
+
+    @Test
+    void testErrorClass_GroupsFailures() {
+        assertEquals("throttled", AiTelemetryService.errorClass(429));
+        assertEquals("client_error", AiTelemetryService.errorClass(400));
+        assertEquals("server_error", AiTelemetryService.errorClass(
+                new HttpServerErrorException(HttpStatus.BAD_GATEWAY)));
+        assertEquals("timeout", AiTelemetryService.errorClass(
+                new ResourceAccessException("timed out", new HttpTimeoutException("request timed out"))));
+        assertEquals("timeout", AiTelemetryService.errorClass(new ResourceAccessException("timed out",
+                new IOException("Request timed out", new TimeoutException()))));
+        assertEquals("io", AiTelemetryService.errorClass(new ResourceAccessException("refused", new ConnectException())));
+        assertEquals("rejected", AiTelemetryService.errorClass(new RejectedExecutionException()));
+        assertEquals("bad_response", AiTelemetryService.errorClass(new IllegalStateException()));
+    }
+
+    @Test
+    void testSampleBody_OffUnlessSwitchedOn() {
+        assertFalse(telemetry.sampleBody());
+        AiTelemetryService debugging = new AiTelemetryService(meterRegistry, usageRepository, 3600, true, 1.0, 0.30, 2.50);
+        try {
+            assertTrue(debugging.sampleBody());
+        } finally {
+            debugging.shutdown();
+        }
+    }
+}
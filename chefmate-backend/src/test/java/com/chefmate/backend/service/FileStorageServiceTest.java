@@ -0,0 +1,146 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.config.FileStorageProperties;
+import com.chefmate.backend.entity.StoredFile;
+import com.chefmate.backend.repository.StoredFileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FileStorageServiceTest {
+
+    // SHA-256 of "pancakes"
+    private static final String DIGEST = "d0403be2999c4899ef3a3e3d66d55df4689f7fc57ebf8ab5797594924d124f99";
+
+    @TempDir
+    Path uploadDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StoredFileRepository storedFileRepository;
+    private FileStorageService fileStorageService;
+    private Map<String, StoredFile> storedFiles;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.setUploadDir(uploadDir.toString());
+        meterRegistry = new SimpleMeterRegistry();
+        storedFileRepository = mock(StoredFileRepository.class);
+        fileStorageService = new FileStorageService(properties, storedFileRepository, meterRegistry);
+
+        // Behaves like the upsert: the first file name registered for a digest wins
+        storedFiles = new HashMap<>();
+        when(storedFileRepository.acquire(anyString(), anyString(), anyLong())).thenAnswer(invocation -> {
+            StoredFile storedFile = storedFiles.computeIfAbsent(invocation.getArgument(0), digest -> {
+                StoredFile created = new StoredFile();
+                created.setDigest(digest);
+                created.setFileName(invocation.getArgument(1));
+                created.setSizeBytes(invocation.getArgument(2));
+                return created;
+            });
+            storedFile.setRefCount(storedFile.getRefCount() + 1);
+            return storedFile;
+        });
+    }
+
+    @Test
+    void testStoreFile_NamesFileAfterContentDigest() throws Exception {
+        // Act
+        String fileName = fileStorageService.storeFile(upload("My Photo.JPG", "pancakes"));
+
+        // Assert
+        assertEquals(DIGEST + ".jpg", fileName);
+        assertEquals("pancakes", Files.readString(uploadDir.resolve(fileName)));
+        verify(storedFileRepository).acquire(DIGEST, DIGEST + ".jpg", 8L);
+    }
+
+    @Test
+    void testStoreFile_SameContentIsWrittenOnce() throws Exception {
+        // Act
+        String first = fileStorageService.storeFile(upload("photo.jpg", "pancakes"));
+        String second = fileStorageService.storeFile(upload("edited.jpeg", "pancakes"));
+        String other = fileStorageService.storeFile(upload("photo.jpg", "waffles"));
+
+        // Assert
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertEquals(DIGEST + ".jpg", first);
+        assertEquals(2, storedFiles.get(DIGEST).getRefCount());
+        assertEquals(1.0, meterRegistry.get("chefmate.uploads.deduplicated").counter().count());
+        try (Stream<Path> files = Files.list(uploadDir)) {
+            // Two blobs, no temporary files left behind
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void testDeleteFile_KeepsFileUntilLastReference() throws Exception {
+        // Arrange
+        String fileName = fileStorageService.storeFile(upload("photo.jpg", "pancakes"));
+        when(storedFileRepository.release(fileName)).thenReturn(1, 0);
+
+        // Act & Assert
+        fileStorageService.deleteFile(fileName);
+        assertTrue(Files.exists(uploadDir.resolve(fileName)));
+        fileStorageService.deleteFile(fileName);
+        assertFalse(Files.exists(uploadDir.resolve(fileName)));
+    }
+
+    @Test
+    void testDeleteFile_VariantsGoWithLastReference() throws Exception {
+        // Arrange
+        String fileName = fileStorageService.storeFile(upload("photo.jpg", "pancakes"));
+        Path variants = Files.createDirectories(uploadDir.resolve("variants"));
+        Files.writeString(variants.resolve(DIGEST + "_w200.jpg"), "small");
+        Files.writeString(variants.resolve(DIGEST + "_w1200.jpg"), "large");
+        Files.writeString(variants.resolve("other_w200.jpg"), "someone else's");
+        when(storedFileRepository.release(fileName)).thenReturn(1, 0);
+
+        // Act & Assert
+        fileStorageService.deleteFile(fileName);
+        assertTrue(Files.exists(variants.resolve(DIGEST + "_w200.jpg")));
+        fileStorageService.deleteFile(fileName);
+        assertFalse(Files.exists(variants.resolve(DIGEST + "_w200.jpg")));
+        assertFalse(Files.exists(variants.resolve(DIGEST + "_w1200.jpg")));
+        assertTrue(Files.exists(variants.resolve("other_w200.jpg")));
+    }
+
+    @Test
+    void testDeleteFile_UntrackedFileIsDeleted() throws Exception {
+        // Arrange
+        Files.writeString(uploadDir.resolve("1234_old.jpg"), "legacy");
+        when(storedFileRepository.release("1234_old.jpg")).thenReturn(null);
+
+        // Act
+        fileStorageService.deleteFile("1234_old.jpg");
+
+        // Assert
+        assertFalse(Files.exists(uploadDir.resolve("1234_old.jpg")));
+        assertThrows(RuntimeException.class, () -> fileStorageService.deleteFile("../outside.jpg"));
+        verify(storedFileRepository, never()).release("../outside.jpg");
+    }
+
+    @Test
+    void testExtension_OnlyShortAlphanumeric() {
+        assertEquals(".png", FileStorageService.extension("photo.PNG"));
+        assertEquals("", FileStorageService.extension("photo"));
+        assertEquals("", FileStorageService.extension("photo.j p g"));
+        assertEquals("", FileStorageService.extension("null"));
+    }
+
+    private static MockMultipartFile upload(String fileName, String content) {
+        return new MockMultipartFile("image", fileName, "image/jpeg", content.getBytes());
+    }
+}
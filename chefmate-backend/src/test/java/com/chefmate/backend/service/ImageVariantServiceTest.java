@@ -0,0 +1,126 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.config.FileStorageProperties;
+import com.chefmate.backend.repository.RecipeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecipeRepository recipeRepository;
+    private ImageVariantService imageVariantService;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.setUploadDir(uploadDir.toString());
+        meterRegistry = new SimpleMeterRegistry();
+        recipeRepository = mock(RecipeRepository.class);
+        imageVariantService = new ImageVariantService(recipeRepository, properties, meterRegistry,
+                new int[] {1200, 200, 600}, 0.8f, 1, 10, 24_000_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageVariantService.shutdown();
+    }
+
+    @Test
+    void testGenerate_WritesNarrowerWidthsOnly() throws Exception {
+        // Arrange
+        writeImage("photo.png", 1000, 500);
+
+        // Act
+        Map<String, String> variants = imageVariantService.generate("photo.png");
+
+        // Assert
+        assertEquals(Map.of("200", "/uploads/variants/photo_w200.jpg", "600", "/uploads/variants/photo_w600.jpg"), variants);
+        BufferedImage small = ImageIO.read(uploadDir.resolve("variants/photo_w200.jpg").toFile());
+        assertEquals(200, small.getWidth());
+        assertEquals(100, small.getHeight());
+        assertFalse(Files.exists(uploadDir.resolve("variants/photo_w1200.jpg")));
+    }
+
+    @Test
+    void testProcess_RecordsVariantsOnRecipe() throws Exception {
+        // Arrange
+        writeImage("photo.png", 1600, 1200);
+
+        // Act
+        imageVariantService.process(7L, "/uploads/photo.png");
+
+        // Assert
+        verify(recipeRepository).saveImageVariants(eq(7L), eq("/uploads/photo.png"),
+                eq("{\"200\":\"/uploads/variants/photo_w200.jpg\",\"600\":\"/uploads/variants/photo_w600.jpg\","
+                        + "\"1200\":\"/uploads/variants/photo_w1200.jpg\"}"));
+        assertEquals(1.0, meterRegistry.get("chefmate.images.variants.generated").counter().count());
+    }
+
+    @Test
+    void testProcess_SmallOrNonImageUploadsAreNotRecorded() throws Exception {
+        // Arrange
+        writeImage("icon.png", 150, 150);
+        Files.writeString(uploadDir.resolve("notes.txt"), "not an image");
+
+        // Act
+        imageVariantService.process(7L, "/uploads/icon.png");
+        imageVariantService.process(7L, "/uploads/notes.txt");
+        imageVariantService.process(7L, "/uploads/missing.png");
+
+        // Assert
+        verify(recipeRepository, never()).saveImageVariants(anyLong(), anyString(), anyString());
+        assertEquals(1.0, meterRegistry.get("chefmate.images.variants.failed").counter().count());
+    }
+
+    @Test
+    void testSubmit_SkipsExternalUrls() {
+        // Act
+        imageVariantService.submit(7L, List.of("https://example.com/photo.jpg"));
+
+        // Assert
+        assertEquals(0.0, meterRegistry.get("chefmate.images.variants.rejected").counter().count());
+        verifyNoInteractions(recipeRepository);
+    }
+
+    @Test
+    void testSubsampling_KeepsTargetWidthAndPixelCap() {
+        // A 12MP photo decodes at a third of its width for 1200px variants
+        assertEquals(3, ImageVariantService.subsampling(4000, 3000, 1200, 24_000_000));
+        // Never below the target width
+        assertEquals(1, ImageVariantService.subsampling(1000, 800, 1200, 24_000_000));
+        // A very tall image is subsampled further to stay under the cap
+        assertEquals(5, ImageVariantService.subsampling(2400, 40000, 1200, 4_000_000));
+    }
+
+    @Test
+    void testIsVariantOf_MatchesAnyWidthOfThatUploadOnly() {
+        assertTrue(ImageVariantService.isVariantOf("abc", "abc_w200.jpg"));
+        assertTrue(ImageVariantService.isVariantOf("abc", "abc_w1600.jpg"));
+        assertFalse(ImageVariantService.isVariantOf("abc", "abc_w.jpg"));
+        assertFalse(ImageVariantService.isVariantOf("abc", "abc_wide_w200.jpg"));
+        assertFalse(ImageVariantService.isVariantOf("ab", "abc_w200.jpg"));
+    }
+
+    private void writeImage(String fileName, int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ImageIO.write(image, "png", uploadDir.resolve(fileName).toFile());
+    }
+}
@@ -0,0 +1,157 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.entity.Recipe;
+import com.chefmate.backend.entity.ShoppingList;
+import com.chefmate.backend.entity.ShoppingListItem;
+import com.chefmate.backend.utils.IngredientParser;
+import com.chefmate.backend.utils.ParsedIngredient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngredientAggregationServiceTest {
+
+    private IngredientAggregationService aggregationService;
+    private ShoppingList shoppingList;
+
+    @BeforeEach
+    void setUp() {
+        aggregationService = new IngredientAggregationService(10);
+        shoppingList = new ShoppingList();
+        shoppingList.setId(1L);
+    }
+
+    @Test
+    void testParse_QuantityUnitAndName() {
+        ParsedIngredient flour = IngredientParser.parse("1 1/2 cups of flour");
+        assertEquals(1.5, flour.getQuantity(), 1e-9);
+        assertEquals("cup", flour.getUnit());
+        assertEquals("flour", flour.getName());
+
+        ParsedIngredient butter = IngredientParser.parse("200g butter, softened");
+        assertEquals(200, butter.getQuantity(), 1e-9);
+        assertEquals("g", butter.getUnit());
+        assertEquals("butter", butter.getNormalizedName());
+
+        ParsedIngredient salt = IngredientParser.parse("½ tsp salt");
+        assertEquals(0.5, salt.getQuantity(), 1e-9);
+        assertEquals("tsp", salt.getUnit());
+
+        ParsedIngredient garlic = IngredientParser.parse("2-3 cloves garlic");
+        assertEquals(3, garlic.getQuantity(), 1e-9);
+        assertEquals("clove", garlic.getUnit());
+
+        ParsedIngredient eggs = IngredientParser.parse("2 eggs");
+        assertEquals(2, eggs.getQuantity(), 1e-9);
+        assertEquals("", eggs.getUnit());
+        assertEquals("egg", eggs.getNormalizedName());
+    }
+
+    @Test
+    void testParse_ConvertsToBaseUnitAndKeepsLinesWithoutQuantity() {
+        ParsedIngredient flour = IngredientParser.parse("1 kg flour");
+        assertEquals(1000, flour.getQuantity(), 1e-9);
+        assertEquals("g", flour.getUnit());
+
+        ParsedIngredient salt = IngredientParser.parse("salt to taste");
+        assertFalse(salt.hasQuantity());
+        assertEquals("salt to taste", salt.getName());
+
+        ParsedIngredient grapes = IngredientParser.parse("200 grapes");
+        assertEquals("", grapes.getUnit());
+        assertEquals("grape", grapes.getNormalizedName());
+    }
+
+    @Test
+    void testMergeIntoList_SumsSameIngredientAndUnit() {
+        List<ShoppingListItem> items = new ArrayList<>();
+
+        List<ShoppingListItem> changed = aggregationService.mergeIntoList(shoppingList, items, List.of(
+                IngredientParser.parse("2 eggs"),
+                IngredientParser.parse("500 g flour"),
+                IngredientParser.parse("3 Eggs, beaten"),
+                IngredientParser.parse("1 kg flour"),
+                IngredientParser.parse("salt to taste"),
+                IngredientParser.parse("salt to taste")));
+
+        assertEquals(3, items.size());
+        assertEquals(3, changed.size());
+        assertEquals("5", items.get(0).getQuantity());
+        assertEquals("", items.get(0).getUnit());
+        assertEquals("1.5", items.get(1).getQuantity());
+        assertEquals("kg", items.get(1).getUnit());
+        assertEquals("", items.get(2).getQuantity());
+    }
+
+    @Test
+    void testMergeIntoList_KeepsAmountsThatCannotBeSummed() {
+        ShoppingListItem noAmount = openItem(5L, "eggs", "");
+        ShoppingListItem handful = openItem(6L, "parsley", "a handful");
+        List<ShoppingListItem> items = new ArrayList<>(List.of(noAmount, handful));
+
+        List<ShoppingListItem> changed = aggregationService.mergeIntoList(shoppingList, items, List.of(
+                IngredientParser.parse("2 eggs"),
+                IngredientParser.parse("10 parsley"),
+                IngredientParser.parse("5 parsley")));
+
+        assertEquals(2, changed.size());
+        assertEquals("2", noAmount.getQuantity());
+        assertEquals("a handful", handful.getQuantity());
+        assertEquals(3, items.size());
+        assertEquals("parsley", items.get(2).getName());
+        assertEquals("15", items.get(2).getQuantity());
+    }
+
+    @Test
+    void testMergeIntoList_LeavesPurchasedItemsAlone() {
+        ShoppingListItem purchased = new ShoppingListItem();
+        purchased.setId(5L);
+        purchased.setName("eggs");
+        purchased.setQuantity("6");
+        purchased.setUnit("");
+        purchased.setPurchased(true);
+        purchased.setShoppingList(shoppingList);
+        List<ShoppingListItem> items = new ArrayList<>(List.of(purchased));
+
+        List<ShoppingListItem> changed = aggregationService.mergeIntoList(
+                shoppingList, items, List.of(IngredientParser.parse("2 eggs")));
+
+        assertEquals(1, changed.size());
+        assertNotSame(purchased, changed.get(0));
+        assertEquals("6", purchased.getQuantity());
+        assertEquals("2", changed.get(0).getQuantity());
+    }
+
+    @Test
+    void testParseRecipeIngredients_CachedUntilRecipeChanges() {
+        Recipe recipe = new Recipe();
+        recipe.setId(7L);
+        recipe.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        recipe.setIngredients(new ArrayList<>(List.of("2 eggs")));
+
+        List<ParsedIngredient> first = aggregationService.parseRecipeIngredients(recipe);
+        assertSame(first, aggregationService.parseRecipeIngredients(recipe));
+
+        recipe.setIngredients(new ArrayList<>(List.of("3 eggs")));
+        recipe.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 12, 0));
+        List<ParsedIngredient> updated = aggregationService.parseRecipeIngredients(recipe);
+        assertNotSame(first, updated);
+        assertEquals(3, updated.get(0).getQuantity(), 1e-9);
+    }
+
+    private ShoppingListItem openItem(Long id, String name, String quantity) {
+        ShoppingListItem item = new ShoppingListItem();
+        item.setId(id);
+        item.setName(name);
+        item.setQuantity(quantity);
+        item.setUnit("");
+        item.setPurchased(false);
+        item.setShoppingList(shoppingList);
+        return item;
+    }
+}
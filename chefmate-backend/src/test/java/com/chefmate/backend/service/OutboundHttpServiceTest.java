@@ -0,0 +1,90 @@
+package com.chefmate.backend.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundHttpServiceTest {
+
+    private HttpServer stub;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundHttpService outboundHttp;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/", exchange -> {
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        stub.setExecutor(Executors.newFixedThreadPool(4));
+        stub.start();
+        baseUrl = "http://127.0.0.1:" + stub.getAddress().getPort();
+
+        meterRegistry = new SimpleMeterRegistry();
+        // One exchange per host at a time, short wait for a slot
+        outboundHttp = new OutboundHttpService(meterRegistry, 1000, 1, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboundHttp.shutdown();
+        stub.stop(0);
+    }
+
+    @Test
+    void testRestTemplate_ReleasesHostSlotAndRecordsExchange() {
+        // Arrange
+        RestTemplate restTemplate = outboundHttp.restTemplate(1000);
+
+        // Act
+        String first = restTemplate.getForObject(baseUrl + "/a", String.class);
+        String second = restTemplate.getForObject(baseUrl + "/b", String.class);
+
+        // Assert
+        assertEquals("ok", first);
+        assertEquals("ok", second);
+        assertEquals(0, outboundHttp.getInFlight("127.0.0.1"));
+        assertEquals(2, meterRegistry.get("chefmate.http.client.requests")
+                .tags("host", "127.0.0.1", "status", "200").timer().count());
+    }
+
+    @Test
+    void testOpenStream_HoldsHostSlotUntilBodyIsClosed() throws Exception {
+        // Arrange
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/stream")).GET().build();
+        RestTemplate restTemplate = outboundHttp.restTemplate(1000);
+
+        // Act
+        HttpResponse<InputStream> open = outboundHttp.openStream(request);
+        int inFlightWhileOpen = outboundHttp.getInFlight("127.0.0.1");
+        assertThrows(RejectedExecutionException.class, () -> restTemplate.getForObject(baseUrl + "/a", String.class));
+        try (InputStream body = open.body()) {
+            assertEquals("ok", new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        // Assert
+        assertEquals(1, inFlightWhileOpen);
+        assertEquals(0, outboundHttp.getInFlight("127.0.0.1"));
+        assertEquals(1.0, meterRegistry.get("chefmate.http.client.rejected").counter().count());
+        assertEquals("ok", restTemplate.getForObject(baseUrl + "/a", String.class));
+    }
+}
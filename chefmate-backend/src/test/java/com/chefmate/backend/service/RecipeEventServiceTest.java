@@ -0,0 +1,244 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.dto.RecipeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipeEventServiceTest {
+
+    private RecipeEventService recipeEventService;
+    private List<RecordingEmitter> emitters;
+
+    @BeforeEach
+    void setUp() {
+        // Heartbeats are sent by hand in the tests; at most 3 streams per user and per recipe
+        recipeEventService = new RecipeEventService(2, 60_000, 3600, 3, 3);
+        emitters = new CopyOnWriteArrayList<>();
+        recipeEventService.setEmitterFactory(() -> {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            return emitter;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        emitters.forEach(emitter -> emitter.sendGate.countDown());
+        recipeEventService.shutdown();
+    }
+
+    @Test
+    void testBroadcast_FansOutToSubscribersOfThatRecipeOnly() throws Exception {
+        // Arrange
+        RecordingEmitter first = subscribe(1L);
+        RecordingEmitter second = subscribe(1L);
+        RecordingEmitter otherRecipe = subscribe(2L);
+
+        // Act
+        recipeEventService.broadcast(RecipeEvent.likeCountChanged(1L, null, 5));
+
+        // Assert
+        await(() -> first.received("event:like-count-changed") && second.received("event:like-count-changed"));
+        assertTrue(first.received("event:connected"));
+        assertFalse(otherRecipe.received("event:like-count-changed"));
+        assertEquals(2, recipeEventService.getSubscriberCount(1L));
+    }
+
+    @Test
+    void testBroadcast_SubscriberWithFullBufferIsDropped() throws Exception {
+        // Arrange: the first send blocks, so later events pile up in the buffer of 2
+        RecordingEmitter slow = new RecordingEmitter();
+        slow.sendGate = new CountDownLatch(1);
+        recipeEventService.setEmitterFactory(() -> slow);
+        recipeEventService.subscribe(1L, 1L);
+        await(() -> slow.sendsStarted > 0);
+
+        // Act
+        recipeEventService.broadcast(RecipeEvent.commentDeleted(1L, 1L));
+        recipeEventService.broadcast(RecipeEvent.commentDeleted(1L, 2L));
+        boolean completedWithinBuffer = slow.completed;
+        recipeEventService.broadcast(RecipeEvent.commentDeleted(1L, 3L));
+
+        // Assert
+        assertFalse(completedWithinBuffer);
+        assertTrue(slow.completed);
+        assertEquals(0, recipeEventService.getSubscriberCount(1L));
+    }
+
+    @Test
+    void testSendHeartbeats_WritesCommentToEverySubscriber() throws Exception {
+        // Arrange
+        RecordingEmitter first = subscribe(1L);
+        RecordingEmitter second = subscribe(2L);
+
+        // Act
+        recipeEventService.sendHeartbeats();
+
+        // Assert
+        await(() -> first.received(":heartbeat") && second.received(":heartbeat"));
+    }
+
+    @Test
+    void testSubscriberIsRemovedOnCompletionTimeoutOrError() throws Exception {
+        // Arrange
+        RecordingEmitter completed = subscribe(1L);
+        RecordingEmitter timedOut = subscribe(1L);
+        RecordingEmitter failed = subscribe(1L);
+        assertEquals(3, recipeEventService.getSubscriberCount(1L));
+
+        // Act & Assert
+        completed.completionCallback.run();
+        assertEquals(2, recipeEventService.getSubscriberCount(1L));
+        timedOut.timeoutCallback.run();
+        assertEquals(1, recipeEventService.getSubscriberCount(1L));
+        failed.errorCallback.accept(new IOException("Broken pipe"));
+        assertEquals(0, recipeEventService.getSubscriberCount(1L));
+    }
+
+    @Test
+    void testSubscribe_CapsStreamsPerUserAndPerRecipe() {
+        // Arrange
+        subscribe(1L, 1L);
+        subscribe(2L, 1L);
+        subscribe(3L, 1L);
+        subscribe(9L, 2L);
+        subscribe(9L, 3L);
+        subscribe(9L, 4L);
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> recipeEventService.subscribe(4L, 1L));
+        assertThrows(RejectedExecutionException.class, () -> recipeEventService.subscribe(9L, 5L));
+        assertEquals(0, recipeEventService.getSubscriberCount(4L));
+        assertEquals(3, recipeEventService.getSubscriberCount(9L));
+        // The rejected recipe stream did not use up a slot of user 5
+        subscribe(1L, 5L);
+        subscribe(2L, 5L);
+        subscribe(3L, 5L);
+    }
+
+    @Test
+    void testSubscribe_EndedStreamFreesItsSlotOnce() {
+        // Arrange
+        RecordingEmitter first = subscribe(1L, 1L);
+        subscribe(1L, 1L);
+        subscribe(2L, 1L);
+
+        // Act: Spring MVC may report both an error and the completion of the same connection
+        first.errorCallback.accept(new IOException("Broken pipe"));
+        first.completionCallback.run();
+
+        // Assert
+        subscribe(3L, 1L);
+        assertThrows(RejectedExecutionException.class, () -> recipeEventService.subscribe(4L, 1L));
+    }
+
+    @Test
+    void testFailedWriteUnsubscribesAndCompletesWithError() throws Exception {
+        // Arrange
+        RecordingEmitter emitter = subscribe(1L);
+        await(() -> emitter.received("event:connected"));
+        emitter.failSends = true;
+
+        // Act
+        recipeEventService.broadcast(RecipeEvent.commentDeleted(1L, 9L));
+
+        // Assert
+        await(() -> emitter.error != null);
+        assertEquals(0, recipeEventService.getSubscriberCount(1L));
+    }
+
+    private RecordingEmitter subscribe(Long recipeId) {
+        return subscribe(recipeId, 1L);
+    }
+
+    private RecordingEmitter subscribe(Long recipeId, Long userId) {
+        recipeEventService.subscribe(recipeId, userId);
+        return emitters.get(emitters.size() - 1);
+    }
+
+    // Sends happen on virtual threads
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 2 seconds");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Records what would be written to the client; the callbacks Spring MVC would call
+     * when the connection ends are kept so the tests can fire them.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch sendGate = new CountDownLatch(0);
+        private volatile int sendsStarted;
+        private volatile boolean failSends;
+        private volatile boolean completed;
+        private volatile Throwable error;
+        private Runnable completionCallback;
+        private Runnable timeoutCallback;
+        private Consumer<Throwable> errorCallback;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sendsStarted++;
+            try {
+                sendGate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failSends) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        private boolean received(String text) {
+            return sent.stream().anyMatch(event -> event.contains(text));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            error = ex;
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completionCallback = callback;
+        }
+
+        @Override
+        public synchronized void onTimeout(Runnable callback) {
+            timeoutCallback = callback;
+        }
+
+        @Override
+        public synchronized void onError(Consumer<Throwable> callback) {
+            errorCallback = callback;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.repository.RecipeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RecipeFaqPrecomputeServiceTest {
+
+    private RecipeRepository recipeRepository;
+    private RecipeFaqService recipeFaqService;
+    private AiPromptService promptService;
+    private AiService aiService;
+    private RecipeFaqPrecomputeService precomputeService;
+    private LocalDateTime version;
+
+    @BeforeEach
+    void setUp() {
+        recipeRepository = mock(RecipeRepository.class);
+        recipeFaqService = mock(RecipeFaqService.class);
+        promptService = mock(AiPromptService.class);
+        aiService = mock(AiService.class);
+        version = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+        precomputeService = new RecipeFaqPrecomputeService(recipeRepository, recipeFaqService, promptService,
+                aiService, new SimpleMeterRegistry(), false, 10, 2, 6, 15);
+        precomputeService.setClock(() -> LocalTime.of(3, 0));
+
+        when(aiService.isConfigured()).thenReturn(true);
+        when(recipeRepository.findPopularIds(any())).thenReturn(List.of(1L));
+        when(promptService.getRecipe(1L, null)).thenReturn(new AiPromptService.RecipeFacts(1L, version, "Soup",
+                null, null, null, null, List.of(), List.of(), "Recipe: Soup"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        precomputeService.shutdown();
+    }
+
+    @Test
+    void testPrecompute_StoresEachMissingAnswer() throws Exception {
+        // Arrange
+        when(recipeFaqService.getMissingQuestions(1L, version)).thenReturn(
+                List.of(RecipeFaqService.Question.STORAGE, RecipeFaqService.Question.FREEZING));
+        when(aiService.getBackgroundAnswer(eq(1L), anyString(), eq("Recipe: Soup"))).thenReturn("answer");
+
+        // Act
+        int stored = precomputeService.precompute();
+
+        // Assert
+        assertEquals(2, stored);
+        verify(recipeFaqService).saveAnswer(1L, version, RecipeFaqService.Question.STORAGE, "answer");
+        verify(recipeFaqService).saveAnswer(1L, version, RecipeFaqService.Question.FREEZING, "answer");
+    }
+
+    @Test
+    void testPrecompute_StopsWhenQuotaIsNeeded() throws Exception {
+        // Arrange
+        when(recipeFaqService.getMissingQuestions(1L, version)).thenReturn(
+                List.of(RecipeFaqService.Question.STORAGE, RecipeFaqService.Question.FREEZING));
+        when(aiService.getBackgroundAnswer(anyLong(), anyString(), anyString()))
+                .thenReturn("answer")
+                .thenThrow(new RejectedExecutionException("quota"));
+
+        // Act
+        int stored = precomputeService.precompute();
+
+        // Assert: the first answer is kept, the second is left for the next run
+        assertEquals(1, stored);
+        verify(recipeFaqService, times(1)).saveAnswer(any(), any(), any(), any());
+    }
+
+    @Test
+    void testRunIfOffPeak_SkipsDuringPeakHours() throws Exception {
+        // Arrange
+        precomputeService.setClock(() -> LocalTime.of(18, 0));
+
+        // Act
+        precomputeService.runIfOffPeak();
+
+        // Assert
+        verify(aiService, never()).getBackgroundAnswer(anyLong(), anyString(), anyString());
+        verifyNoInteractions(recipeRepository);
+    }
+}
@@ -1,7 +1,9 @@
 package com.chefmate.backend.service;
 
+import com.chefmate.backend.dto.CommentResponse;
 import com.chefmate.backend.dto.RecipeRequest;
 import com.chefmate.backend.dto.RecipeResponse;
+import com.chefmate.backend.entity.Comment;
 import com.chefmate.backend.entity.Recipe;
 import com.chefmate.backend.entity.Role;
 import com.chefmate.backend.entity.User;
@@ -16,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -44,6 +47,9 @@ class RecipeServiceTest {
     @Mock
     private CommentLikeRepository commentLikeRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private RecipeService recipeService;
 
@@ -69,8 +75,8 @@ class RecipeServiceTest {
         testRecipe.setServings(4);
         testRecipe.setDifficulty(Recipe.Difficulty.EASY);
         testRecipe.setUser(testUser);
-        testRecipe.setIngredients(Arrays.asList("Ingredient 1", "Ingredient 2"));
-        testRecipe.setSteps(Arrays.asList("Step 1", "Step 2"));
+        testRecipe.setIngredients(new ArrayList<>(Arrays.asList("Ingredient 1", "Ingredient 2")));
+        testRecipe.setSteps(new ArrayList<>(Arrays.asList("Step 1", "Step 2")));
         testRecipe.setLikesCount(0);
         testRecipe.setViewsCount(0);
 
@@ -182,6 +188,63 @@ class RecipeServiceTest {
         verify(recipeRepository).save(testRecipe);
     }
 
+    @Test
+    void testUpdateRecipe_ListsWrittenWithRecipeRow() {
+        // Arrange
+        recipeRequest.setSteps(List.of("Preheat oven", "Whisk flour and eggs", "Bake 20 minutes"));
+        when(recipeRepository.findById(1L)).thenReturn(Optional.of(testRecipe));
+        when(recipeRepository.save(any(Recipe.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        RecipeResponse response = recipeService.updateRecipe(1L, recipeRequest, 1L);
+
+        // Assert: ingredients and steps are columns of the recipe, so one save writes everything
+        assertEquals(3, response.getSteps().size());
+        assertEquals("Whisk flour and eggs", response.getSteps().get(1));
+        assertEquals(List.of("New Ingredient 1", "New Ingredient 2"), response.getIngredients());
+        verify(recipeRepository, times(1)).save(testRecipe);
+    }
+
+    @Test
+    void testUpdateRecipeWithImages_PrunesVariantsOfRemovedImages() {
+        // Arrange
+        testRecipe.setImageUrls(new ArrayList<>(List.of("/uploads/a.jpg", "/uploads/b.jpg")));
+        when(recipeRepository.findById(1L)).thenReturn(Optional.of(testRecipe));
+        when(recipeRepository.save(any(Recipe.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        recipeService.updateRecipeWithImages(1L, recipeRequest, 1L, List.of("/uploads/b.jpg", "/uploads/c.jpg"));
+
+        // Assert
+        verify(recipeRepository).removeImageVariants(1L, "/uploads/a.jpg");
+        verify(recipeRepository, never()).removeImageVariants(1L, "/uploads/b.jpg");
+        assertEquals(List.of("/uploads/b.jpg", "/uploads/c.jpg"), testRecipe.getImageUrls());
+    }
+
+    @Test
+    void testSearchRecipes_ByIngredientSearchesTheNormalizedName() {
+        // Arrange
+        when(recipeRepository.findByIngredient("egg")).thenReturn(List.of(testRecipe));
+
+        // Act
+        List<RecipeResponse> byName = recipeService.searchRecipes(null, null, null, " Eggs ", 1L);
+        List<RecipeResponse> byLine = recipeService.searchRecipes(null, null, null, "2 eggs", 1L);
+
+        // Assert
+        assertEquals(1, byName.size());
+        assertEquals(1, byLine.size());
+        verify(recipeRepository, never()).findAll();
+    }
+
+    @Test
+    void testIngredientNames_NormalizesAndDeduplicatesLines() {
+        // Act
+        List<String> names = Recipe.ingredientNames(List.of("2 eggs, beaten", "1 egg", "200 g Flour", "Salt to taste"));
+
+        // Assert
+        assertEquals(List.of("egg", "flour", "salt to taste"), names);
+    }
+
     @Test
     void testUpdateRecipe_NotFound() {
         // Arrange
@@ -425,4 +488,63 @@ class RecipeServiceTest {
 
         verify(recipeRepository).save(any(Recipe.class));
     }
+
+    @Test
+    void testAddComment_SingleInsertWithoutReloads() {
+        // Arrange
+        when(recipeRepository.getReferenceById(1L)).thenReturn(testRecipe);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(commentRepository.saveAndFlush(any(Comment.class))).thenAnswer(invocation -> {
+            Comment comment = invocation.getArgument(0);
+            comment.setId(10L);
+            return comment;
+        });
+
+        // Act
+        CommentResponse response = recipeService.addComment(1L, "Looks great", 1L);
+
+        // Assert
+        assertEquals(10L, response.getId());
+        assertEquals("Looks great", response.getContent());
+        assertEquals("testuser", response.getUsername());
+        assertNull(response.getParentCommentId());
+        assertEquals(0, response.getLikesCount());
+        assertFalse(response.getIsLiked());
+        assertTrue(response.getReplies().isEmpty());
+
+        // Exactly one write and no reads of recipe, user, replies or likes
+        verify(commentRepository, times(1)).saveAndFlush(any(Comment.class));
+        verifyNoMoreInteractions(commentRepository);
+        verify(recipeRepository, never()).findById(anyLong());
+        verify(userRepository, never()).findById(anyLong());
+        verifyNoInteractions(commentLikeRepository);
+    }
+
+    @Test
+    void testReplyToComment_SingleInsertWithoutReloads() {
+        // Arrange
+        Comment parent = new Comment("Parent", testRecipe, testUser);
+        parent.setId(5L);
+        when(commentRepository.findRecipeIdByCommentId(5L)).thenReturn(Optional.of(1L));
+        when(recipeRepository.getReferenceById(1L)).thenReturn(testRecipe);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(commentRepository.getReferenceById(5L)).thenReturn(parent);
+        when(commentRepository.saveAndFlush(any(Comment.class))).thenAnswer(invocation -> {
+            Comment comment = invocation.getArgument(0);
+            comment.setId(11L);
+            return comment;
+        });
+
+        // Act
+        CommentResponse response = recipeService.replyToComment(5L, "Agreed", 1L);
+
+        // Assert
+        assertEquals(11L, response.getId());
+        assertEquals(5L, response.getParentCommentId());
+
+        verify(commentRepository, times(1)).saveAndFlush(any(Comment.class));
+        verify(commentRepository, never()).findById(anyLong());
+        verify(commentRepository, never()).findByParentCommentIdOrderByCreatedAtAsc(anyLong());
+        verifyNoInteractions(commentLikeRepository);
+    }
 }
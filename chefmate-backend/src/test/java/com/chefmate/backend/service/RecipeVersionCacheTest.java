@@ -0,0 +1,44 @@
+package com.chefmate.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipeVersionCacheTest {
+
+    private static final LocalDateTime VERSION = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Test
+    void testGet_OnlyForTheCachedVersion() {
+        // Arrange
+        RecipeVersionCache<String> cache = new RecipeVersionCache<>(10);
+        cache.put(1L, VERSION, "block");
+
+        // Act & Assert
+        assertEquals("block", cache.get(1L, VERSION));
+        assertNull(cache.get(1L, VERSION.plusMinutes(1)));
+        assertNull(cache.get(2L, VERSION));
+        cache.remove(1L);
+        assertNull(cache.get(1L, VERSION));
+    }
+
+    @Test
+    void testPut_StaysWithinMaxRecipes() {
+        // Arrange
+        RecipeVersionCache<String> cache = new RecipeVersionCache<>(2);
+
+        // Act
+        cache.put(1L, VERSION, "first");
+        cache.put(2L, VERSION, "second");
+        cache.put(2L, VERSION.plusMinutes(1), "second, edited");
+        int sizeAfterUpdate = cache.size();
+        cache.put(3L, VERSION, "third");
+
+        // Assert
+        assertEquals(2, sizeAfterUpdate);
+        assertEquals(2, cache.size());
+        assertEquals("third", cache.get(3L, VERSION));
+    }
+}
@@ -0,0 +1,336 @@
+package com.chefmate.backend.service;
+
+import com.chefmate.backend.dto.ShoppingListChangesResponse;
+import com.chefmate.backend.dto.ShoppingListItemOperation;
+import com.chefmate.backend.dto.ShoppingListResponse;
+import com.chefmate.backend.entity.Role;
+import com.chefmate.backend.entity.ShoppingList;
+import com.chefmate.backend.entity.ShoppingListItem;
+import com.chefmate.backend.entity.User;
+import com.chefmate.backend.entity.Recipe;
+import com.chefmate.backend.repository.RecipeRepository;
+import com.chefmate.backend.repository.ShoppingListItemBatchRepository;
+import com.chefmate.backend.repository.ShoppingListItemRepository;
+import com.chefmate.backend.repository.ShoppingListItemTombstoneRepository;
+import com.chefmate.backend.repository.ShoppingListMutationRepository;
+import com.chefmate.backend.repository.ShoppingListRepository;
+import com.chefmate.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShoppingListServiceTest {
+
+    @Mock
+    private ShoppingListRepository shoppingListRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ShoppingListItemRepository shoppingListItemRepository;
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private IngredientAggregationService ingredientAggregationService;
+
+    @Mock
+    private ShoppingListItemBatchRepository shoppingListItemBatchRepository;
+
+    @Mock
+    private ShoppingListItemTombstoneRepository shoppingListItemTombstoneRepository;
+
+    @Mock
+    private ShoppingListMutationRepository shoppingListMutationRepository;
+
+    @InjectMocks
+    private ShoppingListService shoppingListService;
+
+    private User testUser;
+    private ShoppingList activeList;
+    private ShoppingList completedList;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        testUser.setRole(Role.USER);
+
+        activeList = createList(1L, "Weekly", false);
+        completedList = createList(2L, "Last week", true);
+    }
+
+    @Test
+    void testGetUserShoppingLists_LoadsItemsInSingleBatch() {
+        // Arrange
+        when(shoppingListRepository.findByUserIdWithUserOrderByCreatedAtDesc(1L))
+                .thenReturn(Arrays.asList(activeList, completedList));
+        when(shoppingListItemRepository.findByShoppingListIds(List.of(1L, 2L)))
+                .thenReturn(Arrays.asList(
+                        createItem(10L, "Eggs", activeList),
+                        createItem(11L, "Milk", activeList),
+                        createItem(12L, "Flour", completedList)));
+
+        // Act
+        List<ShoppingListResponse> responses = shoppingListService.getUserShoppingLists(1L);
+
+        // Assert
+        assertEquals(2, responses.size());
+        assertEquals(2, responses.get(0).getItems().size());
+        assertEquals("Eggs", responses.get(0).getItems().get(0).getName());
+        assertEquals(1, responses.get(1).getItems().size());
+        assertEquals("Flour", responses.get(1).getItems().get(0).getName());
+        assertEquals("testuser", responses.get(0).getUsername());
+
+        verify(shoppingListItemRepository, times(1)).findByShoppingListIds(anyCollection());
+        verify(shoppingListItemRepository, never()).findByShoppingListId(anyLong());
+    }
+
+    @Test
+    void testGetUserShoppingLists_NoListsSkipsItemQuery() {
+        // Arrange
+        when(shoppingListRepository.findByUserIdWithUserOrderByCreatedAtDesc(1L)).thenReturn(List.of());
+
+        // Act
+        List<ShoppingListResponse> responses = shoppingListService.getUserShoppingLists(1L);
+
+        // Assert
+        assertTrue(responses.isEmpty());
+        verifyNoInteractions(shoppingListItemRepository);
+    }
+
+    @Test
+    void testCreateFromRecipes_LoadsRecipesOnceAndWritesInOneBatch() {
+        // Arrange
+        Recipe omelette = createRecipe(5L, "2 eggs", "salt");
+        Recipe pancakes = createRecipe(6L, "3 eggs", "200 g flour");
+        when(recipeRepository.findAllById(anyIterable()))
+                .thenReturn(Arrays.asList(omelette, pancakes));
+        when(shoppingListRepository.findByUserIdAndCompletedOrderByCreatedAtDesc(1L, false))
+                .thenReturn(List.of(activeList));
+        when(shoppingListItemRepository.findReadOnlyByShoppingListId(1L)).thenReturn(List.of());
+        IngredientAggregationService realAggregation = new IngredientAggregationService(10);
+        when(ingredientAggregationService.parseRecipeIngredients(any(Recipe.class)))
+                .thenAnswer(invocation -> realAggregation.parseRecipeIngredients(invocation.getArgument(0)));
+        when(ingredientAggregationService.mergeIntoList(any(), anyList(), anyList()))
+                .thenAnswer(invocation -> realAggregation.mergeIntoList(
+                        invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+
+        // Act: the omelette is planned twice
+        ShoppingListResponse response = shoppingListService.createFromRecipes(List.of(5L, 6L, 5L), 1L);
+
+        // Assert
+        assertEquals(3, response.getItems().size());
+        assertEquals("7", response.getItems().get(0).getQuantity());
+        verify(recipeRepository, times(1)).findAllById(anyIterable());
+        verify(recipeRepository, never()).findById(anyLong());
+        verify(shoppingListItemRepository, times(1)).saveAll(argThat(items -> ((List<?>) items).size() == 3));
+        verify(shoppingListItemBatchRepository, times(1)).updateAll(List.of());
+    }
+
+    @Test
+    void testCreateFromRecipes_UnknownRecipeThrows() {
+        // Arrange
+        when(recipeRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> shoppingListService.createFromRecipes(List.of(99L), 1L));
+        verifyNoInteractions(shoppingListItemBatchRepository);
+    }
+
+    @Test
+    void testApplyItemOperations_ChecksOwnershipOnceAndBatchesWrites() {
+        // Arrange
+        ShoppingListItem eggs = createItem(10L, "Eggs", activeList);
+        ShoppingListItem milk = createItem(11L, "Milk", activeList);
+        ShoppingListItem flour = createItem(12L, "Flour", activeList);
+        when(shoppingListRepository.findById(1L)).thenReturn(Optional.of(activeList));
+        when(shoppingListItemRepository.findReadOnlyByShoppingListId(1L)).thenReturn(List.of(eggs, milk, flour));
+
+        List<ShoppingListItemOperation> operations = List.of(
+                operation(ShoppingListItemOperation.PURCHASED, 10L, null),
+                operation(ShoppingListItemOperation.PURCHASED, 11L, null),
+                operation(ShoppingListItemOperation.DELETE, 12L, null),
+                operation(ShoppingListItemOperation.ADD, null, "Butter"));
+
+        // Act
+        ShoppingListResponse response = shoppingListService.applyItemOperations(1L, operations, 1L);
+
+        // Assert
+        assertEquals(3, response.getItems().size());
+        assertTrue(eggs.getPurchased());
+        assertTrue(milk.getPurchased());
+        assertEquals("Butter", response.getItems().get(2).getName());
+
+        verify(shoppingListRepository, times(1)).findById(1L);
+        verify(shoppingListItemRepository, never()).findById(anyLong());
+        verify(shoppingListItemRepository, never()).save(any());
+        verify(shoppingListItemBatchRepository, times(1)).nextListVersion(1L);
+        verify(shoppingListItemBatchRepository, times(1)).deleteAllById(1L, List.of(12L), 0L);
+        verify(shoppingListItemBatchRepository, times(1)).updateAll(List.of(eggs, milk));
+        verify(shoppingListItemRepository, times(1)).saveAll(argThat(items -> ((List<?>) items).size() == 1));
+    }
+
+    @Test
+    void testApplyItemOperations_OtherUsersListRejected() {
+        // Arrange
+        User otherUser = new User();
+        otherUser.setId(2L);
+        activeList.setUser(otherUser);
+        when(shoppingListRepository.findById(1L)).thenReturn(Optional.of(activeList));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> shoppingListService.applyItemOperations(
+                1L, List.of(operation(ShoppingListItemOperation.DELETE, 10L, null)), 1L));
+        verifyNoInteractions(shoppingListItemBatchRepository);
+    }
+
+    @Test
+    void testDeleteShoppingListItem_ItemOfAnotherListNotFound() {
+        // Arrange
+        ShoppingList otherList = createList(3L, "Someone else's", false);
+        ShoppingListItem foreignItem = createItem(30L, "Flour", otherList);
+        when(shoppingListRepository.findById(1L)).thenReturn(Optional.of(activeList));
+        when(shoppingListItemRepository.findById(30L)).thenReturn(Optional.of(foreignItem));
+
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> shoppingListService.deleteShoppingListItem(1L, 30L, 1L));
+        verifyNoInteractions(shoppingListItemBatchRepository);
+    }
+
+    @Test
+    void testDeleteShoppingListItem_LeavesTombstoneOnItsList() {
+        // Arrange
+        ShoppingListItem eggs = createItem(10L, "Eggs", activeList);
+        when(shoppingListRepository.findById(1L)).thenReturn(Optional.of(activeList));
+        when(shoppingListItemRepository.findById(10L)).thenReturn(Optional.of(eggs));
+        when(shoppingListItemBatchRepository.nextListVersion(1L)).thenReturn(4L);
+
+        // Act
+        shoppingListService.deleteShoppingListItem(1L, 10L, 1L);
+
+        // Assert
+        verify(shoppingListItemBatchRepository).deleteAllById(1L, List.of(10L), 4L);
+    }
+
+    @Test
+    void testApplyItemOperations_MalformedOperationIsABadRequest() {
+        // Arrange
+        when(shoppingListRepository.findById(1L)).thenReturn(Optional.of(activeList));
+
+        // Act & Assert: rejected as invalid, not as an item that is not found
+        assertThrows(IllegalArgumentException.class, () -> shoppingListService.applyItemOperations(
+                1L, List.of(operation("rename", 10L, "Eggs")), 1L));
+        assertThrows(IllegalArgumentException.class, () -> shoppingListService.applyItemOperations(
+                1L, List.of(operation(ShoppingListItemOperation.PURCHASED, null, null)), 1L));
+        verifyNoInteractions(shoppingListItemBatchRepository);
+        verify(shoppingListItemRepository, never()).findReadOnlyByShoppingListId(anyLong());
+    }
+
+    @Test
+    void testApplyItemOperations_ReplayedMutationsAreSkipped() {
+        // Arrange
+        ShoppingListItem eggs = createItem(10L, "Eggs", activeList);
+        when(shoppingListRepository.findById(1L)).thenReturn(Optional.of(activeList));
+        when(shoppingListItemBatchRepository.nextListVersion(1L)).thenReturn(8L);
+        when(shoppingListMutationRepository.findAppliedMutationIds(eq(1L), anyCollection()))
+                .thenReturn(List.of("m-1"));
+        when(shoppingListItemRepository.findReadOnlyByShoppingListId(1L)).thenReturn(List.of(eggs));
+
+        ShoppingListItemOperation replayedAdd = operation(ShoppingListItemOperation.ADD, null, "Butter");
+        replayedAdd.setMutationId("m-1");
+        ShoppingListItemOperation check = operation(ShoppingListItemOperation.PURCHASED, 10L, null);
+        check.setMutationId("m-2");
+        ShoppingListItemOperation staleDelete = operation(ShoppingListItemOperation.DELETE, 99L, null);
+
+        // Act
+        ShoppingListResponse response = shoppingListService.applyItemOperations(
+                1L, List.of(replayedAdd, check, staleDelete), 1L);
+
+        // Assert
+        assertEquals(1, response.getItems().size());
+        assertEquals(8L, response.getVersion());
+        assertEquals(8L, eggs.getVersion());
+        verify(shoppingListItemBatchRepository).updateAll(List.of(eggs));
+        verify(shoppingListItemRepository, never()).saveAll(anyList());
+        verify(shoppingListItemBatchRepository).deleteAllById(1L, List.of(), 8L);
+        verify(shoppingListMutationRepository).saveAll(argThat(mutations ->
+                mutations.iterator().next().getMutationId().equals("m-2")));
+    }
+
+    @Test
+    void testGetChanges_ReturnsChangedItemsAndTombstones() {
+        // Arrange
+        activeList.setVersion(12L);
+        ShoppingListItem milk = createItem(11L, "Milk", activeList);
+        milk.setVersion(11L);
+        when(shoppingListRepository.findById(1L)).thenReturn(Optional.of(activeList));
+        when(shoppingListItemRepository.findChangedSince(1L, 10L)).thenReturn(List.of(milk));
+        when(shoppingListItemTombstoneRepository.findItemIdsDeletedSince(1L, 10L)).thenReturn(List.of(12L));
+
+        // Act
+        ShoppingListChangesResponse changes = shoppingListService.getChanges(1L, 10L, 1L);
+
+        // Assert
+        assertEquals(12L, changes.getVersion());
+        assertEquals(1, changes.getItems().size());
+        assertEquals(11L, changes.getItems().get(0).getVersion());
+        assertEquals(List.of(12L), changes.getDeletedItemIds());
+        verify(shoppingListItemRepository, never()).findByShoppingListId(anyLong());
+    }
+
+    private ShoppingListItemOperation operation(String op, Long itemId, String name) {
+        ShoppingListItemOperation operation = new ShoppingListItemOperation();
+        operation.setOp(op);
+        operation.setItemId(itemId);
+        operation.setName(name);
+        return operation;
+    }
+
+    private Recipe createRecipe(Long id, String... ingredients) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setTitle("Recipe " + id);
+        recipe.setIngredients(new ArrayList<>(Arrays.asList(ingredients)));
+        return recipe;
+    }
+
+    private ShoppingList createList(Long id, String name, boolean completed) {
+        ShoppingList list = new ShoppingList();
+        list.setId(id);
+        list.setName(name);
+        list.setUser(testUser);
+        list.setCreatedAt(LocalDateTime.now());
+        list.setCompleted(completed);
+        return list;
+    }
+
+    private ShoppingListItem createItem(Long id, String name, ShoppingList list) {
+        ShoppingListItem item = new ShoppingListItem();
+        item.setId(id);
+        item.setName(name);
+        item.setQuantity("");
+        item.setUnit("");
+        item.setPurchased(false);
+        item.setShoppingList(list);
+        return item;
+    }
+}
@@ -0,0 +1,336 @@
+package com.chefmate.backend.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local stand-in for the Gemini API, so the AI path can be tested and load-tested
+ * without the network or real quota. Point gemini.api.url at {@link #getUrl()}.
+ *
+ * Serves GET models, POST models/{model}:generateContent and
+ * POST models/{model}:streamGenerateContent?alt=sse, with usageMetadata like the real
+ * API. Latency, error rates and answer sizes are configurable and can be changed while
+ * the server runs. Each exchange runs on its own virtual thread, so simulated latency
+ * never limits how many calls the stub handles at once.
+ *
+ * Also runs on its own for load tests against a running backend:
+ * mvn -Pgemini-stub test-compile exec:exec, then start the backend with
+ * GEMINI_API_URL=http://localhost:8089/v1beta and any GEMINI_API_KEY.
+ */
+public class GeminiStubServer implements AutoCloseable {
+
+    private static final String BASE_PATH = "/v1beta";
+    private static final String[] WORDS = {
+            "stir", "the", "onions", "until", "golden", "then", "add", "garlic", "and", "a", "pinch", "of", "salt",
+            "simmer", "gently", "for", "ten", "minutes", "taste", "season", "with", "pepper", "butter", "heat",
+            "pan", "oven", "dough", "rest", "whisk", "eggs", "fold", "in", "flour", "serve", "warm"
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpServer server;
+    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+
+    private volatile LatencyDistribution latency = LatencyDistribution.fixed(0);
+    private volatile LatencyDistribution chunkDelay = LatencyDistribution.fixed(0);
+    private volatile Map<Integer, Double> errorRates = Map.of();
+    private volatile int minWords = 20;
+    private volatile int maxWords = 60;
+    private volatile int streamChunks = 5;
+    private volatile List<String> models = List.of("models/gemini-2.5-flash", "models/gemini-2.5-pro");
+
+    public GeminiStubServer() throws IOException {
+        this(0);
+    }
+
+    /**
+     * @param port 0 for any free port
+     */
+    public GeminiStubServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.setExecutor(executor);
+        server.createContext(BASE_PATH + "/models", this::handle);
+        server.start();
+    }
+
+    /**
+     * @return the value for gemini.api.url
+     */
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + BASE_PATH;
+    }
+
+    /**
+     * Time until the response headers are sent, per call.
+     */
+    public GeminiStubServer latency(LatencyDistribution latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Time between two chunks of a streamed answer.
+     */
+    public GeminiStubServer chunkDelay(LatencyDistribution chunkDelay) {
+        this.chunkDelay = chunkDelay;
+        return this;
+    }
+
+    /**
+     * Share of generate calls (0-1) answered with the given status instead; rates of
+     * several statuses add up.
+     */
+    public GeminiStubServer errorRate(int status, double rate) {
+        Map<Integer, Double> rates = new ConcurrentHashMap<>(errorRates);
+        rates.put(status, rate);
+        this.errorRates = rates;
+        return this;
+    }
+
+    /**
+     * Answer length in words, picked uniformly per call.
+     */
+    public GeminiStubServer responseWords(int minWords, int maxWords) {
+        this.minWords = minWords;
+        this.maxWords = maxWords;
+        return this;
+    }
+
+    public GeminiStubServer streamChunks(int streamChunks) {
+        this.streamChunks = streamChunks;
+        return this;
+    }
+
+    public GeminiStubServer models(String... models) {
+        this.models = List.of(models);
+        return this;
+    }
+
+    /**
+     * @param method "models", "generateContent" or "streamGenerateContent"
+     */
+    public long getRequestCount(String method) {
+        AtomicLong count = requestCounts.get(method);
+        return count == null ? 0 : count.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath().substring((BASE_PATH + "/models").length());
+            String method = path.isEmpty() || path.equals("/") ? "models"
+                    : path.substring(path.lastIndexOf(':') + 1);
+            requestCounts.computeIfAbsent(method, key -> new AtomicLong()).incrementAndGet();
+            byte[] request = exchange.getRequestBody().readAllBytes();
+
+            String apiKey = exchange.getRequestHeaders().getFirst("x-goog-api-key");
+            if (apiKey == null || apiKey.isBlank()) {
+                sendError(exchange, 403, "PERMISSION_DENIED", "Method doesn't allow unregistered callers.");
+                return;
+            }
+
+            switch (method) {
+                case "models" -> {
+                    sleep(latency);
+                    sendJson(exchange, 200, listModels());
+                }
+                case "generateContent", "streamGenerateContent" -> {
+                    if (!"POST".equals(exchange.getRequestMethod())) {
+                        sendError(exchange, 405, "INVALID_ARGUMENT", "Use POST");
+                        return;
+                    }
+                    sleep(latency);
+                    Integer error = pickError();
+                    if (error != null) {
+                        sendError(exchange, error, error == 429 ? "RESOURCE_EXHAUSTED" : "UNAVAILABLE",
+                                "Simulated error");
+                        return;
+                    }
+                    int promptTokens = estimateTokens(objectMapper.readTree(request));
+                    String answer = answer();
+                    if (method.equals("generateContent")) {
+                        sendJson(exchange, 200, response(answer, promptTokens, estimateTokens(answer)));
+                    } else {
+                        stream(exchange, answer, promptTokens);
+                    }
+                }
+                default -> sendError(exchange, 404, "NOT_FOUND", "Unknown method " + method);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void stream(HttpExchange exchange, String answer, int promptTokens) throws IOException, InterruptedException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        String[] words = answer.split(" ");
+        int chunks = Math.max(1, Math.min(streamChunks, words.length));
+        int sent = 0;
+        StringBuilder soFar = new StringBuilder();
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            if (chunk > 0) {
+                sleep(chunkDelay);
+            }
+            int end = (chunk + 1) * words.length / chunks;
+            StringBuilder text = new StringBuilder();
+            for (; sent < end; sent++) {
+                text.append(words[sent]).append(sent < words.length - 1 ? " " : "");
+            }
+            soFar.append(text);
+            // Like Gemini, every chunk carries the running usage totals
+            ObjectNode event = response(text.toString(), promptTokens, estimateTokens(soFar.toString()));
+            out.write(("data: " + objectMapper.writeValueAsString(event) + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+    }
+
+    private ObjectNode response(String text, int promptTokens, int responseTokens) {
+        ObjectNode response = objectMapper.createObjectNode();
+        ObjectNode candidate = response.putArray("candidates").addObject();
+        ObjectNode content = candidate.putObject("content");
+        content.putArray("parts").addObject().put("text", text);
+        content.put("role", "model");
+        candidate.put("finishReason", "STOP");
+        ObjectNode usage = response.putObject("usageMetadata");
+        usage.put("promptTokenCount", promptTokens);
+        usage.put("candidatesTokenCount", responseTokens);
+        usage.put("totalTokenCount", promptTokens + responseTokens);
+        return response;
+    }
+
+    private ObjectNode listModels() {
+        ObjectNode response = objectMapper.createObjectNode();
+        ArrayNode list = response.putArray("models");
+        for (String model : models) {
+            list.addObject().put("name", model).put("displayName", model.substring(model.indexOf('/') + 1));
+        }
+        return response;
+    }
+
+    private Integer pickError() {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        for (Map.Entry<Integer, Double> rate : errorRates.entrySet()) {
+            roll -= rate.getValue();
+            if (roll < 0) {
+                return rate.getKey();
+            }
+        }
+        return null;
+    }
+
+    private String answer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int count = minWords >= maxWords ? minWords : random.nextInt(minWords, maxWords + 1);
+        StringBuilder answer = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                answer.append(' ');
+            }
+            answer.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return answer.toString();
+    }
+
+    // Roughly four characters per token, as for English text
+    private static int estimateTokens(String text) {
+        return Math.max(1, text.length() / 4);
+    }
+
+    private static int estimateTokens(JsonNode request) {
+        int characters = 0;
+        for (JsonNode text : request.findValues("text")) {
+            characters += text.asText().length();
+        }
+        return Math.max(1, characters / 4);
+    }
+
+    private void sendJson(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private void sendError(HttpExchange exchange, int status, String reason, String message) throws IOException {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.putObject("error").put("code", status).put("message", message).put("status", reason);
+        sendJson(exchange, status, body);
+    }
+
+    private static void sleep(LatencyDistribution distribution) throws InterruptedException {
+        long millis = distribution.nextMillis();
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    /**
+     * Simulated delay in milliseconds, drawn per call.
+     */
+    @FunctionalInterface
+    public interface LatencyDistribution {
+
+        long nextMillis();
+
+        static LatencyDistribution fixed(long millis) {
+            return () -> millis;
+        }
+
+        static LatencyDistribution uniform(long minMillis, long maxMillis) {
+            return () -> ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+        }
+
+        /**
+         * Long-tailed like real model latency: half the calls take under the median,
+         * one in a hundred takes longer than p99.
+         */
+        static LatencyDistribution logNormal(long medianMillis, long p99Millis) {
+            double mu = Math.log(medianMillis);
+            // 2.326 is the standard normal 99th percentile
+            double sigma = Math.log((double) p99Millis / medianMillis) / 2.326;
+            return () -> Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+    }
+
+    /**
+     * Runs the stub until the process is stopped. Settings are system properties:
+     * gemini.stub.port, gemini.stub.median-ms, gemini.stub.p99-ms, gemini.stub.error-rate
+     * (answered with 503), gemini.stub.throttle-rate (answered with 429),
+     * gemini.stub.min-words and gemini.stub.max-words.
+     */
+    public static void main(String[] args) throws Exception {
+        GeminiStubServer stub = new GeminiStubServer(Integer.getInteger("gemini.stub.port", 8089))
+                .latency(LatencyDistribution.logNormal(Long.getLong("gemini.stub.median-ms", 800),
+                        Long.getLong("gemini.stub.p99-ms", 4000)))
+                .chunkDelay(LatencyDistribution.uniform(20, 80))
+                .errorRate(503, Double.parseDouble(System.getProperty("gemini.stub.error-rate", "0")))
+                .errorRate(429, Double.parseDouble(System.getProperty("gemini.stub.throttle-rate", "0")))
+                .responseWords(Integer.getInteger("gemini.stub.min-words", 40), Integer.getInteger("gemini.stub.max-words", 200));
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        System.out.println("Gemini stub listening on " + stub.getUrl());
+        Thread.currentThread().join();
+    }
+}